@@ -0,0 +1,121 @@
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic users dataset loader (single-file program, run with
+ * 'java -cp {JDBC driver jar} DatasetLoader.java ...').
+ * Replaces the content of the users table (created by the application) with the given number of users, ids
+ * 1..users: names drawn from common first/last names, a unique email, a birth date between 18 and 90 years
+ * ago, an address and a phone number. The same seed always produces the same dataset.
+ * Rows are written with JDBC batches of multi-row inserts (with rewriteBatchedStatements on MySQL) and
+ * committed every COMMIT_ROWS rows, then the users_seq generator is moved past the loaded ids.
+ * The application must be stopped while loading: its in-memory indexes are loaded from the table at startup.
+ * Usage: java -cp {driver jar} DatasetLoader.java {JDBC url} {username} {password} {number of users} [{seed}]
+ */
+public class DatasetLoader {
+    private static final int BATCH_ROWS = 1000;
+    private static final int COMMIT_ROWS = 50_000;
+    private static final String INSERT = "INSERT INTO users (id, email, first_name, last_name, birth_date, " +
+            "address, phone_number, is_active, version) VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, 0)";
+    private static final String[] FIRST_NAMES = {
+            "Oleksandr", "Andrii", "Dmytro", "Serhii", "Maksym", "Artem", "Ivan", "Mykola", "Vladyslav", "Taras",
+            "Bohdan", "Yurii", "Roman", "Pavlo", "Oleh", "Denys", "Viktor", "Petro", "Yaroslav", "Volodymyr",
+            "Olena", "Iryna", "Tetiana", "Nataliia", "Oksana", "Yuliia", "Kateryna", "Anna", "Mariia", "Sofiia",
+            "Svitlana", "Halyna", "Liudmyla", "Viktoriia", "Anastasiia", "Daryna", "Khrystyna", "Alina", "Olha",
+            "Solomiia", "James", "John", "Robert", "Michael", "William", "Mary", "Patricia", "Jennifer", "Linda",
+            "Elizabeth"};
+    private static final String[] LAST_NAMES = {
+            "Melnyk", "Shevchenko", "Kovalenko", "Bondarenko", "Boiko", "Tkachenko", "Kravchenko", "Kovalchuk",
+            "Koval", "Oliinyk", "Shevchuk", "Polishchuk", "Ivanenko", "Tkachuk", "Savchenko", "Bondar", "Marchenko",
+            "Rudenko", "Moroz", "Lysenko", "Petrenko", "Klymenko", "Pavlenko", "Savchuk", "Kuzmenko", "Sobko",
+            "Ponomarenko", "Vasylenko", "Levchenko", "Kharchenko", "Karpenko", "Havryliuk", "Smith", "Johnson",
+            "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis"};
+    private static final String[] DOMAINS = {"gmail.com", "ukr.net", "outlook.com", "yahoo.com", "i.ua",
+            "proton.me", "example.com"};
+    private static final String[] STREETS = {"Shevchenka", "Khreshchatyk", "Franka", "Lesi Ukrainky",
+            "Hrushevskoho", "Sahaidachnoho", "Bandery", "Soborna", "Nezalezhnosti", "Main", "Oak", "Park"};
+    private static final String[] CITIES = {"Kyiv", "Lviv", "Kharkiv", "Odesa", "Dnipro", "Vinnytsia",
+            "Poltava", "Chernihiv", "Uzhhorod", "Ivano-Frankivsk"};
+
+    public static void main(String[] args) throws SQLException {
+        String url = args[0];
+        long users = Long.parseLong(args[3]);
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long latestBirthDay = LocalDate.now().minusYears(18).minusDays(1).toEpochDay();
+        long earliestBirthDay = LocalDate.now().minusYears(90).toEpochDay();
+        long start = System.nanoTime();
+
+        try (Connection connection = DriverManager.getConnection(url, args[1], args[2])) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE TABLE users");
+            }
+
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (long id = 1; id <= users; id++) {
+                    String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                    String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+                    insert.setLong(1, id);
+                    insert.setString(2, firstName.toLowerCase(Locale.ROOT) + '.' + lastName.toLowerCase(Locale.ROOT) +
+                            '.' + id + '@' + DOMAINS[random.nextInt(DOMAINS.length)]); // the id makes it unique
+                    insert.setString(3, firstName);
+                    insert.setString(4, lastName);
+                    insert.setDate(5, Date.valueOf(LocalDate.ofEpochDay(
+                            random.nextLong(earliestBirthDay, latestBirthDay + 1))));
+                    insert.setString(6, (1 + random.nextInt(200)) + " " + STREETS[random.nextInt(STREETS.length)] +
+                            " St, " + CITIES[random.nextInt(CITIES.length)]);
+                    insert.setString(7, "+380" + random.nextInt(500_000_000, 1_000_000_000));
+                    insert.addBatch();
+
+                    if (id % BATCH_ROWS == 0 || id == users) {
+                        insert.executeBatch();
+                    }
+                    if (id % COMMIT_ROWS == 0 || id == users) {
+                        connection.commit();
+                        System.err.printf(Locale.ROOT, "\r%d / %d users", id, users);
+                    }
+                }
+            }
+
+            moveSequence(connection, users);
+            connection.commit();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.println();
+        System.out.printf(Locale.ROOT, "{\"users\":%d,\"seconds\":%.1f,\"throughput\":%.0f}%n",
+                users, seconds, users / seconds);
+    }
+
+    /**
+     * Moves the users_seq id generator past the loaded ids: a table on MySQL (Hibernate emulates sequences
+     * with a next_val table there), a sequence on the other databases.
+     */
+    private static void moveSequence(Connection connection, long users) throws SQLException {
+        long next = users + 100; // past the block of ids the pooled optimizer allocates below the next value
+        DatabaseMetaData metaData = connection.getMetaData();
+        boolean sequenceTable;
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, "users_seq", new String[]{"TABLE"});
+             ResultSet upperCaseTables = metaData.getTables(connection.getCatalog(), null, "USERS_SEQ",
+                     new String[]{"TABLE"})) {
+            sequenceTable = tables.next() || upperCaseTables.next();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sequenceTable ? "UPDATE users_seq SET next_val = " + next
+                    : "ALTER SEQUENCE users_seq RESTART WITH " + next);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load driver (single-file program, run with 'java LoadDriver.java ...').
+ * Every worker sends GET requests back to back, cycling through the paths, and records the latency
+ * of every request after the warm-up. Prints one JSON line with throughput, errors and percentiles.
+ * Usage: java LoadDriver.java {base url} {paths, comma separated} {concurrency} {warm-up s} {duration s}
+ */
+public class LoadDriver {
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        String[] paths = args[1].split(",");
+        int concurrency = Integer.parseInt(args[2]);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[3]));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[4]));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest[] requests = new HttpRequest[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            requests[i] = HttpRequest.newBuilder(URI.create(baseUrl + paths[i])).GET().build();
+        }
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        Worker[] workers = new Worker[concurrency];
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(client, requests, i, measureFrom, end);
+            executor.execute(workers[i]);
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmupNanos + durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+
+        long count = 0;
+        long errors = 0;
+        for (Worker worker : workers) {
+            count += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[(int) count];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("{\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f," +
+                        "\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+                concurrency, count, errors, count / (durationNanos / 1e9),
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 1.0));
+    }
+
+    private static double percentile(long[] sortedLatencies, double quantile) {
+        if (sortedLatencies.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Worker implements Runnable {
+        private final HttpClient client;
+        private final HttpRequest[] requests;
+        private final long measureFrom;
+        private final long end;
+        private int next;
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        private Worker(HttpClient client, HttpRequest[] requests, int offset, long measureFrom, long end) {
+            this.client = client;
+            this.requests = requests;
+            this.next = offset;
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                boolean failed;
+                try {
+                    HttpResponse<Void> response = client.send(requests[next++ % requests.length],
+                            HttpResponse.BodyHandlers.discarding());
+                    failed = response.statusCode() >= 400;
+                } catch (Exception exception) {
+                    failed = true;
+                }
+                long latency = System.nanoTime() - now;
+
+                if (now >= measureFrom) {
+                    if (failed) {
+                        errors++;
+                    } else {
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = latency;
+                    }
+                }
+            }
+        }
+    }
+}
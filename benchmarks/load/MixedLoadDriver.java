@@ -0,0 +1,316 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop HTTP load driver for the user endpoints (single-file program, run with
+ * 'java MixedLoadDriver.java ...'). Every worker sends requests back to back, choosing each operation at
+ * random with the weights of the mix, and records the latency and status of every response after the
+ * warm-up. Reads and updates target random ids of the dataset (1..users), created users get unique emails.
+ * Every request has a timeout (10 s by default): a request without a response in time counts as a failure,
+ * so a stalled server cannot block a worker. Writes the result (throughput, status counts and p50/p99/p999
+ * latencies, in total and per operation) as JSON to the result file and prints a summary line; if a worker
+ * has not stopped in time, nothing is written and the exit status is 1.
+ * Usage: java MixedLoadDriver.java {base url} {mix} {concurrency} {warm-up s} {duration s} {users} {result file}
+ * [{request timeout s}]
+ * Mix: comma-separated operation=weight, e.g. "get=50,list=20,create=10,patch=10,delete=5"; operations:
+ * create, batch, import, get, list, cursor, search, export, put, patch, delete, deactivate.
+ */
+public class MixedLoadDriver {
+    private static final String USERS_PATH = "/api/users";
+    private static final String JSON = "application/json";
+    private static final String[] NAMES = {"Oleksandr", "Olena", "Andrii", "Iryna", "Taras", "Sofiia", "Melnyk",
+            "Shevchenko", "Kovalenko", "Bondar", "Smith", "Brown"};
+
+    private enum Operation {
+        CREATE, BATCH, IMPORT, GET, LIST, CURSOR, SEARCH, EXPORT, PUT, PATCH, DELETE, DEACTIVATE;
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0] + USERS_PATH;
+        String mix = args[1];
+        int concurrency = Integer.parseInt(args[2]);
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[3]));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[4]));
+        long users = Long.parseLong(args[5]);
+        Path resultFile = Path.of(args[6]);
+        Duration requestTimeout = Duration.ofSeconds(args.length > 7 ? Long.parseLong(args[7]) : 10);
+
+        Operation[] operations = Operation.values();
+        int[] weights = new int[operations.length];
+        for (String entry : mix.split(",")) {
+            String[] operationAndWeight = entry.trim().split("=");
+            weights[Operation.valueOf(operationAndWeight[0].trim().toUpperCase(Locale.ROOT)).ordinal()] =
+                    Integer.parseInt(operationAndWeight[1].trim());
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        Worker[] workers = new Worker[concurrency];
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(client, new Requests(baseUrl, runId + "." + i, users, requestTimeout,
+                    new SplittableRandom(i)), weights, measureFrom, end);
+            executor.execute(workers[i]);
+        }
+        executor.shutdown();
+        // A worker stops at most one request timeout after the end; the stats are only read once all have stopped
+        if (!executor.awaitTermination(warmupNanos + durationNanos + requestTimeout.toNanos()
+                + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+            System.err.println("The workers did not stop in time, no result written.");
+            System.exit(1);
+        }
+
+        double seconds = durationNanos / 1e9;
+        Stats total = new Stats();
+        StringBuilder perOperation = new StringBuilder();
+        for (Operation operation : operations) {
+            if (weights[operation.ordinal()] == 0) {
+                continue;
+            }
+            Stats stats = new Stats();
+            for (Worker worker : workers) {
+                stats.add(worker.stats[operation.ordinal()]);
+                total.add(worker.stats[operation.ordinal()]);
+            }
+            perOperation.append(perOperation.isEmpty() ? "" : ",")
+                    .append('"').append(operation.label()).append("\":").append(stats.toJson(seconds));
+        }
+
+        String result = String.format(Locale.ROOT, "{\"baseUrl\":\"%s\",\"mix\":\"%s\",\"concurrency\":%d," +
+                        "\"warmupSeconds\":%d,\"durationSeconds\":%d,\"users\":%d,\"total\":%s,\"operations\":{%s}}%n",
+                args[0], mix, concurrency, TimeUnit.NANOSECONDS.toSeconds(warmupNanos),
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), users, total.toJson(seconds), perOperation);
+        Files.writeString(resultFile, result);
+        System.out.printf(Locale.ROOT, "%d requests, %.1f/s, %d errors, p50 %.2f ms, p99 %.2f ms, p999 %.2f ms%n",
+                total.count, total.count / seconds, total.clientErrors + total.serverErrors + total.failures,
+                total.percentile(0.50), total.percentile(0.99), total.percentile(0.999));
+    }
+
+    /**
+     * Latencies (of the responses, whatever their status) and status counts of one operation.
+     */
+    private static final class Stats {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long clientErrors;
+        private long serverErrors;
+        private long failures; // no response (connection error, timeout)
+        private long timeouts; // failures without a response within the request timeout
+
+        void record(long latency, int status) {
+            if (status < 0) {
+                failures++;
+                if (status == Worker.TIMED_OUT) {
+                    timeouts++;
+                }
+                return;
+            }
+            if (status >= 500) {
+                serverErrors++;
+            } else if (status >= 400) {
+                clientErrors++;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+
+        void add(Stats other) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+            System.arraycopy(other.latencies, 0, latencies, count, other.count);
+            count += other.count;
+            clientErrors += other.clientErrors;
+            serverErrors += other.serverErrors;
+            failures += other.failures;
+            timeouts += other.timeouts;
+        }
+
+        double percentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            Arrays.sort(latencies, 0, count);
+            int index = (int) Math.ceil(quantile * count) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+
+        String toJson(double seconds) {
+            return String.format(Locale.ROOT, "{\"requests\":%d,\"throughput\":%.1f,\"clientErrors\":%d," +
+                            "\"serverErrors\":%d,\"failures\":%d,\"timeouts\":%d,\"p50Ms\":%.2f,\"p99Ms\":%.2f," +
+                            "\"p999Ms\":%.2f,\"maxMs\":%.2f}", count, count / seconds, clientErrors, serverErrors,
+                    failures, timeouts, percentile(0.50), percentile(0.99), percentile(0.999), percentile(1.0));
+        }
+    }
+
+    /**
+     * Builds the requests of one worker: random targets and bodies, unique emails for created users.
+     */
+    private static final class Requests {
+        private final String baseUrl;
+        private final String emailPrefix;
+        private final long users;
+        private final Duration timeout;
+        private final SplittableRandom random;
+        private final long latestBirthDay = LocalDate.now().minusYears(18).minusDays(1).toEpochDay();
+        private final long earliestBirthDay = LocalDate.now().minusYears(90).toEpochDay();
+        private long created;
+
+        Requests(String baseUrl, String workerId, long users, Duration timeout, SplittableRandom random) {
+            this.baseUrl = baseUrl;
+            this.emailPrefix = "load." + workerId + ".";
+            this.users = users;
+            this.timeout = timeout;
+            this.random = random;
+        }
+
+        HttpRequest build(Operation operation) {
+            return switch (operation) {
+                case CREATE -> send("POST", "", JSON, user());
+                case BATCH -> send("POST", "/batch", JSON, "[" + user() + "," + user() + "," + user() + "]");
+                case IMPORT -> send("POST", "/import", "text/csv",
+                        "email,firstName,lastName,birthDate\n" + csvUser() + csvUser() + csvUser());
+                case GET -> get("/" + id());
+                case LIST -> {
+                    LocalDate from = birthDate();
+                    yield get("?from=" + from + "&to=" + from.plusYears(1) + "&size=20&page=" + random.nextInt(5));
+                }
+                case CURSOR -> {
+                    LocalDate from = birthDate();
+                    yield get("?from=" + from + "&to=" + from.plusYears(1) + "&after=&size=20");
+                }
+                case SEARCH -> get("/search?size=20&q=" + NAMES[random.nextInt(NAMES.length)]
+                        .substring(0, 2 + random.nextInt(3)));
+                case EXPORT -> {
+                    LocalDate day = birthDate();
+                    yield get("/export?from=" + day + "&to=" + day);
+                }
+                case PUT -> send("PUT", "/" + id(), JSON, user());
+                case PATCH -> send("PATCH", "/" + id(), JSON,
+                        "{\"phoneNumber\":\"+380" + random.nextInt(500_000_000, 1_000_000_000) + "\"}");
+                case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + id())).timeout(timeout).DELETE()
+                        .build();
+                case DEACTIVATE -> send("POST", "/deactivate", JSON, "{\"ids\":[" + id() + "," + id() + "]}");
+            };
+        }
+
+        private HttpRequest get(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+        }
+
+        private HttpRequest send(String method, String path, String contentType, String body) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(timeout)
+                    .header("Content-Type", contentType)
+                    .method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+
+        private String user() {
+            return String.format("{\"email\":\"%s\",\"firstName\":\"%s\",\"lastName\":\"%s\",\"birthDate\":\"%s\"," +
+                            "\"address\":\"%d Main St, Kyiv\",\"phoneNumber\":\"+380%d\"}",
+                    email(), NAMES[random.nextInt(NAMES.length)], NAMES[random.nextInt(NAMES.length)], birthDate(),
+                    1 + random.nextInt(200), random.nextInt(500_000_000, 1_000_000_000));
+        }
+
+        private String csvUser() {
+            return email() + "," + NAMES[random.nextInt(NAMES.length)] + "," + NAMES[random.nextInt(NAMES.length)] +
+                    "," + birthDate() + "\n";
+        }
+
+        private String email() {
+            return emailPrefix + ++created + "@example.com";
+        }
+
+        private long id() {
+            return 1 + random.nextLong(users);
+        }
+
+        private LocalDate birthDate() {
+            return LocalDate.ofEpochDay(random.nextLong(earliestBirthDay, latestBirthDay + 1));
+        }
+    }
+
+    private static final class Worker implements Runnable {
+        private static final int FAILED = -1;
+        private static final int TIMED_OUT = -2;
+
+        private final HttpClient client;
+        private final Requests requests;
+        private final int[] cumulativeWeights;
+        private final long measureFrom;
+        private final long end;
+        private final Stats[] stats = new Stats[Operation.values().length];
+
+        private Worker(HttpClient client, Requests requests, int[] weights, long measureFrom, long end) {
+            this.client = client;
+            this.requests = requests;
+            this.cumulativeWeights = new int[weights.length];
+            for (int i = 0; i < weights.length; i++) {
+                cumulativeWeights[i] = weights[i] + (i > 0 ? cumulativeWeights[i - 1] : 0);
+                stats[i] = new Stats();
+            }
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            Operation[] operations = Operation.values();
+            long now;
+            while ((now = System.nanoTime()) < end) {
+                int ticket = requests.random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+                int index = 0;
+                while (ticket >= cumulativeWeights[index]) {
+                    index++;
+                }
+                HttpRequest request = requests.build(operations[index]);
+
+                int status;
+                now = System.nanoTime();
+                try {
+                    status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (HttpTimeoutException exception) {
+                    status = TIMED_OUT;
+                } catch (IOException exception) {
+                    status = FAILED;
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long latency = System.nanoTime() - now;
+
+                if (now >= measureFrom) {
+                    stats[index].record(latency, status);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+#!/usr/bin/env bash
+# Load comparison of the platform-thread and virtual-thread execution modes.
+#
+# Builds the application with the 'virtual-threads' Maven profile (Java 21), then starts the same jar
+# twice with the same Hikari pool size: once on the Tomcat platform-thread pool, once with the
+# 'virtual-threads' Spring profile. Each run is seeded through POST /api/users/batch and driven by
+# LoadDriver.java; the virtual-thread run also counts pinned-thread events (-Djdk.tracePinnedThreads).
+#
+# Needs a JDK 21 on PATH (or JAVA_HOME) and a MySQL database (see application.properties);
+# extra application arguments (e.g. another datasource) go to APP_ARGS.
+#
+#   POOL_SIZE=10 CONCURRENCY=400 DURATION=60 ./compare-thread-modes.sh
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+APP_DIR=$(cd "$HERE/../../clearsolutions" && pwd)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+PORT=${PORT:-8081}
+POOL_SIZE=${POOL_SIZE:-10}
+TOMCAT_THREADS=${TOMCAT_THREADS:-200}
+CONCURRENCY=${CONCURRENCY:-400}
+WARMUP=${WARMUP:-15}
+DURATION=${DURATION:-60}
+SEED_USERS=${SEED_USERS:-10000}
+LOAD_PATHS=${LOAD_PATHS:-"/api/users?paging=slice&size=20,/api/users?after=&size=20,/api/users?paging=page&size=20&page=5"}
+APP_ARGS=${APP_ARGS:-}
+RESULTS=${RESULTS:-$HERE/../target/thread-modes}
+BASE_URL="http://localhost:$PORT"
+
+mkdir -p "$RESULTS"
+(cd "$APP_DIR" && mvn -B -q -Pvirtual-threads -DskipTests package)
+JAR=$(ls "$APP_DIR"/target/clearsolutions-*-exec.jar)
+
+seed() {
+    local run=$1 batch
+    for ((from = 0; from < SEED_USERS; from += 1000)); do
+        batch=$(seq "$from" $((from + 999 < SEED_USERS - 1 ? from + 999 : SEED_USERS - 1)) | awk -v run="$run" '
+            BEGIN { printf "[" }
+            { printf "%s{\"email\":\"load%s.%d@example.com\",\"firstName\":\"Load\",\"lastName\":\"User\",\"birthDate\":\"%d-%02d-%02d\"}",
+                     (NR > 1 ? "," : ""), run, $1, 1950 + $1 % 50, 1 + $1 % 12, 1 + $1 % 28 }
+            END { printf "]" }')
+        curl -sf -o /dev/null -H 'Content-Type: application/json' -d "$batch" "$BASE_URL/api/users/batch"
+    done
+}
+
+run_mode() {
+    local mode=$1 jvm_args=$2 mode_args=$3
+    local log="$RESULTS/$mode.log"
+
+    # shellcheck disable=SC2086
+    "$JAVA" $jvm_args -jar "$JAR" --server.port="$PORT" \
+        --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+        --server.tomcat.threads.max="$TOMCAT_THREADS" \
+        --logging.level.com.app.clearsolutions=WARN $mode_args $APP_ARGS > "$log" 2>&1 &
+    local pid=$!
+    trap 'kill $pid 2>/dev/null || true' EXIT
+
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+        kill -0 $pid 2>/dev/null || { echo "$mode: application failed to start, see $log" >&2; exit 1; }
+        sleep 1
+    done
+
+    seed "$mode$(date +%s)"
+    echo "$mode: $("$JAVA" "$HERE/LoadDriver.java" "$BASE_URL" "$LOAD_PATHS" "$CONCURRENCY" "$WARMUP" "$DURATION")" \
+        | tee "$RESULTS/$mode.json"
+    kill $pid && wait $pid 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform "" ""
+run_mode virtual "-Djdk.tracePinnedThreads=short" "--spring.profiles.active=virtual-threads"
+echo "virtual: pinned-thread events: $(grep -c 'CarrierThreads]$' "$RESULTS/virtual.log" || true)"
@@ -0,0 +1,90 @@
+#!/usr/bin/env bash
+# Load test of the user endpoints against a synthetic dataset, on one machine.
+#
+# Builds the application and starts it on an embedded H2 file database (or on DB_URL, e.g. a local MySQL with
+# rewriteBatchedStatements=true), which creates the schema. If the database holds fewer than USERS users, the
+# application is stopped, DatasetLoader.java replaces the users with USERS synthetic ones (JDBC batch inserts)
+# and the application is started again, loading its in-memory indexes from the new dataset; the dataset is
+# kept for the next runs. The endpoints are then driven by MixedLoadDriver.java with the MIX of operations.
+# Results: $RESULTS/load.json (dataset load), $RESULTS/result.json (throughput, p50/p99/p999 per operation).
+#
+# Large datasets need a large heap (the search, birth date and email indexes are in memory), e.g.
+#
+#   USERS=10000000 APP_JAVA_OPTS=-Xmx12g CONCURRENCY=64 DURATION=120 ./load-test.sh
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+APP_DIR=$(cd "$HERE/../../clearsolutions" && pwd)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+PORT=${PORT:-8082}
+USERS=${USERS:-1000000}
+CONCURRENCY=${CONCURRENCY:-32}
+WARMUP=${WARMUP:-15}
+DURATION=${DURATION:-60}
+REQUEST_TIMEOUT=${REQUEST_TIMEOUT:-10}
+MIX=${MIX:-"get=40,list=15,cursor=5,search=10,export=1,create=8,batch=1,import=1,put=4,patch=8,delete=4,deactivate=1"}
+RESULTS=${RESULTS:-$HERE/../target/load-test}
+DB_URL=${DB_URL:-"jdbc:h2:file:$RESULTS/db/users;MODE=MySQL"}
+DB_USERNAME=${DB_USERNAME:-sa}
+DB_PASSWORD=${DB_PASSWORD:-}
+APP_JAVA_OPTS=${APP_JAVA_OPTS:-}
+APP_ARGS=${APP_ARGS:-}
+BASE_URL="http://localhost:$PORT"
+
+mkdir -p "$RESULTS"
+(cd "$APP_DIR" && mvn -B -q -DskipTests package)
+JAR=$(ls "$APP_DIR"/target/clearsolutions-*-exec.jar)
+
+DB_ARGS=(--spring.datasource.url="$DB_URL" --spring.datasource.username="$DB_USERNAME"
+         --spring.datasource.password="$DB_PASSWORD")
+if [[ $DB_URL == jdbc:h2:* ]]; then
+    DB_ARGS+=(--spring.datasource.driver-class-name=org.h2.Driver
+              --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect)
+fi
+
+start_app() {
+    # shellcheck disable=SC2086
+    "$JAVA" $APP_JAVA_OPTS -jar "$JAR" --server.port="$PORT" "${DB_ARGS[@]}" \
+        --email-filter.expected-insertions="$USERS" \
+        --logging.level.com.app.clearsolutions=WARN $APP_ARGS >> "$RESULTS/app.log" 2>&1 &
+    PID=$!
+    trap 'kill $PID 2>/dev/null || true' EXIT
+
+    until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+        kill -0 $PID 2>/dev/null || { echo "application failed to start, see $RESULTS/app.log" >&2; exit 1; }
+        sleep 1
+    done
+    # the in-memory indexes are loaded once the application is ready and answer 503 until then
+    until [[ $(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/api/users/search?q=a&size=1") != 503 &&
+             $(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/api/analytics/count") != 503 ]]; do
+        sleep 1
+    done
+}
+
+stop_app() {
+    kill $PID && wait $PID 2>/dev/null || true
+    trap - EXIT
+}
+
+: > "$RESULTS/app.log"
+start_app
+EXISTING=$(curl -sf "$BASE_URL/api/users?size=1" | grep -o '"numberOFItems":[0-9]*' | cut -d: -f2)
+if (( ${EXISTING:-0} < USERS )); then
+    stop_app
+    echo "loading $USERS users"
+    CLASSPATH_FILE="$RESULTS/classpath.txt"
+    (cd "$APP_DIR" && mvn -B -q dependency:build-classpath -Dmdep.includeScope=runtime \
+        -Dmdep.outputFile="$CLASSPATH_FILE")
+    "$JAVA" -cp "$(cat "$CLASSPATH_FILE")" "$HERE/DatasetLoader.java" "$DB_URL" "$DB_USERNAME" "$DB_PASSWORD" \
+        "$USERS" | tee "$RESULTS/load.json"
+    START=$(date +%s)
+    start_app
+    echo "application restarted in $(( $(date +%s) - START )) s (indexes loaded)"
+else
+    echo "reusing the $EXISTING users of the database"
+fi
+
+"$JAVA" "$HERE/MixedLoadDriver.java" "$BASE_URL" "$MIX" "$CONCURRENCY" "$WARMUP" "$DURATION" "$USERS" \
+    "$RESULTS/result.json" "$REQUEST_TIMEOUT"
+stop_app
+echo "results: $RESULTS/result.json"
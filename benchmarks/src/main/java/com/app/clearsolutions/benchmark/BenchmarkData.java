@@ -0,0 +1,64 @@
+package com.app.clearsolutions.benchmark;
+
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a fully populated, valid user DTO.
+     *
+     * @return A UserDTO that passes every validation rule.
+     */
+    static UserDTO validUserDTO() {
+        return new UserDTO(1, "artem.sobko@gmail.com", "Artem", "Sobko",
+                LocalDate.of(1995, 9, 15), "Kharkiv city, Naberezhna St. 1", "+380667778899");
+    }
+
+    /**
+     * Builds a DTO carrying only the fields a typical PATCH request changes.
+     *
+     * @return A partially populated UserDTO.
+     */
+    static UserDTO partialUserDTO() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setFirstName("Frank");
+        userDTO.setPhoneNumber("+380998887766");
+        return userDTO;
+    }
+
+    /**
+     * Builds a fully populated user entity.
+     *
+     * @param id The id of the user.
+     * @return A User entity.
+     */
+    static User user(long id) {
+        return new User(id, "user" + id + "@gmail.com", "Artem", "Sobko",
+                LocalDate.of(1970 + (int) (id % 40), 1 + (int) (id % 12), 1 + (int) (id % 28)),
+                "Kharkiv city, Naberezhna St. " + id, "+38066" + (1000000 + id), true, 0);
+    }
+
+    /**
+     * Builds a list of user entities as a repository page would return them.
+     *
+     * @param size The number of users.
+     * @return A list of User entities.
+     */
+    static List<User> users(int size) {
+        List<User> users = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            users.add(user(i));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.clearsolutions.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts the regular JMH command line
+ * and always attaches the GC profiler, so every run reports allocation rate
+ * (gc.alloc.rate.norm, bytes per operation) next to throughput.
+ */
+public class BenchmarkRunner {
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command-line arguments (e.g. a benchmark regex, -f, -wi, -i, -rf json).
+     * @throws RunnerException           If JMH fails to run the benchmarks.
+     * @throws CommandLineOptionException If the arguments cannot be parsed.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
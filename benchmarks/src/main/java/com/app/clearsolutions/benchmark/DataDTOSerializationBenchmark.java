@@ -0,0 +1,89 @@
+package com.app.clearsolutions.benchmark;
+
+import com.app.clearsolutions.json.UserDTOSerializer;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.Pagination;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks building and serializing a page of users the way GET /api/users does.
+ * 'untyped' is the former path (the page copied into a List&lt;Object&gt; envelope, bean serialization of the users),
+ * 'typed' only wraps the page in DataDTO&lt;UserDTO&gt;, 'typedWithUserSerializer' also writes the users with
+ * UserDTOSerializer, as the application does. Compare gc.alloc.rate.norm for the bytes allocated per response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataDTOSerializationBenchmark {
+    @Param({"20", "200", "2000"})
+    private int pageSize;
+
+    private ObjectMapper beanMapper;
+    private ObjectMapper userMapper;
+    private List<UserDTO> page;
+
+    @Setup
+    public void setUp() {
+        // dates as ISO strings, like the ObjectMapper Spring Boot configures for the controllers
+        beanMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        userMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializers(new UserDTOSerializer())
+                .build();
+        page = Collections.unmodifiableList(BenchmarkData.users(pageSize).stream()
+                .map(UserDTO::getDTOFromUser)
+                .toList());
+    }
+
+    @Benchmark
+    public byte[] untyped() throws JsonProcessingException {
+        return beanMapper.writeValueAsBytes(new UntypedDataDTO(new Pagination(page.size(), 1),
+                Collections.unmodifiableList(page)));
+    }
+
+    @Benchmark
+    public byte[] typed() throws JsonProcessingException {
+        return beanMapper.writeValueAsBytes(new DataDTO<>(new Pagination(page.size(), 1), page));
+    }
+
+    @Benchmark
+    public byte[] typedWithUserSerializer() throws JsonProcessingException {
+        return userMapper.writeValueAsBytes(new DataDTO<>(new Pagination(page.size(), 1), page));
+    }
+
+    /**
+     * The former response envelope: the results are copied into a list of objects.
+     */
+    public static class UntypedDataDTO {
+        private final List<Object> data = new ArrayList<>();
+        private final Pagination pagination;
+
+        UntypedDataDTO(Pagination pagination, List<Object> objects) {
+            this.pagination = pagination;
+            data.addAll(objects);
+        }
+
+        public List<Object> getData() {
+            return data;
+        }
+
+        public Pagination getPagination() {
+            return pagination;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.app.clearsolutions.benchmark;
+
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the conversions between the User entity and UserDTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+    private User user;
+    private UserDTO userDTO;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(1);
+        userDTO = BenchmarkData.validUserDTO();
+    }
+
+    @Benchmark
+    public UserDTO getDTOFromUser() {
+        return UserDTO.getDTOFromUser(user);
+    }
+
+    @Benchmark
+    public User getUserFromDTO() {
+        return User.getUserFromDTO(userDTO);
+    }
+}
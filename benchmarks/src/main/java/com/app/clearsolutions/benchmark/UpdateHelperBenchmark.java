@@ -0,0 +1,93 @@
+package com.app.clearsolutions.benchmark;
+
+import com.app.clearsolutions.helper.UpdateHelper;
+import com.app.clearsolutions.helper.impl.UpdateHelperImpl;
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the field copying and completeness checks used by PATCH and PUT. The patch benchmarks
+ * alternate between two DTOs, so every call really changes the entity. The legacy* benchmarks replay
+ * the reflection-based implementation UpdateHelperImpl used to have and serve as the baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpdateHelperBenchmark {
+    private UpdateHelper updateHelper;
+    private User user;
+    private UserDTO[] partialUserDTOs;
+    private UserDTO fullUserDTO;
+    private int invocation;
+
+    @Setup
+    public void setUp() {
+        updateHelper = new UpdateHelperImpl();
+        user = BenchmarkData.user(1);
+        UserDTO otherUserDTO = BenchmarkData.partialUserDTO();
+        otherUserDTO.setFirstName("Pavlo");
+        partialUserDTOs = new UserDTO[]{BenchmarkData.partialUserDTO(), otherUserDTO};
+        fullUserDTO = BenchmarkData.validUserDTO();
+    }
+
+    @Benchmark
+    public User userPatcher() throws IllegalAccessException, NoSuchFieldException {
+        updateHelper.userPatcher(user, nextPartialUserDTO());
+        return user;
+    }
+
+    @Benchmark
+    public int patchUser() {
+        return updateHelper.patchUser(user, nextPartialUserDTO());
+    }
+
+    @Benchmark
+    public boolean checkIfFieldsAreNonNull() throws IllegalAccessException {
+        return updateHelper.checkIfFieldsAreNonNull(fullUserDTO);
+    }
+
+    @Benchmark
+    public User legacyUserPatcher() throws IllegalAccessException, NoSuchFieldException {
+        UserDTO newUser = nextPartialUserDTO();
+        for (Field field : UserDTO.class.getDeclaredFields()) {
+            field.setAccessible(true);
+
+            Object value = field.get(newUser);
+            if (value != null && !field.getName().equals("id")) {
+                Field userField = User.class.getDeclaredField(field.getName());
+                userField.setAccessible(true);
+                userField.set(user, value);
+                userField.setAccessible(false);
+            }
+
+            field.setAccessible(false);
+        }
+        return user;
+    }
+
+    @Benchmark
+    public boolean legacyCheckIfFieldsAreNonNull() throws IllegalAccessException {
+        for (Field field : UserDTO.class.getDeclaredFields()) {
+            field.setAccessible(true);
+
+            Object value = field.get(fullUserDTO);
+            if (value == null && !field.getName().equals("id")) {
+                return false;
+            }
+
+            field.setAccessible(false);
+        }
+        return true;
+    }
+
+    private UserDTO nextPartialUserDTO() {
+        return partialUserDTOs[invocation++ & 1];
+    }
+}
@@ -0,0 +1,80 @@
+package com.app.clearsolutions.benchmark;
+
+import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.validator.UserValidator;
+import com.app.clearsolutions.validator.impl.UserValidatorImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Benchmarks the per-request validation done on create, PUT and PATCH. The legacy* benchmarks
+ * replay the checks UserServiceImpl used to run inline (regexes compiled per call, threshold parsed
+ * per call) and serve as the baseline for UserValidator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserValidatorBenchmark {
+    private Environment environment;
+    private UserValidator userValidator;
+    private UserDTO userDTO;
+    private LocalDate birthDate;
+
+    @Setup
+    public void setUp() {
+        StandardEnvironment standardEnvironment = new StandardEnvironment();
+        standardEnvironment.getPropertySources().addFirst(
+                new MapPropertySource("benchmark", Map.of("age-threshold", "18")));
+        environment = standardEnvironment;
+        userValidator = new UserValidatorImpl(environment);
+        userDTO = BenchmarkData.validUserDTO();
+        birthDate = userDTO.getBirthDate();
+    }
+
+    @Benchmark
+    public void checkUserDTO() throws InvalidInputFormatException {
+        userValidator.checkUserDTO(userDTO);
+    }
+
+    @Benchmark
+    public void checkUserAge() {
+        userValidator.checkUserAge(birthDate);
+    }
+
+    @Benchmark
+    public void legacyCheckUserDTO() throws InvalidInputFormatException {
+        String nameRegex = "^[\\p{L}\\s]+$",
+                emailRegex = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$",
+                phoneRegex = "^\\+\\d{5,13}$";
+
+        if (userDTO.getFirstName() != null && !Pattern.matches(nameRegex, userDTO.getFirstName()) ||
+                userDTO.getLastName() != null && !Pattern.matches(nameRegex, userDTO.getLastName()) ||
+                (userDTO.getEmail() != null && !Pattern.matches(emailRegex, userDTO.getEmail())) ||
+                (userDTO.getPhoneNumber() != null && !Pattern.matches(phoneRegex, userDTO.getPhoneNumber()))) {
+            throw new InvalidInputFormatException("Invalid format of input data.");
+        }
+    }
+
+    @Benchmark
+    public void legacyCheckUserAge() {
+        int ageThreshold = Integer.parseInt(Objects.
+                requireNonNull(environment.getProperty("age-threshold")));
+        if (Period.between(birthDate, LocalDate.now()).getYears() < ageThreshold) {
+            throw new IllegalArgumentException(String
+                    .format("Users must be over %d years old!", ageThreshold));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# Startup benchmark: time from the launch of the JVM to the first served request (GET /api/users?size=1
+# answered with 200), before and after the fast-startup mode.
+#
+# Builds the application with the 'fast-startup' Maven profile (Spring AOT, CDS archive of a training run), then
+# starts it RUNS times in each mode, alternately, on an empty in-memory H2 database (or on DB_URL):
+#   - default:      java -jar clearsolutions-*-exec.jar, as in production today
+#   - fast-startup: start-fast.sh (AOT bean definitions, CDS archive, lazy initialization of non-critical beans)
+# Results: $RESULTS/result.json (every run and the median per mode, in ms), build and application logs in $RESULTS.
+#
+#   RUNS=5 ./startup-benchmark.sh
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+APP_DIR=$(cd "$HERE/../../clearsolutions" && pwd)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+PORT=${PORT:-8083}
+RUNS=${RUNS:-3}
+RESULTS=${RESULTS:-$HERE/../target/startup}
+DB_URL=${DB_URL:-"jdbc:h2:mem:startup;MODE=MySQL"}
+DB_USERNAME=${DB_USERNAME:-sa}
+DB_PASSWORD=${DB_PASSWORD:-}
+URL="http://localhost:$PORT/api/users?size=1"
+
+mkdir -p "$RESULTS"
+# the AOT processing and the training run start the application: their logs go to build.log
+(cd "$APP_DIR" && mvn -B -q -Pfast-startup -DskipTests package > "$RESULTS/build.log" 2>&1) ||
+    { echo "build failed, see $RESULTS/build.log" >&2; exit 1; }
+JAR=$(ls "$APP_DIR"/target/clearsolutions-*-exec.jar)
+
+APP_ARGS=(--server.port="$PORT" --spring.datasource.url="$DB_URL" --spring.datasource.username="$DB_USERNAME"
+          --spring.datasource.password="$DB_PASSWORD")
+if [[ $DB_URL == jdbc:h2:* ]]; then
+    APP_ARGS+=(--spring.datasource.driver-class-name=org.h2.Driver)
+fi
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# prints the milliseconds from the launch to the first 200 response
+measure() {
+    local mode=$1 run=$2 start pid elapsed
+    local log="$RESULTS/$mode-$run.log"
+    start=$(now_ms)
+    if [[ $mode == default ]]; then
+        "$JAVA" -jar "$JAR" "${APP_ARGS[@]}" > "$log" 2>&1 &
+    else
+        "$APP_DIR/start-fast.sh" "${APP_ARGS[@]}" > "$log" 2>&1 &
+    fi
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        kill -0 $pid 2>/dev/null || { echo "$mode run $run failed, see $log" >&2; exit 1; }
+        sleep 0.02
+    done
+    elapsed=$(( $(now_ms) - start ))
+    kill $pid && wait $pid 2>/dev/null || true
+    if grep -q "warning\]\[cds" "$log"; then
+        echo "$mode run $run did not use the CDS archive, see $log" >&2
+    fi
+    echo "$elapsed"
+}
+
+median() {
+    tr ' ' '\n' | sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+declare -A TIMES=([default]="" [fast-startup]="")
+for ((run = 1; run <= RUNS; run++)); do
+    for mode in default fast-startup; do
+        elapsed=$(measure "$mode" "$run")
+        echo "$mode run $run: $elapsed ms to the first served request"
+        TIMES[$mode]="${TIMES[$mode]:+${TIMES[$mode]} }$elapsed"
+    done
+done
+
+{
+    echo "{"
+    for mode in default fast-startup; do
+        printf '  "%s": {"runsMs": [%s], "medianMs": %s}%s\n' "$mode" "${TIMES[$mode]// /, }" \
+            "$(median <<< "${TIMES[$mode]}")" "$([[ $mode == default ]] && echo ,)"
+    done
+    echo "}"
+} | tee "$RESULTS/result.json"
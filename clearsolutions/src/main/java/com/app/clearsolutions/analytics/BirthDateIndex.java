@@ -0,0 +1,29 @@
+package com.app.clearsolutions.analytics;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index interface of the birth dates of active users, answering analytics queries
+ * without reaching the database.
+ */
+public interface BirthDateIndex {
+    void load(Stream<UserBirthDateDTO> users);
+
+    boolean isLoaded();
+
+    int size();
+
+    long countBetween(LocalDate from, LocalDate to);
+
+    Map<Integer, Long> countByBirthYear();
+
+    void onUserChanged(UserChangedEvent event);
+
+    void onUsersDeactivated(UsersDeactivatedEvent event);
+}
@@ -0,0 +1,214 @@
+package com.app.clearsolutions.analytics.impl;
+
+import com.app.clearsolutions.analytics.BirthDateIndex;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.index.EventSyncedIndex;
+import com.app.clearsolutions.index.LongIntHashMap;
+import com.app.clearsolutions.index.SortedLongSet;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Index implementation of the birth dates of active users: a block-based sorted set of (birth date, id) keys,
+ * the epoch day in the upper bits above the id - 8 bytes per user - and a primitive map from user id to birth
+ * date, which finds the key of a changed or deleted user without a scan. Range counts are two rank lookups, a
+ * histogram by birth year is one rank lookup per year. Adding or removing a user shifts the keys of one block
+ * only; a deactivation by birth date range removes the keys of the range one by one.
+ * Loading and event replay are handled by EventSyncedIndex.
+ */
+@Component
+public class BirthDateIndexImpl extends EventSyncedIndex implements BirthDateIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    // epoch days of the keys (about years -9500 to 13400), dates beyond are clamped
+    private static final long MIN_DAY = -(1L << 22);
+    private static final long MAX_DAY = (1L << 22) - 2;
+    private static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+
+    private SortedLongSet keys = new SortedLongSet();
+    private LongIntHashMap dayById = new LongIntHashMap(0);
+
+    public BirthDateIndexImpl() {
+        super("The analytics snapshot is being loaded, try again later.");
+    }
+
+    /**
+     * Replaces the index content with the given users and replays the events received in the meantime.
+     *
+     * @param users The id and birth date of all active users, ordered by id.
+     */
+    @Override
+    public void load(Stream<UserBirthDateDTO> users) {
+        long[] loadedKeys = new long[INITIAL_CAPACITY];
+        LongIntHashMap loadedDayById = new LongIntHashMap(0);
+        int count = 0;
+
+        for (UserBirthDateDTO user : (Iterable<UserBirthDateDTO>) users::iterator) {
+            if (count == loadedKeys.length) {
+                loadedKeys = Arrays.copyOf(loadedKeys, count * 2);
+            }
+            int day = epochDay(user.getBirthDate());
+            loadedKeys[count++] = key(day, user.getId());
+            loadedDayById.put(user.getId(), day);
+        }
+        Arrays.sort(loadedKeys, 0, count);
+        SortedLongSet loadedSet = SortedLongSet.of(loadedKeys, count);
+
+        replaceContent(() -> {
+            keys = loadedSet;
+            dayById = loadedDayById;
+        });
+    }
+
+    /**
+     * Returns the number of active users.
+     *
+     * @return The number of users in the index.
+     */
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            checkLoaded();
+            return keys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the active users born between the given dates.
+     *
+     * @param from The first birth date to count (inclusive).
+     * @param to   The last birth date to count (inclusive).
+     * @return The number of active users born in the range.
+     */
+    @Override
+    public long countBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            checkLoaded();
+            return Math.max(0, keys.rank(firstKey(epochDay(to) + 1L)) - keys.rank(firstKey(epochDay(from))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the active users per birth year, from the earliest to the latest birth year.
+     *
+     * @return The number of active users per birth year, in year order (years without users included).
+     */
+    @Override
+    public Map<Integer, Long> countByBirthYear() {
+        lock.readLock().lock();
+        try {
+            checkLoaded();
+            Map<Integer, Long> counts = new LinkedHashMap<>();
+            if (keys.size() == 0) {
+                return counts;
+            }
+
+            int firstYear = LocalDate.ofEpochDay(dayOf(keys.first())).getYear();
+            int lastYear = LocalDate.ofEpochDay(dayOf(keys.last())).getYear();
+            int start = 0;
+            for (int year = firstYear; year <= lastYear; year++) {
+                int end = keys.rank(firstKey(epochDay(LocalDate.of(year + 1, 1, 1))));
+                counts.put(year, (long) (end - start));
+                start = end;
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the key of a created, updated or deleted user. The indexed birth date is used rather than the
+     * previous one of the event, which may be unknown or stale.
+     *
+     * @param event The user change event.
+     */
+    @Override
+    protected void apply(UserChangedEvent event) {
+        LocalDate current = birthDateOf(event.getCurrent());
+        int indexedDay = dayById.getOrDefault(event.getId(), NO_BIRTH_DATE);
+
+        if (current != null && indexedDay == epochDay(current)) {
+            return;
+        }
+        if (indexedDay != NO_BIRTH_DATE) {
+            remove(indexedDay, event.getId());
+        }
+        if (current != null) {
+            keys.add(key(epochDay(current), event.getId()));
+            dayById.put(event.getId(), epochDay(current));
+        }
+    }
+
+    /**
+     * Removes the keys of deactivated users: by id, or the keys of the birth date range.
+     *
+     * @param event The users deactivation event.
+     */
+    @Override
+    protected void apply(UsersDeactivatedEvent event) {
+        if (event.getIds() != null) {
+            for (long id : event.getIds()) {
+                int day = dayById.getOrDefault(id, NO_BIRTH_DATE);
+                if (day != NO_BIRTH_DATE) {
+                    remove(day, id);
+                }
+            }
+            return;
+        }
+
+        int start = keys.rank(firstKey(epochDay(event.getRange().lowerBound())));
+        int end = Math.max(start, keys.rank(firstKey(epochDay(event.getRange().upperBound()) + 1L)));
+        long[] removedKeys = new long[end - start];
+        int[] count = new int[1];
+        keys.forEach(start, end, key -> removedKeys[count[0]++] = key);
+        for (long key : removedKeys) {
+            keys.remove(key);
+            dayById.remove(key & ID_MASK);
+        }
+    }
+
+    private void remove(int day, long id) {
+        keys.remove(key(day, id));
+        dayById.remove(id);
+    }
+
+    private static long key(int day, long id) {
+        return firstKey(day) | id;
+    }
+
+    /**
+     * Helper method which returns the smallest key of the given epoch day: the (clamped) day in the upper bits,
+     * above the id.
+     */
+    private static long firstKey(long day) {
+        return (Math.max(MIN_DAY, Math.min(MAX_DAY + 1, day)) - MIN_DAY) << ID_BITS;
+    }
+
+    private static int dayOf(long key) {
+        return (int) ((key >>> ID_BITS) + MIN_DAY);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return (int) date.toEpochDay();
+    }
+
+    private static LocalDate birthDateOf(UserDTO userDTO) {
+        return userDTO == null ? null : userDTO.getBirthDate();
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.clearsolutions.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Configuration applying the method timing interceptor to the methods selected by the
+ * method-timing.pointcut expression (controller and service boundaries by default).
+ */
+@Configuration
+public class MethodTimingConfig {
+    /**
+     * Pointcut used when method-timing.pointcut is not set: the controller and service boundaries.
+     */
+    public static final String DEFAULT_POINTCUT = "execution(* com.app.clearsolutions.controller.*.*(..)) || " +
+            "execution(* com.app.clearsolutions.service..*.*(..))";
+
+    /**
+     * Creates the advisor applying the method timing interceptor. The meter registry is looked up
+     * lazily: advisors are created before the other beans, the registry must not be.
+     *
+     * @param registry            Provider of the meter registry.
+     * @param pointcut            AspectJ pointcut expression selecting the timed methods.
+     * @param sampleRate          Fraction of the calls to time.
+     * @param percentileHistogram Whether to publish histogram buckets.
+     * @param percentiles         Percentiles computed in the application.
+     * @return The advisor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor methodTimingAdvisor(ObjectProvider<MeterRegistry> registry,
+                                       @Value("${method-timing.pointcut:" + DEFAULT_POINTCUT + "}") String pointcut,
+                                       @Value("${method-timing.sample-rate:1.0}") double sampleRate,
+                                       @Value("${method-timing.percentile-histogram:true}") boolean percentileHistogram,
+                                       @Value("${method-timing.percentiles:}") double[] percentiles) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+
+        advisor.setExpression(pointcut);
+        advisor.setAdvice(new MethodTimingInterceptor(registry::getObject, sampleRate, percentileHistogram,
+                percentiles));
+        return advisor;
+    }
+}
@@ -0,0 +1,148 @@
+package com.app.clearsolutions.aspect;
+
+import com.app.clearsolutions.controller.exceptionHandler.ControllerExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Method interceptor recording the latency of the intercepted methods as Micrometer timers
+ * ("method.timed", tagged with class, method and exception), published on /actuator/metrics.
+ * Only the configured fraction of the calls is timed, and the timer of a method and outcome is resolved
+ * once, so an unsampled call costs a random number, a successful sampled call two clock reads and a map
+ * lookup, and a failed one (a probed id not found, for instance) two map lookups. The exceptions which
+ * ControllerExceptionHandler maps to a client error (not found, invalid input, version mismatch) are logged
+ * at DEBUG, other failures at WARN once, by the outermost intercepted call of the thread (the controller
+ * rather than each service it went through), and call timings at DEBUG; log arguments are only computed
+ * when the level is enabled.
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+    public static final String METRIC_NAME = "method.timed";
+    private static final String NO_EXCEPTION = "none";
+    private static final Logger log = LoggerFactory.getLogger(MethodTimingInterceptor.class);
+
+    private final Supplier<MeterRegistry> registry;
+    private final double sampleRate;
+    private final boolean percentileHistogram;
+    private final double[] percentiles;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<Method, Map<Class<?>, Timer>> failureTimers = new ConcurrentHashMap<>();
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * Constructs the interceptor.
+     *
+     * @param registry            Supplier of the meter registry, resolved when the first timer is created.
+     * @param sampleRate          Fraction of the calls to time, from 0 (none) to 1 (all).
+     * @param percentileHistogram Whether to publish histogram buckets (for server-side percentiles).
+     * @param percentiles         Percentiles computed in the application, may be empty.
+     */
+    public MethodTimingInterceptor(Supplier<MeterRegistry> registry, double sampleRate,
+                                   boolean percentileHistogram, double... percentiles) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1.");
+        }
+        this.registry = registry;
+        this.sampleRate = sampleRate;
+        this.percentileHistogram = percentileHistogram;
+        this.percentiles = percentiles;
+    }
+
+    /**
+     * Times the call if it is sampled and logs its failure.
+     *
+     * @param invocation The intercepted method invocation.
+     * @return The object returned by the intercepted method.
+     * @throws Throwable If the intercepted method throws an exception.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        boolean sampled = sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        long start = sampled ? System.nanoTime() : 0;
+        int[] callDepth = depth.get();
+        boolean outermost = callDepth[0]++ == 0;
+
+        try {
+            Object result = invocation.proceed();
+
+            if (sampled) {
+                long duration = System.nanoTime() - start;
+                Timer timer = timers.get(method);
+                if (timer == null) {
+                    timer = timers.computeIfAbsent(method, key -> timer(key, NO_EXCEPTION));
+                }
+                timer.record(duration, TimeUnit.NANOSECONDS);
+
+                if (log.isDebugEnabled()) {
+                    log.debug("{}.{} took {} us", method.getDeclaringClass().getSimpleName(), method.getName(),
+                            TimeUnit.NANOSECONDS.toMicros(duration));
+                }
+            }
+            return result;
+        } catch (Throwable throwable) {
+            if (sampled) {
+                failureTimer(method, throwable.getClass()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (ControllerExceptionHandler.isClientError(throwable)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("{}.{}: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+                            throwable.toString());
+                }
+            } else if (outermost && log.isWarnEnabled()) {
+                log.warn("{}.{} failed: {}", method.getDeclaringClass().getSimpleName(), method.getName(),
+                        throwable.toString());
+            }
+            throw throwable;
+        } finally {
+            callDepth[0]--;
+        }
+    }
+
+    /**
+     * Helper method which returns the timer of the failures of a method with an exception, registered once.
+     *
+     * @param method    The intercepted method.
+     * @param exception The class of the thrown exception.
+     * @return The timer.
+     */
+    private Timer failureTimer(Method method, Class<?> exception) {
+        Map<Class<?>, Timer> byException = failureTimers.get(method);
+        if (byException == null) {
+            byException = failureTimers.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        }
+        Timer timer = byException.get(exception);
+        if (timer == null) {
+            timer = byException.computeIfAbsent(exception, key -> timer(method, key.getSimpleName()));
+        }
+        return timer;
+    }
+
+    /**
+     * Helper method which registers (or looks up) the timer of a method and outcome.
+     *
+     * @param method    The intercepted method.
+     * @param exception The simple name of the thrown exception, or "none".
+     * @return The timer.
+     */
+    private Timer timer(Method method, String exception) {
+        return Timer.builder(METRIC_NAME)
+                .description("Latency of the application's controller and service methods")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .publishPercentileHistogram(percentileHistogram)
+                .publishPercentiles(percentiles)
+                .register(registry.get());
+    }
+}
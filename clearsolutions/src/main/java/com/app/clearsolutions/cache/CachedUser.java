@@ -0,0 +1,33 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.model.dto.UserDTO;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Entry of the user-by-id cache: the data of an active user, or a negative entry for a deleted
+ * or non-existent user, so repeated lookups of such ids do not reach the database either.
+ * Entries of active users also hold the version of the user (its entity tag).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CachedUser {
+    public static final CachedUser DELETED = new CachedUser(null, 0, true);
+    public static final CachedUser MISSING = new CachedUser(null, 0, false);
+
+    private final UserDTO user;
+    private final long version;
+    private final boolean deleted;
+
+    /**
+     * Creates an entry for an active user.
+     *
+     * @param user    The user data.
+     * @param version The version of the user.
+     * @return A cache entry holding the user data.
+     */
+    public static CachedUser active(UserDTO user, long version) {
+        return new CachedUser(user, version, false);
+    }
+}
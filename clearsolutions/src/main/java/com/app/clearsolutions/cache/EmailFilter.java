@@ -0,0 +1,19 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+
+/**
+ * Membership filter interface of the emails taken by users (active or deleted), telling apart
+ * emails which are certainly free from emails which may be taken.
+ */
+public interface EmailFilter {
+    void load();
+
+    boolean isLoaded();
+
+    boolean mightContain(String email);
+
+    void add(String email);
+
+    void onUserChanged(UserChangedEvent event);
+}
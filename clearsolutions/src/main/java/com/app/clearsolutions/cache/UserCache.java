@@ -0,0 +1,21 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+
+import java.util.function.LongFunction;
+
+/**
+ * Cache interface for user-by-id lookups.
+ */
+public interface UserCache {
+    CachedUser get(long id, LongFunction<CachedUser> loader);
+
+    CachedUser getIfPresent(long id);
+
+    void evict(long id);
+
+    void onUserChanged(UserChangedEvent event);
+
+    void onUsersDeactivated(UsersDeactivatedEvent event);
+}
@@ -0,0 +1,20 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Cache interface for the number of active users matching a birth date range filter.
+ */
+public interface UserCountCache {
+    long getCount(BirthDateRangeDTO birthDateRangeDTO, LongSupplier counter);
+
+    void onUserChanged(UserChangedEvent event);
+
+    void onUsersDeactivated(UsersDeactivatedEvent event);
+
+    void clear();
+}
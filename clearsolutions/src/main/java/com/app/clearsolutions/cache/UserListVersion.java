@@ -0,0 +1,15 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+
+/**
+ * Interface of the version of the user listing, changed by every write to the users.
+ */
+public interface UserListVersion {
+    String getETag();
+
+    void onUserChanged(UserChangedEvent event);
+
+    void onUsersDeactivated(UsersDeactivatedEvent event);
+}
@@ -0,0 +1,201 @@
+package com.app.clearsolutions.cache.impl;
+
+import com.app.clearsolutions.cache.EmailFilter;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import static com.app.clearsolutions.datasource.PrimaryReadConfig.PRIMARY_READ_TRANSACTION_TEMPLATE;
+
+/**
+ * Bloom filter implementation of the email membership filter, sized for email-filter.expected-insertions
+ * emails at email-filter.false-positive-probability. Emails are only ever added: the unique constraint
+ * also covers deleted users, and the old email of an updated user only costs a false positive.
+ * Bits are set with compare-and-set, so emails of concurrent writes can be added while the filter is
+ * loaded; until the load ends every email may be taken.
+ */
+@Component
+public class EmailFilterImpl implements EmailFilter {
+    private static final Logger log = LoggerFactory.getLogger(EmailFilterImpl.class);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private final long expectedInsertions;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean loaded;
+
+    @Autowired
+    public EmailFilterImpl(UserRepository userRepository,
+                           @Qualifier(PRIMARY_READ_TRANSACTION_TEMPLATE) TransactionTemplate primaryReadTransactionTemplate,
+                           @Value("${email-filter.expected-insertions:1000000}") long expectedInsertions,
+                           @Value("${email-filter.false-positive-probability:0.01}") double falsePositiveProbability) {
+        if (expectedInsertions <= 0 || falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("Email filter needs positive expected insertions and " +
+                    "a false positive probability between 0 and 1.");
+        }
+        // Optimal size m = -n * ln(p) / ln(2)^2 and number of hash functions k = m / n * ln(2)
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability)
+                / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (Math.max(optimalBits, 64) + 63) / 64);
+
+        this.userRepository = userRepository;
+        this.primaryReadTransactionTemplate = primaryReadTransactionTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds the emails of all users (active or deleted) from the database, read through a cursor.
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+
+        long count = primaryReadTransactionTemplate.execute(status -> {
+            long[] emails = new long[1];
+            try (Stream<String> stream = userRepository.streamEmails()) {
+                stream.forEach(email -> {
+                    add(email);
+                    emails[0]++;
+                });
+            }
+            return emails[0];
+        });
+        loaded = true;
+
+        log.info("Email filter of {} emails loaded in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        if (count > expectedInsertions) {
+            log.warn("Email filter holds {} emails, more than email-filter.expected-insertions ({}): " +
+                    "more duplicate checks will reach the database", count, expectedInsertions);
+        }
+    }
+
+    /**
+     * Checks whether the filter is loaded.
+     *
+     * @return true once the emails of the existing users are in the filter.
+     */
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Checks whether the email may be taken. A false answer is definite; a true answer must be
+     * confirmed against the database.
+     *
+     * @param email The email.
+     * @return false if no user has the email, true if a user may have it or the filter is not loaded yet.
+     */
+    @Override
+    public boolean mightContain(String email) {
+        if (!loaded) {
+            return true;
+        }
+
+        long hash = hash(normalizeEmail(email));
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long index = bitIndex(hash1 + i * hash2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the email to the filter.
+     *
+     * @param email The email.
+     */
+    @Override
+    public void add(String email) {
+        long hash = hash(normalizeEmail(email));
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+
+        for (int i = 1; i <= hashCount; i++) {
+            long index = bitIndex(hash1 + i * hash2);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * Adds the current email of a created or updated user.
+     *
+     * @param event The user change event.
+     */
+    @Override
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getCurrent() != null && event.getCurrent().getEmail() != null) {
+            add(event.getCurrent().getEmail());
+        }
+    }
+
+    /**
+     * Helper method which maps a combined hash to a bit of the filter (double hashing, Kirsch-Mitzenmacher).
+     *
+     * @param combinedHash The combined hash.
+     * @return The index of the bit.
+     */
+    private long bitIndex(int combinedHash) {
+        return ((combinedHash & 0xffffffffL) * 0x9E3779B97F4A7C15L >>> 1) % bitCount;
+    }
+
+    /**
+     * Helper method which computes a 64-bit hash of the email (FNV-1a followed by a murmur3 finalizer),
+     * whose halves are the two hashes of the double hashing.
+     *
+     * @param email The normalized email.
+     * @return The hash.
+     */
+    private static long hash(String email) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < email.length(); i++) {
+            hash = (hash ^ email.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    /**
+     * Helper method which normalizes an email like the unique constraint compares it (case-insensitively
+     * on MySQL).
+     *
+     * @param email The email.
+     * @return The normalized email.
+     */
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,143 @@
+package com.app.clearsolutions.cache.impl;
+
+import com.app.clearsolutions.cache.CachedUser;
+import com.app.clearsolutions.cache.UserCache;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
+
+/**
+ * Bounded in-process cache implementation for user-by-id lookups, with size and time-to-live eviction.
+ * Hit, miss and eviction counters are published as the "users.by-id" cache metrics.
+ * Entries are futures so that a miss is loaded by the calling thread outside of the map's bin lock
+ * (a synchronized block): a virtual thread waiting on the database is not pinned to its carrier, and
+ * writes to the same entry are not blocked while it loads.
+ */
+@Component
+public class UserCacheImpl implements UserCache, MeterBinder {
+    private static final String CACHE_NAME = "users.by-id";
+
+    private final AsyncCache<Long, CachedUser> cache;
+
+    @Autowired
+    public UserCacheImpl(@Value("${user-cache.maximum-size:10000}") long maximumSize,
+                         @Value("${user-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * Returns the cached entry of the user, loading it on a miss. Concurrent misses of the same id
+     * run the loader once, the other callers wait for its result. A failed load is not cached.
+     *
+     * @param id     The ID of the user.
+     * @param loader Function loading the entry from the database.
+     * @return The cache entry of the user.
+     */
+    @Override
+    public CachedUser get(long id, LongFunction<CachedUser> loader) {
+        CompletableFuture<CachedUser> loading = new CompletableFuture<>();
+        CompletableFuture<CachedUser> entry = cache.get(id, (key, executor) -> loading);
+
+        if (entry == loading) { // Miss: load on this thread, the map only holds the pending future
+            try {
+                loading.complete(loader.apply(id));
+            } catch (Throwable throwable) {
+                loading.completeExceptionally(throwable); // Failed futures are removed by the cache
+                throw throwable;
+            }
+        }
+
+        try {
+            return entry.join();
+        } catch (CompletionException exception) { // Another caller's load failed
+            throw exception.getCause() instanceof RuntimeException cause ? cause : exception;
+        }
+    }
+
+    /**
+     * Returns the cached entry of the user without loading it.
+     *
+     * @param id The ID of the user.
+     * @return The cache entry of the user, or null if it is not cached (or still loading).
+     */
+    @Override
+    public CachedUser getIfPresent(long id) {
+        CompletableFuture<CachedUser> entry = cache.getIfPresent(id);
+
+        return entry != null && entry.isDone() && !entry.isCompletedExceptionally() ? entry.join() : null;
+    }
+
+    /**
+     * Removes the entry of the user.
+     *
+     * @param id The ID of the user.
+     */
+    @Override
+    public void evict(long id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    /**
+     * Keeps the cache in sync with writes: a deleted user gets a negative entry right away,
+     * any other change evicts the entry so the next lookup reads the committed state.
+     *
+     * @param event The user change event.
+     */
+    @Override
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getPrevious() != null && event.getCurrent() == null) {
+            cache.put(event.getId(), CompletableFuture.completedFuture(CachedUser.DELETED));
+        } else {
+            cache.synchronous().invalidate(event.getId());
+        }
+    }
+
+    /**
+     * Keeps the cache in sync with set-based deactivations: a single deactivated id gets a negative entry,
+     * a list of ids is evicted (some of them may not exist), a birth date range evicts the whole cache.
+     *
+     * @param event The users deactivation event.
+     */
+    @Override
+    @EventListener
+    public void onUsersDeactivated(UsersDeactivatedEvent event) {
+        if (event.getCount() == 0) {
+            return;
+        }
+        if (event.getIds() == null) {
+            cache.synchronous().invalidateAll();
+        } else if (event.getIds().size() == 1) {
+            cache.put(event.getIds().get(0), CompletableFuture.completedFuture(CachedUser.DELETED));
+        } else {
+            cache.synchronous().invalidateAll(event.getIds());
+        }
+    }
+
+    /**
+     * Registers the cache metrics (hits, misses, evictions, size).
+     *
+     * @param registry The meter registry.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache.synchronous(), CACHE_NAME);
+    }
+}
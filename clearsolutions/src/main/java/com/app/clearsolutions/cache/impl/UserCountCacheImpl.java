@@ -0,0 +1,146 @@
+package com.app.clearsolutions.cache.impl;
+
+import com.app.clearsolutions.cache.UserCountCache;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache implementation for the number of active users per birth date range filter.
+ * Counts are adjusted incrementally on every user change, so they do not need to be reloaded after writes;
+ * the time to live bounds the drift caused by writes that race with a count query.
+ * A range with both dates null stands for all active users. 'from' and 'to' have the same meaning
+ * as in the listing: alone they are exclusive, together they are inclusive.
+ */
+@Component
+public class UserCountCacheImpl implements UserCountCache {
+    private final Map<BirthDateRangeDTO, CachedCount> counts = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private final long timeToLiveMillis;
+
+    @Autowired
+    public UserCountCacheImpl(@Value("${user-count-cache.maximum-size:1000}") int maximumSize,
+                              @Value("${user-count-cache.time-to-live:5m}") Duration timeToLive) {
+        this.maximumSize = maximumSize;
+        this.timeToLiveMillis = timeToLive.toMillis();
+    }
+
+    /**
+     * Returns the cached number of active users matching the filter, counting them on a miss.
+     *
+     * @param birthDateRangeDTO The birth date range filter.
+     * @param counter           Function running the count query.
+     * @return The number of active users matching the filter.
+     */
+    @Override
+    public long getCount(BirthDateRangeDTO birthDateRangeDTO, LongSupplier counter) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(birthDateRangeDTO);
+
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count.get();
+        }
+
+        long count = counter.getAsLong();
+        if (cached != null || counts.size() < maximumSize || evictExpired(now)) {
+            counts.put(birthDateRangeDTO, new CachedCount(count, now + timeToLiveMillis));
+        }
+        return count;
+    }
+
+    /**
+     * Adjusts the cached counts of all filters matching the previous or the current state of the user,
+     * or drops all cached counts if the previous state of the user is not known.
+     *
+     * @param event The user change event.
+     */
+    @Override
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.isPreviousKnown()) { // The delta cannot be computed without the previous birth date
+            clear();
+            return;
+        }
+        LocalDate previous = birthDateOf(event.getPrevious());
+        LocalDate current = birthDateOf(event.getCurrent());
+
+        if (previous == null && current == null || previous != null && previous.equals(current)) {
+            return;
+        }
+        counts.forEach((range, cached) -> {
+            int delta = (matches(range, current) ? 1 : 0) - (matches(range, previous) ? 1 : 0);
+            if (delta != 0) {
+                cached.count.addAndGet(delta);
+            }
+        });
+    }
+
+    /**
+     * Drops all cached counts when users were deactivated by a set-based update: the birth dates of the
+     * deactivated users are not known, so the counts cannot be adjusted.
+     *
+     * @param event The users deactivation event.
+     */
+    @Override
+    @EventListener
+    public void onUsersDeactivated(UsersDeactivatedEvent event) {
+        if (event.getCount() > 0) {
+            clear();
+        }
+    }
+
+    /**
+     * Drops all cached counts.
+     */
+    @Override
+    public void clear() {
+        counts.clear();
+    }
+
+    private boolean evictExpired(long now) {
+        counts.values().removeIf(cached -> cached.expiresAt <= now);
+        return counts.size() < maximumSize;
+    }
+
+    private static LocalDate birthDateOf(UserDTO userDTO) {
+        return userDTO == null ? null : userDTO.getBirthDate();
+    }
+
+    private static boolean matches(BirthDateRangeDTO range, LocalDate birthDate) {
+        if (birthDate == null) {
+            return false;
+        }
+        LocalDate from = range.getFrom();
+        LocalDate to = range.getTo();
+
+        if (from != null && to != null) {
+            return !birthDate.isBefore(from) && !birthDate.isAfter(to);
+        }
+        return (from == null || birthDate.isAfter(from)) && (to == null || birthDate.isBefore(to));
+    }
+
+    /**
+     * Cached count together with its expiration time (epoch millisecond).
+     */
+    private static final class CachedCount {
+        private final AtomicLong count;
+        private final long expiresAt;
+
+        private CachedCount(long count, long expiresAt) {
+            this.count = new AtomicLong(count);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.app.clearsolutions.cache.impl;
+
+import com.app.clearsolutions.cache.UserListVersion;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of the version of the user listing: a generation counter incremented on every user
+ * change, so a listing can be answered with 304 Not Modified without querying the database.
+ * The entity tag also holds the start time of the application, so tags of an earlier run never match,
+ * and the current time-to-live period, which bounds how long writes not seen by this instance
+ * (other instances, direct SQL) can go unnoticed, like the time to live of the cached counts.
+ */
+@Component
+public class UserListVersionImpl implements UserListVersion {
+    private final AtomicLong generation = new AtomicLong();
+    private final String startTime = Long.toString(System.currentTimeMillis(), 36);
+    private final long timeToLiveMillis;
+
+    @Autowired
+    public UserListVersionImpl(@Value("${user-list-etag.time-to-live:1m}") Duration timeToLive) {
+        this.timeToLiveMillis = Math.max(1, timeToLive.toMillis());
+    }
+
+    /**
+     * Returns the entity tag of the current state of the user listing. It must be taken before the listing
+     * is queried, so a write racing with the query changes the tag of the next request.
+     *
+     * @return The quoted entity tag.
+     */
+    @Override
+    public String getETag() {
+        return "\"" + startTime + "-" + generation.get() + "-"
+                + Long.toString(System.currentTimeMillis() / timeToLiveMillis, 36) + "\"";
+    }
+
+    /**
+     * Changes the version on a created, updated or deleted user.
+     *
+     * @param event The user change event.
+     */
+    @Override
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Changes the version on a bulk deactivation.
+     *
+     * @param event The users deactivated event.
+     */
+    @Override
+    @EventListener
+    public void onUsersDeactivated(UsersDeactivatedEvent event) {
+        generation.incrementAndGet();
+    }
+}
@@ -0,0 +1,59 @@
+package com.app.clearsolutions.controller;
+
+import com.app.clearsolutions.model.dto.AgeBucketDTO;
+import com.app.clearsolutions.model.dto.BirthYearCountDTO;
+import com.app.clearsolutions.model.dto.CountDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.service.AnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controller class responsible for handling birth date analytics HTTP requests.
+ * The answers come from an in-memory snapshot of the active users, not from the database.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+
+    @Autowired
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Endpoint to count the active users, optionally filtered by birth date range ("from" and "to"
+     * as in the user listing).
+     * @param from Starting date for filtering users.
+     * @param to Ending date for filtering users.
+     * @return ResponseEntity containing the number of users.
+     */
+    @GetMapping("/count")
+    public ResponseEntity<DataDTO<CountDTO>> countUsers(@RequestParam(defaultValue = "") String from,
+                                                        @RequestParam(defaultValue = "") String to) {
+        return analyticsService.countUsers(from, to);
+    }
+
+    /**
+     * Endpoint to count the active users per birth year.
+     * @return ResponseEntity containing the number of users per birth year.
+     */
+    @GetMapping("/birth-years")
+    public ResponseEntity<DataDTO<BirthYearCountDTO>> countUsersByBirthYear() {
+        return analyticsService.countUsersByBirthYear();
+    }
+
+    /**
+     * Endpoint to count the active users per age bucket.
+     * @return ResponseEntity containing the number of users per age bucket.
+     */
+    @GetMapping("/ages")
+    public ResponseEntity<DataDTO<AgeBucketDTO>> countUsersByAge() {
+        return analyticsService.countUsersByAge();
+    }
+}
@@ -1,17 +1,31 @@
 package com.app.clearsolutions.controller;
 
 import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
 import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.DeactivationDTO;
+import com.app.clearsolutions.model.dto.DeactivationResultDTO;
+import com.app.clearsolutions.model.dto.ImportReportDTO;
 import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.service.BatchService;
+import com.app.clearsolutions.service.ExportService;
+import com.app.clearsolutions.service.ImportService;
+import com.app.clearsolutions.service.SearchService;
 import com.app.clearsolutions.service.UserService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
+import java.util.List;
+
 /**
  * Controller class responsible for handling user-related HTTP requests.
  */
@@ -19,10 +33,19 @@ import org.springframework.web.util.UriComponentsBuilder;
 @RequestMapping("/api/users")
 public class UserController {
     private final UserService userService;
+    private final BatchService batchService;
+    private final ExportService exportService;
+    private final ImportService importService;
+    private final SearchService searchService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, BatchService batchService, ExportService exportService,
+                          ImportService importService, SearchService searchService) {
         this.userService = userService;
+        this.batchService = batchService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.searchService = searchService;
     }
 
     /**
@@ -38,65 +61,156 @@ public class UserController {
         return userService.createUser(userDTO, uriBuilder);
     }
 
+    /**
+     * Endpoint to create users in bulk. Every item is validated and created independently,
+     * a failed item does not prevent the others from being created.
+     * @param userDTOs The list of UserDTO objects containing user data.
+     * @return ResponseEntity containing the result of every item (id of the created user or the failure reason).
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<DataDTO<BatchItemResultDTO>> createUsers(@RequestBody List<UserDTO> userDTOs) {
+        return batchService.createUsers(userDTOs);
+    }
+
+    /**
+     * Endpoint to import users from a CSV (with a header line) or NDJSON file sent as the request body.
+     * The body is processed while it is being received and committed in chunks.
+     * @param inputStream The request body.
+     * @param contentType The content type of the request body.
+     * @param resumeAfterLine The number of lines to skip (lastCommittedLine of an interrupted import).
+     * @return ResponseEntity containing the import report (created/rejected counts, rejected lines).
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<DataDTO<ImportReportDTO>> importUsers(
+            InputStream inputStream,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "0") long resumeAfterLine) {
+        return importService.importUsers(inputStream, contentType, resumeAfterLine);
+    }
+
     /**
      * Endpoint to retrieve a paginated list of users, optionally filtered by birth date range.
      * Users can be filtered by specifying both "from" and "to" parameters, either one of them,
      * or without any parameter. Pagination is supported using the provided Pageable object.
+     * The "paging" parameter selects how totals are reported: "page" (count query), "slice" (no count,
+     * only whether there is a next page) or "cached" (count cached per filter).
+     * If the "after" parameter is present (empty for the first page), cursor pagination is used instead:
+     * only the page size is taken from the Pageable and the response contains the cursor of the next page.
      * @param from Starting date for filtering users.
      * @param to Ending date for filtering users.
+     * @param paging Paging mode.
+     * @param after Cursor of the page to retrieve (cursor pagination only).
      * @param pageable Pageable object for pagination.
+     * @param ifNoneMatch Entity tag of the listing the client has (304 Not Modified if it is current).
      * @return ResponseEntity containing the list of users and pagination information.
      */
     @GetMapping
-    public ResponseEntity<DataDTO> readUsers(@RequestParam(defaultValue = "") String from,
-                                             @RequestParam(defaultValue = "") String to,
-                                             Pageable pageable) {
-        return userService.getUsers(from, to, pageable);
+    public ResponseEntity<DataDTO<UserDTO>> readUsers(
+            @RequestParam(defaultValue = "") String from,
+            @RequestParam(defaultValue = "") String to,
+            @RequestParam(defaultValue = "page") String paging,
+            @RequestParam(required = false) String after,
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (after != null) {
+            return userService.getUsersAfter(from, to, after, pageable.getPageSize(), ifNoneMatch);
+        }
+        return userService.getUsers(from, to, pageable, paging, ifNoneMatch);
+    }
+
+    /**
+     * Endpoint to search active users whose first name, last name or email starts with the query
+     * (case-insensitive, type-ahead). Matches come from an in-memory index and are paged like readUsers.
+     * @param q The prefix to search for.
+     * @param pageable Pageable object for pagination.
+     * @return ResponseEntity containing the matching users and pagination information.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<DataDTO<UserDTO>> searchUsers(@RequestParam String q, Pageable pageable) {
+        return searchService.searchUsers(q, pageable);
+    }
+
+    /**
+     * Endpoint to export all active users as NDJSON (one JSON user per line, ordered by id), optionally
+     * filtered by birth date range ("from" and "to" as in readUsers). The users are streamed from the
+     * database to the response, so the export size is not limited by memory.
+     * @param from Starting date for filtering users.
+     * @param to Ending date for filtering users.
+     * @return ResponseEntity with the streamed NDJSON body.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "") String from,
+                                                             @RequestParam(defaultValue = "") String to) {
+        return exportService.exportUsers(from, to);
     }
 
     /**
      * Endpoint to retrieve a user by ID.
      * @param id The ID of the user to retrieve.
+     * @param ifNoneMatch Entity tag of the user the client has (304 Not Modified if it is current).
      * @return ResponseEntity containing the user data.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<DataDTO> readUserBuId(@PathVariable @Valid @Min(1) long id) {
-        return userService.getUserById(id);
+    public ResponseEntity<DataDTO<UserDTO>> readUserBuId(
+            @PathVariable @Valid @Min(1) long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return userService.getUserById(id, ifNoneMatch);
     }
 
     /**
      * Endpoint to delete a user by ID (set isActive to false).
      * @param id The ID of the user to delete.
+     * @param ifMatch Entity tag the user must still have (optional).
      * @return ResponseEntity indicating success or failure of the operation.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable @Valid @Min(1) long id) {
-        return userService.deleteUser(id);
+    public ResponseEntity<Void> deleteUser(@PathVariable @Valid @Min(1) long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) {
+        return userService.deleteUser(id, ifMatch);
+    }
+
+    /**
+     * Endpoint to delete (set isActive to false) users in bulk, selected either by a list of ids
+     * or by a birth date range, with a single statement.
+     * @param deactivationDTO The DeactivationDTO object containing the ids or the birth date range.
+     * @return ResponseEntity containing the number of deactivated users.
+     */
+    @PostMapping("/deactivate")
+    public ResponseEntity<DataDTO<DeactivationResultDTO>> deactivateUsers(
+            @RequestBody DeactivationDTO deactivationDTO) {
+        return userService.deactivateUsers(deactivationDTO);
     }
 
     /**
      * Endpoint to update a user's information (all the fields).
      * @param id The ID of the user to update.
      * @param userDTO The UserDTO object containing updated user data.
+     * @param ifMatch Entity tag the user must still have (optional).
      * @return ResponseEntity indicating success or failure of the operation.
      * @throws InvalidInputFormatException If the input format is invalid.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Void> updateUser(@PathVariable @Valid @Min(1) long id,
-                                           @RequestBody UserDTO userDTO) throws InvalidInputFormatException {
-        return userService.updateAllUserFields(userDTO, id);
+                                           @RequestBody UserDTO userDTO,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                           String ifMatch) throws InvalidInputFormatException {
+        return userService.updateAllUserFields(userDTO, id, ifMatch);
     }
 
     /**
      * Endpoint to partially update a user's information (one/some fields).
      * @param id The ID of the user to update.
      * @param userDTO The UserDTO object containing partial user data.
+     * @param ifMatch Entity tag the user must still have (optional).
      * @return ResponseEntity indicating success or failure of the operation.
      * @throws InvalidInputFormatException If the input format is invalid.
      */
     @PatchMapping("/{id}")
     public ResponseEntity<Void> partialUpdateUser(@PathVariable @Valid @Min(1) long id,
-                                                  @RequestBody UserDTO userDTO) throws InvalidInputFormatException {
-        return userService.partialUpdateUser(userDTO, id);
+                                                  @RequestBody UserDTO userDTO,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                                  String ifMatch) throws InvalidInputFormatException {
+        return userService.partialUpdateUser(userDTO, id, ifMatch);
     }
 }
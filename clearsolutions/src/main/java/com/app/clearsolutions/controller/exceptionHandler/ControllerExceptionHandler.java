@@ -1,7 +1,13 @@
 package com.app.clearsolutions.controller.exceptionHandler;
 
+import com.app.clearsolutions.exception.DuplicateEmailException;
+import com.app.clearsolutions.exception.PreconditionFailedException;
+import com.app.clearsolutions.exception.SnapshotLoadingException;
+import com.app.clearsolutions.exception.UserDeletedException;
+import com.app.clearsolutions.exception.UserNotFoundException;
 import com.app.clearsolutions.model.dto.ExceptionResponseDTO;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +30,17 @@ public class ControllerExceptionHandler {
                 "User with such an email already exists!", exception.getClass().getSimpleName());
     }
 
+    /**
+     * Handles DuplicateEmailException when the email of a new user is known to be taken before the insert.
+     * @param exception DuplicateEmailException instance.
+     * @return ResponseEntity with an error http status, custom message and name.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionResponseDTO> handleDuplicateEmailException(DuplicateEmailException exception) {
+        return provideResponseEntity(HttpStatus.BAD_REQUEST,
+                "User with such an email already exists!", exception.getClass().getSimpleName());
+    }
+
     /**
      * Handles IllegalArgumentException when providing illegal arguments.
      * @param exception DataIntegrityViolationException instance.
@@ -46,6 +63,62 @@ public class ControllerExceptionHandler {
                 exception.getMessage(), exception.getClass().getSimpleName());
     }
 
+    /**
+     * Handles UserNotFoundException when there is no user with the requested id.
+     * @param exception UserNotFoundException instance.
+     * @return ResponseEntity with an error http status, message and name.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionResponseDTO> handleUserNotFoundException(UserNotFoundException exception) {
+        return provideResponseEntity(HttpStatus.NOT_FOUND,
+                exception.getMessage(), exception.getClass().getSimpleName());
+    }
+
+    /**
+     * Handles UserDeletedException when the user with the requested id has been deleted.
+     * @param exception UserDeletedException instance.
+     * @return ResponseEntity with an error http status, message and name.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionResponseDTO> handleUserDeletedException(UserDeletedException exception) {
+        return provideResponseEntity(HttpStatus.GONE,
+                exception.getMessage(), exception.getClass().getSimpleName());
+    }
+
+    /**
+     * Handles PreconditionFailedException when the user has been changed since the version of If-Match.
+     * @param exception PreconditionFailedException instance.
+     * @return ResponseEntity with an error http status, message and name.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionResponseDTO> handlePreconditionFailedException(PreconditionFailedException exception) {
+        return provideResponseEntity(HttpStatus.PRECONDITION_FAILED,
+                exception.getMessage(), exception.getClass().getSimpleName());
+    }
+
+    /**
+     * Handles OptimisticLockingFailureException when the user is changed concurrently by another request.
+     * @param exception OptimisticLockingFailureException instance.
+     * @return ResponseEntity with an error http status, message and name.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionResponseDTO> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException exception) {
+        return provideResponseEntity(HttpStatus.CONFLICT,
+                "User has been changed by another request, try again.", exception.getClass().getSimpleName());
+    }
+
+    /**
+     * Handles SnapshotLoadingException when the analytics snapshot is queried before it is loaded.
+     * @param exception SnapshotLoadingException instance.
+     * @return ResponseEntity with an error http status, message and name.
+     */
+    @ExceptionHandler
+    public ResponseEntity<ExceptionResponseDTO> handleSnapshotLoadingException(SnapshotLoadingException exception) {
+        return provideResponseEntity(HttpStatus.SERVICE_UNAVAILABLE,
+                exception.getMessage(), exception.getClass().getSimpleName());
+    }
+
     /**
      * Handles RuntimeException when having internal server error.
      * @param exception DataIntegrityViolationException instance.
@@ -79,6 +152,26 @@ public class ControllerExceptionHandler {
                 exception.getMessage(), exception.getClass().getSimpleName());
     }
 
+    /**
+     * Tells whether an exception is mapped to a client error (4xx) by this handler: an outcome of the request
+     * rather than a failure of the application. Keep in line with the handlers above.
+     * @param throwable Exception thrown by a controller or a service.
+     * @return True for a 4xx status, false for a 5xx status or an error which is not handled.
+     */
+    public static boolean isClientError(Throwable throwable) {
+        if (throwable instanceof DataIntegrityViolationException
+                || throwable instanceof DuplicateEmailException
+                || throwable instanceof IllegalArgumentException
+                || throwable instanceof NullPointerException
+                || throwable instanceof UserNotFoundException // Also UserDeletedException
+                || throwable instanceof PreconditionFailedException
+                || throwable instanceof OptimisticLockingFailureException
+                || throwable instanceof HandlerMethodValidationException) {
+            return true;
+        }
+        return throwable instanceof Exception && !(throwable instanceof RuntimeException);
+    }
+
     /**
      * Helper method to construct ResponseEntity with an ExceptionResponseDTO.
      * @param status HTTP status code.
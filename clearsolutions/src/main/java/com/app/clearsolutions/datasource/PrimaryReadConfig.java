@@ -0,0 +1,29 @@
+package com.app.clearsolutions.datasource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Configuration of the transactions of the reads which must see every committed write: the snapshots loaded
+ * once at startup and then kept up to date by the user change events only (search index, analytics index,
+ * email filter). A write missing from a lagging replica would never reach them, so these reads run in
+ * read-write transactions, which ReplicaRoutingDataSource routes to the primary. Without replicas they are
+ * ordinary transactions.
+ */
+@Configuration
+public class PrimaryReadConfig {
+    public static final String PRIMARY_READ_TRANSACTION_TEMPLATE = "primaryReadTransactionTemplate";
+
+    /**
+     * Creates the transaction template of the reads from the primary.
+     *
+     * @param transactionManager The transaction manager.
+     * @return A template of read-write transactions, never routed to a replica.
+     */
+    @Bean(PRIMARY_READ_TRANSACTION_TEMPLATE)
+    public TransactionTemplate primaryReadTransactionTemplate(PlatformTransactionManager transactionManager) {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.clearsolutions.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the read replicas, active if datasource.replica-urls is set: the data source of the
+ * application routes read-only transactions to the replicas and everything else to the primary
+ * (spring.datasource.*). The replicas use the credentials and the Hikari settings of the primary.
+ * Without replicas, Spring Boot configures the single primary data source as usual.
+ */
+@Configuration
+@ConditionalOnProperty("datasource.replica-urls")
+public class ReplicaRoutingConfig {
+    /**
+     * Creates the connection pool of the primary, as Spring Boot would without replicas.
+     *
+     * @param properties The spring.datasource properties.
+     * @return The pool of the primary.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * Creates the routing data source with one read-only connection pool per replica.
+     *
+     * @param primaryDataSource The pool of the primary.
+     * @param replicaUrls       The JDBC URLs of the replicas.
+     * @param retryInterval     How long a failed replica is skipped.
+     * @param lagWindow         How long the reads of a thread go to the primary after its read-write transaction.
+     * @param registry          Provider of the meter registry (Hikari pool metrics of the replicas).
+     * @return The routing data source.
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            @Value("${datasource.replica-urls}") List<String> replicaUrls,
+            @Value("${datasource.replica-retry-interval:30s}") Duration retryInterval,
+            @Value("${datasource.replica-lag-window:5s}") Duration lagWindow,
+            ObjectProvider<MeterRegistry> registry) {
+        List<DataSource> replicas = new ArrayList<>();
+
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setJdbcUrl(replicaUrls.get(i).trim());
+            config.setPoolName("replica-" + (i + 1));
+            config.setReadOnly(true);
+            config.setInitializationFailTimeout(-1); // A replica that is down does not prevent the startup
+            registry.ifAvailable(meterRegistry ->
+                    config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry)));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, retryInterval, lagWindow);
+    }
+
+    /**
+     * Creates the data source of the application (JPA, transactions): the routing data source behind a proxy
+     * which obtains the connection at the first statement, when the read-only flag of the transaction is set.
+     *
+     * @param replicaRoutingDataSource The routing data source.
+     * @return The data source of the application.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,126 @@
+package com.app.clearsolutions.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Data source routing the connections of read-only transactions to the read replicas, round-robin, and all
+ * other connections (read-write transactions, no transaction) to the primary.
+ * A replica whose connection fails is skipped for the retry interval and its reads go to the next replica,
+ * or to the primary if none is available. After a read-write transaction, the reads of the same thread go to
+ * the primary for the lag window, so the caller which wrote (the request, and the listeners of its events run by
+ * the same thread) reads its own writes even if the replicas have not caught up yet. The reads of other threads
+ * keep going to the replicas: they may lag behind by the replication delay, as they would on another instance.
+ * It must be wrapped in a LazyConnectionDataSourceProxy: transaction managers obtain the connection when the
+ * transaction begins, before the read-only flag of the transaction is set, while the proxy obtains it at the
+ * first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final long retryIntervalNanos;
+    private final long lagWindowNanos;
+    private final AtomicInteger next = new AtomicInteger();
+    // System.nanoTime() until which a failed replica is skipped, 0 while it is available
+    private final AtomicLongArray unavailableUntil;
+    // System.nanoTime() until which the reads of a thread which has written go to the primary, per thread
+    private final ThreadLocal<Long> readsOnPrimaryUntil = new ThreadLocal<>();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Duration retryInterval,
+                                    Duration lagWindow) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one read replica is required.");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.retryIntervalNanos = retryInterval.toNanos();
+        this.lagWindowNanos = lagWindow.toNanos();
+        this.unavailableUntil = new AtomicLongArray(replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    /**
+     * Closes the connection pools of the replicas (the primary is closed by its own bean).
+     *
+     * @throws Exception If a replica pool fails to close.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    /**
+     * Helper method which obtains a connection from the data source of the current transaction.
+     *
+     * @param connector Obtains a connection from a data source.
+     * @return A connection of the primary or of an available replica.
+     * @throws SQLException If the primary fails to provide a connection.
+     */
+    private Connection route(Connector connector) throws SQLException {
+        long now = System.nanoTime();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive() && lagWindowNanos > 0) {
+                readsOnPrimaryUntil.set(now + lagWindowNanos);
+            }
+            return connector.connect(primary);
+        }
+        Long primaryUntil = readsOnPrimaryUntil.get();
+        if (primaryUntil != null) {
+            if (now - primaryUntil < 0) {
+                return connector.connect(primary);
+            }
+            readsOnPrimaryUntil.remove();
+        }
+
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            int index = Math.floorMod(next.getAndIncrement(), replicas.size());
+            long until = unavailableUntil.get(index);
+            if (until != 0 && now - until < 0) {
+                continue;
+            }
+            try {
+                Connection connection = connector.connect(replicas.get(index));
+                if (until != 0 && unavailableUntil.compareAndSet(index, until, 0)) {
+                    log.info("Read replica {} is available again", index + 1);
+                }
+                return connection;
+            } catch (SQLException exception) {
+                unavailableUntil.set(index, (now + retryIntervalNanos) | 1); // never 0, which means available
+                log.warn("Read replica {} is unavailable, its reads go to the other replicas or the primary " +
+                        "for {} ms", index + 1, retryIntervalNanos / 1_000_000, exception);
+            }
+        }
+        return connector.connect(primary);
+    }
+
+    @FunctionalInterface
+    private interface Connector {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
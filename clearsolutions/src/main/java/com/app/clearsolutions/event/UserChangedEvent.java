@@ -0,0 +1,43 @@
+package com.app.clearsolutions.event;
+
+import com.app.clearsolutions.model.dto.UserDTO;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published by the service layer after a user has been created, updated or deleted.
+ * In-memory structures derived from the users table (caches, indexes) listen to it to stay in sync.
+ * 'previous' is null if the user was not active before the change, 'current' is null if the user
+ * is not active after it (deleted). If 'previousKnown' is false, the user was active before the change
+ * but its previous state was not read (single-statement update), and 'previous' is null.
+ */
+@Getter
+@ToString
+public class UserChangedEvent {
+    private final long id;
+    private final UserDTO previous;
+    private final UserDTO current;
+    private final boolean previousKnown;
+
+    public UserChangedEvent(long id, UserDTO previous, UserDTO current) {
+        this(id, previous, current, true);
+    }
+
+    private UserChangedEvent(long id, UserDTO previous, UserDTO current, boolean previousKnown) {
+        this.id = id;
+        this.previous = previous;
+        this.current = current;
+        this.previousKnown = previousKnown;
+    }
+
+    /**
+     * Creates the event of an active user updated without reading its previous state.
+     *
+     * @param id      The ID of the user.
+     * @param current The user data after the update.
+     * @return The user change event.
+     */
+    public static UserChangedEvent updatedWithoutPrevious(long id, UserDTO current) {
+        return new UserChangedEvent(id, null, current, false);
+    }
+}
@@ -0,0 +1,23 @@
+package com.app.clearsolutions.event;
+
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Application event published by the service layer after users have been deactivated (deleted) by a single
+ * UPDATE statement, which does not read their previous state. 'ids' are the requested ids (some of them may
+ * not have been active) or null if the users were selected by the birth date 'range'; 'count' is the number
+ * of users actually deactivated.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UsersDeactivatedEvent {
+    private final List<Long> ids;
+    private final BirthDateRangeDTO range;
+    private final int count;
+}
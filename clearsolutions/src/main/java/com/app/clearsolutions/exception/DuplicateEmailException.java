@@ -0,0 +1,11 @@
+package com.app.clearsolutions.exception;
+
+/**
+ * Exception thrown to indicate that a user with the email of a new user already exists (400 Bad Request).
+ * The email filter makes it an outcome detected before the insert, so it does not capture a stack trace.
+ */
+public class DuplicateEmailException extends RuntimeException {
+    public DuplicateEmailException(String msg) {
+        super(msg, null, false, false);
+    }
+}
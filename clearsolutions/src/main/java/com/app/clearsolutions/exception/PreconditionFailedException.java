@@ -0,0 +1,11 @@
+package com.app.clearsolutions.exception;
+
+/**
+ * Exception thrown to indicate that the precondition of a conditional request (If-Match) does not hold:
+ * the resource has been changed since the client read it.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,10 @@
+package com.app.clearsolutions.exception;
+
+/**
+ * Exception thrown to indicate that an in-memory snapshot is queried before it has been loaded.
+ */
+public class SnapshotLoadingException extends RuntimeException {
+    public SnapshotLoadingException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,11 @@
+package com.app.clearsolutions.exception;
+
+/**
+ * Exception thrown to indicate that the user with the requested id has been deleted (410 Gone).
+ * Like UserNotFoundException, it does not capture a stack trace.
+ */
+public class UserDeletedException extends UserNotFoundException {
+    public UserDeletedException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,11 @@
+package com.app.clearsolutions.exception;
+
+/**
+ * Exception thrown to indicate that there is no user with the requested id (404 Not Found).
+ * Ids probed by clients make it a frequent, expected outcome, so it does not capture a stack trace.
+ */
+public class UserNotFoundException extends RuntimeException {
+    public UserNotFoundException(String msg) {
+        super(msg, null, false, false);
+    }
+}
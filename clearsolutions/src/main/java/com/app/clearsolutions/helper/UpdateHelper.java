@@ -9,5 +9,7 @@ import com.app.clearsolutions.model.dto.UserDTO;
 public interface UpdateHelper {
     void userPatcher(User existingUser, UserDTO newUser) throws IllegalAccessException, NoSuchFieldException;
 
+    int patchUser(User existingUser, UserDTO newUser);
+
     boolean checkIfFieldsAreNonNull(UserDTO userDTO) throws IllegalAccessException;
 }
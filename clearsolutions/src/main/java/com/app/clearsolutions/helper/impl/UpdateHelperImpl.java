@@ -5,13 +5,33 @@ import com.app.clearsolutions.model.User;
 import com.app.clearsolutions.model.dto.UserDTO;
 import org.springframework.stereotype.Component;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /**
  * Helper implementation to assist with updating User entities based on UserDTO objects.
+ * The accessors for every UserDTO field (except 'id') and its User counterpart are generated once,
+ * when the bean is created, as lambdas bound to the getters and setters, so patching does no
+ * reflective lookups at call time.
  */
 @Component
 public class UpdateHelperImpl implements UpdateHelper {
+    private final FieldAccessor[] accessors;
+
+    public UpdateHelperImpl() {
+        this.accessors = createAccessors();
+    }
+
     /**
      * Updates fields of an existing User object with non-null values from a UserDTO object.
      * The 'id' field is excluded from the update.
@@ -23,24 +43,29 @@ public class UpdateHelperImpl implements UpdateHelper {
      */
     public void userPatcher(User existingUser, UserDTO newUser)
             throws IllegalAccessException, NoSuchFieldException {
-        Class<?> userDTOClass = UserDTO.class;
-        Field[] userDTOFields = userDTOClass.getDeclaredFields();
-
-        for(Field field : userDTOFields) {
-            field.setAccessible(true);
-
-            Object value = field.get(newUser);
-            if(value != null && !field.getName().equals("id")) {
-                Field userField = User.class.getDeclaredField(field.getName());
-                userField.setAccessible(true);
+        patchUser(existingUser, newUser);
+    }
 
-                userField.set(existingUser, value);
+    /**
+     * Updates fields of an existing User object with non-null values from a UserDTO object which differ
+     * from the current ones. The 'id' field is excluded from the update.
+     * Bit {@code i} of the result stands for the i-th field declared in UserDTO, not counting 'id'.
+     *
+     * @param existingUser The existing User object to be updated.
+     * @param newUser      The UserDTO object containing new values.
+     * @return Bitmask of the changed fields; 0 if nothing was changed.
+     */
+    public int patchUser(User existingUser, UserDTO newUser) {
+        int changedFields = 0;
 
-                userField.setAccessible(false);
+        for (FieldAccessor accessor : accessors) {
+            Object value = accessor.dtoGetter().apply(newUser);
+            if (value != null && !Objects.equals(value, accessor.userGetter().apply(existingUser))) {
+                accessor.userSetter().accept(existingUser, value);
+                changedFields |= accessor.bit();
             }
-
-            field.setAccessible(false);
         }
+        return changedFields;
     }
 
     /**
@@ -51,19 +76,76 @@ public class UpdateHelperImpl implements UpdateHelper {
      * @throws IllegalAccessException If access to a field is denied.
      */
     public boolean checkIfFieldsAreNonNull(UserDTO userDTO) throws IllegalAccessException {
-        Class<?> userClass = UserDTO.class;
-        Field[] userFields = userClass.getDeclaredFields();
+        for (FieldAccessor accessor : accessors) {
+            if (accessor.dtoGetter().apply(userDTO) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        for(Field field : userFields) {
-            field.setAccessible(true);
+    /**
+     * Generates the accessors for all UserDTO fields (except 'id') in declaration order.
+     *
+     * @return An array of field accessors.
+     * @throws IllegalStateException If a field has no matching getter/setter in UserDTO or User.
+     */
+    private static FieldAccessor[] createAccessors() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<FieldAccessor> accessors = new ArrayList<>();
 
-            Object value = field.get(userDTO);
-            if(value == null && !field.getName().equals("id")) {
-                return false;
+        for (Field field : UserDTO.class.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || field.getName().equals("id")) {
+                continue;
+            }
+            if (accessors.size() == Integer.SIZE) {
+                throw new IllegalStateException("UserDTO has too many fields for an int bitmask.");
             }
 
-            field.setAccessible(false);
+            String property = Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+            Class<?> type = field.getType();
+            try {
+                accessors.add(new FieldAccessor(1 << accessors.size(),
+                        getter(lookup, UserDTO.class, "get" + property, type),
+                        getter(lookup, User.class, "get" + property, type),
+                        setter(lookup, "set" + property, type)));
+            } catch (Throwable e) {
+                throw new IllegalStateException("Cannot generate accessors for field '" + field.getName() + "'.", e);
+            }
         }
-        return true;
+        return accessors.toArray(new FieldAccessor[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T, Object> getter(MethodHandles.Lookup lookup, Class<T> owner,
+                                                  String name, Class<?> type) throws Throwable {
+        MethodHandle handle = lookup.findVirtual(owner, name, MethodType.methodType(type));
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle, MethodType.methodType(type, owner));
+
+        return (Function<T, Object>) callSite.getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<User, Object> setter(MethodHandles.Lookup lookup,
+                                                   String name, Class<?> type) throws Throwable {
+        MethodHandle handle = lookup.findVirtual(User.class, name, MethodType.methodType(void.class, type));
+        CallSite callSite = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle, MethodType.methodType(void.class, User.class, type));
+
+        return (BiConsumer<User, Object>) callSite.getTarget().invokeExact();
+    }
+
+    /**
+     * Generated accessors of one UserDTO field and its User counterpart.
+     */
+    private record FieldAccessor(int bit,
+                                 Function<UserDTO, Object> dtoGetter,
+                                 Function<User, Object> userGetter,
+                                 BiConsumer<User, Object> userSetter) {
     }
 }
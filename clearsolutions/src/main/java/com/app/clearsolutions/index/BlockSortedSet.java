@@ -0,0 +1,246 @@
+package com.app.clearsolutions.index;
+
+import java.util.Arrays;
+
+/**
+ * Base class of the sorted sets stored in blocks of at most BLOCK_SIZE entries. A write shifts the entries of
+ * one block (and the block references when a block is split or removed) instead of the whole set, so it stays
+ * cheap with millions of entries; positional reads sum the block sizes. This class places the blocks and moves
+ * the entries between them; the subclasses store the entries of a block in primitive arrays (no boxing), and
+ * find the block and the position of an entry, since they compare the entries.
+ * Not thread-safe: the in-memory repository and indexes guard their sets with their lock.
+ *
+ * @param <B> The type of a block: an array of BLOCK_SIZE entries, or a holder of parallel arrays.
+ */
+public abstract class BlockSortedSet<B> {
+    protected static final int BLOCK_SIZE = 1024;
+
+    private Object[] blocks = {newBlock()};
+    private int[] blockSizes = new int[1];
+    private int blockCount = 1;
+    private int size;
+
+    public final int size() {
+        return size;
+    }
+
+    /**
+     * Creates an empty block. Called by the constructor too, so it must not depend on the fields of the subclass.
+     *
+     * @return A block of BLOCK_SIZE entries.
+     */
+    protected abstract B newBlock();
+
+    /**
+     * Copies entries between blocks, or within a block (the ranges may overlap, as with System.arraycopy).
+     *
+     * @param source         The source block.
+     * @param sourcePosition The position of the first entry to copy.
+     * @param target         The target block.
+     * @param targetPosition The position of the first copied entry in the target block.
+     * @param length         The number of entries to copy.
+     */
+    protected abstract void copy(B source, int sourcePosition, B target, int targetPosition, int length);
+
+    /**
+     * Releases the references held by the unused positions [from, to) of a block. Nothing to do by default.
+     *
+     * @param block The block.
+     * @param from  The first unused position.
+     * @param to    The position after the last unused one.
+     */
+    protected void clear(B block, int from, int to) {
+    }
+
+    /**
+     * Replaces the content of the set with sorted, distinct entries, filling the blocks in order.
+     *
+     * @param count  The number of entries.
+     * @param loader Copies the entries [from, from + length) to the start of a new block.
+     */
+    protected final void load(int count, BlockLoader<B> loader) {
+        int loadedBlockCount = Math.max(1, (count + BLOCK_SIZE - 1) / BLOCK_SIZE);
+
+        blocks = new Object[loadedBlockCount];
+        blockSizes = new int[loadedBlockCount];
+        for (int block = 0; block < loadedBlockCount; block++) {
+            int from = block * BLOCK_SIZE;
+            int blockSize = Math.max(0, Math.min(BLOCK_SIZE, count - from));
+            B loaded = newBlock();
+            loader.load(loaded, from, blockSize);
+            blocks[block] = loaded;
+            blockSizes[block] = blockSize;
+        }
+        blockCount = loadedBlockCount;
+        size = count;
+    }
+
+    protected final int blockCount() {
+        return blockCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected final B block(int block) {
+        return (B) blocks[block];
+    }
+
+    protected final int blockSize(int block) {
+        return blockSizes[block];
+    }
+
+    /**
+     * Returns the position in the set of a position in a block.
+     *
+     * @param block    The block.
+     * @param position The position in the block.
+     * @return The number of entries before it.
+     */
+    protected final int positionOf(int block, int position) {
+        for (int i = 0; i < block; i++) {
+            position += blockSizes[i];
+        }
+        return position;
+    }
+
+    /**
+     * Opens a slot for a new entry at a position of a block, splitting the block first if it is full,
+     * and counts the entry, which the caller then stores in the slot.
+     *
+     * @param block    The block.
+     * @param position The position of the new entry in the block.
+     * @return The slot: its block and its position in the block, read with slotBlock and slotPosition.
+     */
+    protected final long openSlot(int block, int position) {
+        if (blockSizes[block] == BLOCK_SIZE) {
+            split(block);
+            if (position > BLOCK_SIZE / 2) {
+                position -= BLOCK_SIZE / 2;
+                block++;
+            }
+        }
+        B entries = block(block);
+        copy(entries, position, entries, position + 1, blockSizes[block] - position);
+        blockSizes[block]++;
+        size++;
+        return (long) block << 32 | position;
+    }
+
+    protected static int slotBlock(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    protected static int slotPosition(long slot) {
+        return (int) slot;
+    }
+
+    /**
+     * Removes the entry at a position of a block, and the block if it becomes empty (unless it is the only one).
+     *
+     * @param block    The block.
+     * @param position The position of the entry in the block.
+     */
+    protected final void removeAt(int block, int position) {
+        B entries = block(block);
+        int blockSize = --blockSizes[block];
+
+        copy(entries, position + 1, entries, position, blockSize - position);
+        clear(entries, blockSize, blockSize + 1);
+        size--;
+        if (blockSize == 0 && blockCount > 1) {
+            System.arraycopy(blocks, block + 1, blocks, block, blockCount - block - 1);
+            System.arraycopy(blockSizes, block + 1, blockSizes, block, blockCount - block - 1);
+            blocks[--blockCount] = null;
+        }
+    }
+
+    /**
+     * Passes the entries to the visitor in order, starting at a position of a block, until the visitor returns
+     * false or the entries are exhausted.
+     *
+     * @param block    The block of the first entry.
+     * @param position The position of the first entry in the block.
+     * @param visitor  The visitor of the entries.
+     */
+    protected final void visit(int block, int position, SlotVisitor<B> visitor) {
+        for (; block < blockCount; block++, position = 0) {
+            B entries = block(block);
+            for (int i = position; i < blockSizes[block]; i++) {
+                if (!visitor.visit(entries, i)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Passes the entries at the positions [from, to) of the set to the visitor, in order.
+     *
+     * @param from    The position of the first entry.
+     * @param to      The position after the last entry.
+     * @param visitor The visitor of the entries, whose result is ignored.
+     */
+    protected final void visitRange(int from, int to, SlotVisitor<B> visitor) {
+        int block = 0;
+        int position = from;
+        while (block < blockCount && position >= blockSizes[block]) {
+            position -= blockSizes[block++];
+        }
+
+        for (int remaining = to - from; remaining > 0 && block < blockCount; block++, position = 0) {
+            B entries = block(block);
+            int end = Math.min(blockSizes[block], position + remaining);
+            for (int i = position; i < end; i++) {
+                visitor.visit(entries, i);
+            }
+            remaining -= end - position;
+        }
+    }
+
+    /**
+     * Helper method which splits a full block into two halves.
+     */
+    private void split(int block) {
+        if (blockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, blockCount * 2);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+        }
+        System.arraycopy(blocks, block + 1, blocks, block + 2, blockCount - block - 1);
+        System.arraycopy(blockSizes, block + 1, blockSizes, block + 2, blockCount - block - 1);
+
+        B lower = block(block);
+        B upper = newBlock();
+        copy(lower, BLOCK_SIZE / 2, upper, 0, BLOCK_SIZE / 2);
+        clear(lower, BLOCK_SIZE / 2, BLOCK_SIZE);
+        blocks[block + 1] = upper;
+        blockSizes[block + 1] = BLOCK_SIZE / 2;
+        blockSizes[block] = BLOCK_SIZE / 2;
+        blockCount++;
+    }
+
+    /**
+     * Copies loaded entries to a new block.
+     *
+     * @param <B> The type of a block.
+     */
+    @FunctionalInterface
+    protected interface BlockLoader<B> {
+        void load(B block, int from, int length);
+    }
+
+    /**
+     * Visitor of the entries of a set, given as a block and a position in it.
+     *
+     * @param <B> The type of a block.
+     */
+    @FunctionalInterface
+    protected interface SlotVisitor<B> {
+        /**
+         * Visits an entry.
+         *
+         * @param block    The block of the entry.
+         * @param position The position of the entry in the block.
+         * @return false to stop the visit.
+         */
+        boolean visit(B block, int position);
+    }
+}
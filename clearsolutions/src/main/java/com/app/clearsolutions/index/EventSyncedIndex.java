@@ -0,0 +1,133 @@
+package com.app.clearsolutions.index;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.exception.SnapshotLoadingException;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Base class of the in-memory indexes loaded once from a database snapshot and then kept in sync by the user
+ * change events. Events received before the load has completed are queued and replayed on the loaded content,
+ * so subclasses must apply them idempotently: replaying an event already reflected by the snapshot must not
+ * change the index. Subclasses read their content under the read lock after checkLoaded(); events are applied
+ * and the content is replaced under the write lock.
+ */
+public abstract class EventSyncedIndex {
+    protected final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Object> pendingEvents = new ArrayList<>();
+    private final String loadingMessage;
+    private boolean loaded;
+
+    /**
+     * Creates an index which is not loaded yet.
+     *
+     * @param loadingMessage The message of the exception thrown by queries made before the load has completed.
+     */
+    protected EventSyncedIndex(String loadingMessage) {
+        this.loadingMessage = loadingMessage;
+    }
+
+    /**
+     * Tells whether the index has been loaded and answers queries.
+     *
+     * @return true if the index is loaded.
+     */
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return loaded;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the index in sync with a created, updated or deleted user.
+     *
+     * @param event The user change event.
+     */
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        applyOrDefer(event);
+    }
+
+    /**
+     * Keeps the index in sync with users deactivated in bulk.
+     *
+     * @param event The users deactivation event.
+     */
+    @EventListener
+    public void onUsersDeactivated(UsersDeactivatedEvent event) {
+        if (event.getCount() > 0) {
+            applyOrDefer(event);
+        }
+    }
+
+    /**
+     * Replaces the index content with a loaded snapshot, then replays the events received in the meantime.
+     *
+     * @param replacement Sets the fields of the subclass to the loaded content; run under the write lock.
+     */
+    protected void replaceContent(Runnable replacement) {
+        lock.writeLock().lock();
+        try {
+            replacement.run();
+            pendingEvents.forEach(this::dispatch);
+            pendingEvents.clear();
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Checks that the index has been loaded; called under the read lock.
+     *
+     * @throws SnapshotLoadingException If the index is still being loaded.
+     */
+    protected void checkLoaded() {
+        if (!loaded) {
+            throw new SnapshotLoadingException(loadingMessage);
+        }
+    }
+
+    /**
+     * Applies a user change event to the index content; called under the write lock.
+     *
+     * @param event The user change event.
+     */
+    protected abstract void apply(UserChangedEvent event);
+
+    /**
+     * Applies a users deactivation event to the index content; called under the write lock.
+     *
+     * @param event The users deactivation event.
+     */
+    protected abstract void apply(UsersDeactivatedEvent event);
+
+    private void applyOrDefer(Object event) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                dispatch(event);
+            } else {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void dispatch(Object event) {
+        if (event instanceof UserChangedEvent changed) {
+            apply(changed);
+        } else if (event instanceof UsersDeactivatedEvent deactivated) {
+            apply(deactivated);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.app.clearsolutions.index;
+
+/**
+ * Hash map from long keys to int values stored in primitive arrays (open addressing, linear probing),
+ * so the in-memory indexes can map millions of user ids without boxing: about 26 bytes per key at the
+ * maximum load factor of 1/2. Not thread-safe: the indexes guard it with their lock.
+ */
+public final class LongIntHashMap {
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    /**
+     * Creates a map sized for the given number of keys.
+     *
+     * @param expectedSize The number of keys the map should hold without growing.
+     */
+    public LongIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key          The key.
+     * @param defaultValue The value returned if the map does not contain the key.
+     * @return The value of the key, or defaultValue.
+     */
+    public int getOrDefault(long key, int defaultValue) {
+        int slot = slotOf(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return used[slotOf(key)];
+    }
+
+    /**
+     * Sets the value of a key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    public void put(long key, int value) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            if (2 * (size + 1) > keys.length) {
+                rehash(keys.length * 2);
+                slot = slotOf(key);
+            }
+            keys[slot] = key;
+            used[slot] = true;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes a key. The following keys of its probe sequence are shifted back, so lookups never need
+     * tombstones.
+     *
+     * @param key The key.
+     * @return false if the map does not contain the key.
+     */
+    public boolean remove(long key) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            return false;
+        }
+
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int next = (free + 1) & mask; used[next]; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            // The key at 'next' may fill the free slot if its home slot is not between the free slot and it
+            if ((next - home & mask) >= (next - free & mask)) {
+                keys[free] = keys[next];
+                values[free] = values[next];
+                free = next;
+            }
+        }
+        used[free] = false;
+        size--;
+        return true;
+    }
+
+    /**
+     * Passes every key and its value to the consumer, in no particular order. The consumer must not
+     * change the map.
+     *
+     * @param consumer The consumer of the entries.
+     */
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (used[slot]) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Consumer of the entries of the map.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, int value);
+    }
+
+    /**
+     * Helper method which finds the slot of a key, or the free slot ending its probe sequence.
+     */
+    private int slotOf(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+
+        allocate(capacity);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldUsed[slot]) {
+                int newSlot = slotOf(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+                used[newSlot] = true;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Helper method which spreads the bits of a key (ids are sequential, a plain mask would cluster them).
+     */
+    private static int hash(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ mixed >>> 32);
+    }
+}
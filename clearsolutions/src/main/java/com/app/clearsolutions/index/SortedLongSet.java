@@ -0,0 +1,131 @@
+package com.app.clearsolutions.index;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Sorted set of longs with positional access, stored in blocks of at most BLOCK_SIZE sorted keys
+ * (see BlockSortedSet). Not thread-safe: the in-memory repository and indexes guard it with their lock.
+ */
+public final class SortedLongSet extends BlockSortedSet<long[]> {
+    /**
+     * Creates a set of the given keys.
+     *
+     * @param sortedKeys The keys, sorted and distinct.
+     * @param count      The number of keys to take from the array.
+     * @return The set.
+     */
+    public static SortedLongSet of(long[] sortedKeys, int count) {
+        SortedLongSet set = new SortedLongSet();
+        set.load(count, (block, from, length) -> System.arraycopy(sortedKeys, from, block, 0, length));
+        return set;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param key The key.
+     * @return false if the set already contains it.
+     */
+    public boolean add(long key) {
+        int block = blockOf(key);
+        int position = Arrays.binarySearch(block(block), 0, blockSize(block), key);
+        if (position >= 0) {
+            return false;
+        }
+
+        long slot = openSlot(block, -position - 1);
+        block(slotBlock(slot))[slotPosition(slot)] = key;
+        return true;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key.
+     * @return false if the set does not contain it.
+     */
+    public boolean remove(long key) {
+        int block = blockOf(key);
+        int position = Arrays.binarySearch(block(block), 0, blockSize(block), key);
+        if (position < 0) {
+            return false;
+        }
+
+        removeAt(block, position);
+        return true;
+    }
+
+    /**
+     * Returns the smallest key.
+     *
+     * @return The first key of the set, which must not be empty.
+     */
+    public long first() {
+        return block(0)[0];
+    }
+
+    /**
+     * Returns the largest key.
+     *
+     * @return The last key of the set, which must not be empty.
+     */
+    public long last() {
+        int block = blockCount() - 1;
+        return block(block)[blockSize(block) - 1];
+    }
+
+    /**
+     * Returns the number of keys less than the given key, which is the position of the key if the set contains it.
+     *
+     * @param key The key.
+     * @return The rank of the key.
+     */
+    public int rank(long key) {
+        int block = blockOf(key);
+        int position = Arrays.binarySearch(block(block), 0, blockSize(block), key);
+        return positionOf(block, position >= 0 ? position : -position - 1);
+    }
+
+    /**
+     * Passes the keys at the positions [from, to) to the consumer, in order.
+     *
+     * @param from     The position of the first key.
+     * @param to       The position after the last key.
+     * @param consumer The consumer of the keys.
+     */
+    public void forEach(int from, int to, LongConsumer consumer) {
+        visitRange(from, to, (block, position) -> {
+            consumer.accept(block[position]);
+            return true;
+        });
+    }
+
+    @Override
+    protected long[] newBlock() {
+        return new long[BLOCK_SIZE];
+    }
+
+    @Override
+    protected void copy(long[] source, int sourcePosition, long[] target, int targetPosition, int length) {
+        System.arraycopy(source, sourcePosition, target, targetPosition, length);
+    }
+
+    /**
+     * Helper method which finds the block the key belongs to: the last block whose first key is not greater
+     * than the key, or the first block.
+     */
+    private int blockOf(long key) {
+        int low = 1;
+        int high = blockCount() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (block(middle)[0] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low - 1;
+    }
+}
@@ -0,0 +1,121 @@
+package com.app.clearsolutions.json;
+
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * JSON serializer of UserDTO registered with the ObjectMapper of the application, so it is used for the
+ * user pages, single users and the NDJSON export. The fields are written straight to the generator in
+ * declaration order with pre-encoded names, instead of going through the bean serializer (a getter call
+ * and a property writer per field) and the java.time serializer (a formatted String per birth date).
+ * The output is the same as the default serialization.
+ */
+@JsonComponent
+public class UserDTOSerializer extends StdSerializer<UserDTO> {
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString EMAIL = new SerializedString("email");
+    private static final SerializedString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializedString LAST_NAME = new SerializedString("lastName");
+    private static final SerializedString BIRTH_DATE = new SerializedString("birthDate");
+    private static final SerializedString ADDRESS = new SerializedString("address");
+    private static final SerializedString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final int ISO_DATE_LENGTH = 10;
+
+    public UserDTOSerializer() {
+        super(UserDTO.class);
+    }
+
+    /**
+     * Writes the user as a JSON object.
+     *
+     * @param userDTO   The user to write.
+     * @param generator The generator of the response.
+     * @param provider  The serializer provider of the ObjectMapper.
+     * @throws IOException If writing to the generator fails.
+     */
+    @Override
+    public void serialize(UserDTO userDTO, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(userDTO);
+        generator.writeFieldName(ID);
+        generator.writeNumber(userDTO.getId());
+        writeString(generator, EMAIL, userDTO.getEmail());
+        writeString(generator, FIRST_NAME, userDTO.getFirstName());
+        writeString(generator, LAST_NAME, userDTO.getLastName());
+        generator.writeFieldName(BIRTH_DATE);
+        writeDate(generator, provider, userDTO.getBirthDate());
+        writeString(generator, ADDRESS, userDTO.getAddress());
+        writeString(generator, PHONE_NUMBER, userDTO.getPhoneNumber());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Helper method which writes a string field, null values included.
+     *
+     * @param generator The generator of the response.
+     * @param name      The pre-encoded field name.
+     * @param value     The value of the field, or null.
+     * @throws IOException If writing to the generator fails.
+     */
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    /**
+     * Helper method which writes a date as an ISO-8601 string (yyyy-MM-dd) from a char buffer.
+     * Dates outside of years 0-9999 and dates written as timestamps (WRITE_DATES_AS_TIMESTAMPS)
+     * are left to the java.time serializer.
+     *
+     * @param generator The generator of the response.
+     * @param provider  The serializer provider of the ObjectMapper.
+     * @param date      The date, or null.
+     * @throws IOException If writing to the generator fails.
+     */
+    private static void writeDate(JsonGenerator generator, SerializerProvider provider, LocalDate date)
+            throws IOException {
+        if (date == null) {
+            generator.writeNull();
+            return;
+        }
+        int year = date.getYear();
+        if (year < 0 || year > 9999 || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+            provider.defaultSerializeValue(date, generator);
+            return;
+        }
+
+        char[] chars = new char[ISO_DATE_LENGTH];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, date.getMonthValue(), 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, date.getDayOfMonth(), 2);
+        generator.writeString(chars, 0, ISO_DATE_LENGTH);
+    }
+
+    /**
+     * Helper method which writes a non-negative number as a fixed number of zero-padded decimal digits.
+     *
+     * @param chars  The buffer.
+     * @param offset The position of the first digit.
+     * @param value  The number.
+     * @param digits The number of digits.
+     */
+    private static void writeDigits(char[] chars, int offset, int value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.app.clearsolutions.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Configuration of the persistence metrics which Spring Boot does not provide: SQL statements per request
+ * and rows returned per repository query method. Query timing, Hikari pool and Hibernate statistics
+ * metrics are auto-configured (see the management.* and hibernate.generate_statistics properties).
+ */
+@Configuration
+public class PersistenceMetricsConfig {
+    /**
+     * Pointcut used when repository-metrics.pointcut is not set: the query methods of the user repository.
+     */
+    public static final String DEFAULT_POINTCUT = "target(com.app.clearsolutions.repository.UserRepository) && " +
+            "!execution(* save*(..)) && !execution(* delete*(..))";
+
+    /**
+     * Creates the statement inspector counting the statements of the requests.
+     *
+     * @return The statement inspector.
+     */
+    @Bean
+    public StatementCountingInspector statementCountingInspector() {
+        return new StatementCountingInspector();
+    }
+
+    /**
+     * Registers the statement inspector in Hibernate.
+     *
+     * @param inspector The statement inspector.
+     * @return The Hibernate properties customizer.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer statementInspectorCustomizer(StatementCountingInspector inspector) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+    }
+
+    /**
+     * Registers the filter recording the statements per request before the other filters.
+     *
+     * @param inspector The statement inspector.
+     * @param registry  Provider of the meter registry.
+     * @return The filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<StatementsPerRequestFilter> statementsPerRequestFilter(
+            StatementCountingInspector inspector, ObjectProvider<MeterRegistry> registry) {
+        FilterRegistrationBean<StatementsPerRequestFilter> registration =
+                new FilterRegistrationBean<>(new StatementsPerRequestFilter(inspector, registry::getObject));
+
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Creates the advisor recording the rows returned by the repository query methods.
+     *
+     * @param registry Provider of the meter registry.
+     * @param pointcut AspectJ pointcut expression selecting the repository query methods (writes excluded).
+     * @return The advisor.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor repositoryRowsAdvisor(ObjectProvider<MeterRegistry> registry,
+                                                @Value("${repository-metrics.pointcut:" + DEFAULT_POINTCUT + "}")
+                                                String pointcut) {
+        AspectJExpressionPointcutAdvisor advisor = new AspectJExpressionPointcutAdvisor();
+
+        advisor.setExpression(pointcut);
+        advisor.setAdvice(new RepositoryRowsInterceptor(registry::getObject));
+        return advisor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.clearsolutions.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+import java.util.function.Supplier;
+
+/**
+ * Method interceptor recording the number of rows returned by repository query methods as the
+ * "repository.rows" distribution summary, tagged with the repository and method names. Collections
+ * and pages count their elements, Optional and single entities count 0 or 1. Streams (consumed later),
+ * counts and modifying queries are not recorded. Query timing is recorded by Spring Data
+ * ("spring.data.repository.invocations").
+ */
+public class RepositoryRowsInterceptor implements MethodInterceptor {
+    public static final String METRIC_NAME = "repository.rows";
+
+    private final Supplier<MeterRegistry> registry;
+    private final Map<Method, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public RepositoryRowsInterceptor(Supplier<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Invokes the repository method and records the number of rows of its result.
+     *
+     * @param invocation The intercepted method invocation.
+     * @return The object returned by the repository method.
+     * @throws Throwable If the repository method throws an exception.
+     */
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        int rows = rows(result, invocation.getMethod().getReturnType());
+
+        if (rows >= 0) {
+            Method method = invocation.getMethod();
+            DistributionSummary summary = summaries.get(method);
+            if (summary == null) {
+                summary = summaries.computeIfAbsent(method, key -> summary(key, invocation.getThis()));
+            }
+            summary.record(rows);
+        }
+        return result;
+    }
+
+    /**
+     * Helper method which counts the rows of a repository method result.
+     *
+     * @param result     The result.
+     * @param returnType The declared return type of the repository method.
+     * @return The number of rows, -1 if the result is not a list of rows.
+     */
+    static int rows(Object result, Class<?> returnType) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (returnType.isPrimitive() || Number.class.isAssignableFrom(returnType)
+                || Boolean.class == returnType || BaseStream.class.isAssignableFrom(returnType)) {
+            return -1;
+        }
+        return result == null ? 0 : 1;
+    }
+
+    /**
+     * Helper method which registers the distribution summary of a repository method.
+     *
+     * The repository is named after the repository interface rather than the interface declaring the method
+     * (e.g. CrudRepository for findById).
+     *
+     * @param method     The repository method.
+     * @param repository The repository (proxy) the method was invoked on.
+     * @return The distribution summary.
+     */
+    private DistributionSummary summary(Method method, Object repository) {
+        Class<?>[] interfaces = repository == null ? new Class<?>[0] : AopProxyUtils.proxiedUserInterfaces(repository);
+        Class<?> type = interfaces.length > 0 ? interfaces[0] : method.getDeclaringClass();
+
+        return DistributionSummary.builder(METRIC_NAME)
+                .description("Number of rows returned by a repository query method")
+                .baseUnit("rows")
+                .tag("repository", type.getSimpleName())
+                .tag("method", method.getName())
+                .register(registry.get());
+    }
+}
@@ -0,0 +1,46 @@
+package com.app.clearsolutions.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hibernate statement inspector counting the SQL statements prepared by the current thread
+ * between start() and stop(). The statements are returned unchanged.
+ */
+public class StatementCountingInspector implements StatementInspector {
+    private final ThreadLocal<AtomicInteger> counter = new ThreadLocal<>();
+
+    /**
+     * Counts the statement if counting was started on the current thread.
+     *
+     * @param sql The SQL statement.
+     * @return The same SQL statement.
+     */
+    @Override
+    public String inspect(String sql) {
+        AtomicInteger count = counter.get();
+        if (count != null) {
+            count.incrementAndGet();
+        }
+        return sql;
+    }
+
+    /**
+     * Starts counting the statements of the current thread from zero.
+     */
+    public void start() {
+        counter.set(new AtomicInteger());
+    }
+
+    /**
+     * Stops counting the statements of the current thread.
+     *
+     * @return The number of statements since start(), 0 if counting was not started.
+     */
+    public int stop() {
+        AtomicInteger count = counter.get();
+        counter.remove();
+        return count == null ? 0 : count.get();
+    }
+}
@@ -0,0 +1,81 @@
+package com.app.clearsolutions.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Filter recording the number of SQL statements executed by every request as the
+ * "http.server.requests.statements" distribution summary, tagged with the HTTP method and the URI template
+ * (like http.server.requests). Statements executed after the request thread returned (streamed export
+ * bodies) are not counted. The summary of an HTTP method and URI template is registered once.
+ */
+public class StatementsPerRequestFilter extends OncePerRequestFilter {
+    public static final String METRIC_NAME = "http.server.requests.statements";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final StatementCountingInspector inspector;
+    private final Supplier<MeterRegistry> registry;
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public StatementsPerRequestFilter(StatementCountingInspector inspector, Supplier<MeterRegistry> registry) {
+        this.inspector = inspector;
+        this.registry = registry;
+    }
+
+    /**
+     * Counts the statements executed while the request is processed and records them.
+     *
+     * @param request     The request.
+     * @param response    The response.
+     * @param filterChain The filter chain.
+     * @throws ServletException If the request processing fails.
+     * @throws IOException      If an I/O error occurs.
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        inspector.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = inspector.stop();
+            Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            summary(request.getMethod(), uri == null ? UNKNOWN_URI : uri.toString()).record(statements);
+        }
+    }
+
+    /**
+     * Helper method which returns the summary of an HTTP method and URI template, registered once.
+     *
+     * @param method The HTTP method.
+     * @param uri    The URI template, or "UNKNOWN".
+     * @return The summary.
+     */
+    private DistributionSummary summary(String method, String uri) {
+        Map<String, DistributionSummary> byUri = summaries.get(method);
+        if (byUri == null) {
+            byUri = summaries.computeIfAbsent(method, key -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary summary = byUri.get(uri);
+        if (summary == null) {
+            summary = byUri.computeIfAbsent(uri, key -> DistributionSummary.builder(METRIC_NAME)
+                    .description("Number of SQL statements executed by a request")
+                    .baseUnit("statements")
+                    .tag("method", method)
+                    .tag("uri", key)
+                    .register(registry.get()));
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,80 @@
+package com.app.clearsolutions.model;
+
+/**
+ * Entity tags (ETag headers) of the user resources and evaluation of the conditional request headers.
+ * The tag of a user is its version (strong, e.g. "3"); list tags are opaque.
+ */
+public final class EntityTag {
+    // version of an If-Match tag which is not a strong version tag: no user version matches it
+    public static final long NO_VERSION = -1;
+
+    private EntityTag() {
+    }
+
+    /**
+     * Returns the strong entity tag of a user version.
+     *
+     * @param version The version of the user.
+     * @return The quoted entity tag.
+     */
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Checks an If-None-Match header against the current entity tag (weak comparison).
+     *
+     * @param ifNoneMatch The If-None-Match header, or null.
+     * @param etag        The current entity tag.
+     * @return true if the client has the current representation (the response is 304 Not Modified).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(stripWeakPrefix(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the user version required by an If-Match header (strong comparison).
+     *
+     * @param ifMatch The If-Match header, or null.
+     * @return null if there is no precondition on the version (no header or "*"), the required version,
+     * or NO_VERSION if the tag is weak or not a version tag.
+     * @throws IllegalArgumentException If the header lists several entity tags.
+     */
+    public static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+
+        if (tag.contains(",")) {
+            throw new IllegalArgumentException("If-Match must contain a single entity tag.");
+        }
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return NO_VERSION;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return NO_VERSION;
+        }
+    }
+
+    /**
+     * Helper method which strips the weakness indicator of an entity tag.
+     *
+     * @param tag The entity tag.
+     * @return The entity tag without the W/ prefix.
+     */
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
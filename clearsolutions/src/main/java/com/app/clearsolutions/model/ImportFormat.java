@@ -0,0 +1,36 @@
+package com.app.clearsolutions.model;
+
+import org.springframework.http.MediaType;
+
+/**
+ * File formats supported by the user import.
+ * CSV - text/csv, a header line naming the columns followed by one user per line,
+ * NDJSON - application/x-ndjson, one JSON user per line.
+ */
+public enum ImportFormat {
+    CSV(new MediaType("text", "csv")), NDJSON(MediaType.APPLICATION_NDJSON);
+
+    private final MediaType mediaType;
+
+    ImportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Resolves an import format from the media type of the request body (parameters such as the charset
+     * are ignored).
+     *
+     * @param mediaType The media type of the request body.
+     * @return The import format.
+     * @throws IllegalArgumentException If the media type is not supported.
+     */
+    public static ImportFormat fromMediaType(MediaType mediaType) {
+        for (ImportFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported import format. Supported content types: " +
+                "'text/csv', 'application/x-ndjson'.");
+    }
+}
@@ -0,0 +1,28 @@
+package com.app.clearsolutions.model;
+
+import java.util.Locale;
+
+/**
+ * Pagination modes supported by the user listing.
+ * PAGE - page with total number of items and pages (data query plus a count query),
+ * SLICE - page with a 'hasNext' flag only (data query for size + 1 rows, no count query),
+ * CACHED - page with totals taken from the cached count of the filter (data query only on cache hits).
+ */
+public enum PagingMode {
+    PAGE, SLICE, CACHED;
+
+    /**
+     * Resolves a paging mode from a request parameter value (case-insensitive).
+     *
+     * @param value The request parameter value.
+     * @return The paging mode.
+     * @throws IllegalArgumentException If the value does not name a paging mode.
+     */
+    public static PagingMode fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Unknown paging mode. Supported modes: 'page', 'slice', 'cached'.");
+        }
+    }
+}
@@ -5,22 +5,33 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Past;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 
 /**
  * Entity class representing a user.
+ * Ids come from the pooled 'users_seq' generator (a table on MySQL), so Hibernate can batch inserts;
+ * its allocation size should match hibernate.jdbc.batch_size.
+ * Updates of managed users are dynamic: only the changed columns are written.
+ * The version is incremented by every write (optimistic locking of managed users, explicitly by the
+ * bulk UPDATE statements) and is the entity tag of the user resource.
  */
 @Data
 @NoArgsConstructor
 @RequiredArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_active_birth_date", columnList = "is_active, birth_date, id"),
+        @Index(name = "idx_users_active_id", columnList = "is_active, id")
+})
 public class User {
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "email", unique = true)
@@ -50,6 +61,10 @@ public class User {
     @Column(name = "is_active")
     private boolean isActive = true;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     /**
      * Creates a User object from a UserDTO object.
      *
@@ -59,7 +74,7 @@ public class User {
     public static User getUserFromDTO(UserDTO userDTO) {
         return new User(userDTO.getId(), userDTO.getEmail(), userDTO.getFirstName(),
                 userDTO.getLastName(), userDTO.getBirthDate(), userDTO.getAddress(),
-                userDTO.getPhoneNumber(), true);
+                userDTO.getPhoneNumber(), true, 0);
     }
 
     public boolean getIsActive() {
@@ -0,0 +1,20 @@
+package com.app.clearsolutions.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the number of active users whose age is between 'fromAge'
+ * and 'toAge' (inclusive); 'toAge' is not set for the last, open-ended bucket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AgeBucketDTO {
+    private int fromAge;
+    private Integer toAge;
+    private long count;
+}
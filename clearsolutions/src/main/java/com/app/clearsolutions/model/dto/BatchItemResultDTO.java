@@ -0,0 +1,44 @@
+package com.app.clearsolutions.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of one item of a batch operation.
+ * 'index' is the position of the item in the request, 'status' is the HTTP status the item would
+ * have got as a single request; 'id' is set for created users, 'message' for failed items.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+    private int index;
+    private Long id;
+    private int status;
+    private String message;
+
+    /**
+     * Constructs the result of a created item.
+     *
+     * @param index The position of the item in the batch.
+     * @param id    The ID of the created user.
+     * @return The result of the item.
+     */
+    public static BatchItemResultDTO created(int index, long id) {
+        return new BatchItemResultDTO(index, id, 201, null);
+    }
+
+    /**
+     * Constructs the result of a rejected item.
+     *
+     * @param index   The position of the item in the batch.
+     * @param message The reason of the failure.
+     * @return The result of the item.
+     */
+    public static BatchItemResultDTO failed(int index, String message) {
+        return new BatchItemResultDTO(index, null, 400, message);
+    }
+}
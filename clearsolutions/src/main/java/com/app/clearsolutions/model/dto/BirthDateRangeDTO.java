@@ -5,14 +5,20 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
 /**
  * Data Transfer Object (DTO) representing a range of birth dates.
+ * 'from' and 'to' alone are exclusive, together they are inclusive; a null date leaves that side open.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class BirthDateRangeDTO {
+    // bounds of the MySQL DATE type, used when one side of the range is open
+    public static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1000, 1, 1);
+    public static final LocalDate MAX_BIRTH_DATE = LocalDate.of(9999, 12, 31);
+
     private LocalDate from;
     private LocalDate to;
 
@@ -30,4 +36,45 @@ public class BirthDateRangeDTO {
             this.to = LocalDate.parse(to);
         }
     }
+
+    /**
+     * Parses the birth date range request parameters and checks their chronology.
+     *
+     * @param from The start date as a string, or an empty string.
+     * @param to   The end date as a string, or an empty string.
+     * @return The birth date range DTO.
+     * @throws IllegalArgumentException If a date has a wrong format or 'from' is after 'to'.
+     */
+    public static BirthDateRangeDTO parse(String from, String to) {
+        BirthDateRangeDTO birthDateRangeDTO;
+
+        try {
+            birthDateRangeDTO = new BirthDateRangeDTO(from, to);
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Wrong date format. Example of correct format: '2000-01-01'");
+        }
+        if (birthDateRangeDTO.getFrom() != null && birthDateRangeDTO.getTo() != null &&
+                birthDateRangeDTO.getFrom().isAfter(birthDateRangeDTO.getTo())) {
+            throw new IllegalArgumentException("Chronology failure. 'From' should be earlier than 'to'!");
+        }
+        return birthDateRangeDTO;
+    }
+
+    /**
+     * Returns the first birth date included in the range.
+     *
+     * @return The inclusive lower bound of the range.
+     */
+    public LocalDate lowerBound() {
+        return from == null ? MIN_BIRTH_DATE : to == null ? from.plusDays(1) : from;
+    }
+
+    /**
+     * Returns the last birth date included in the range.
+     *
+     * @return The inclusive upper bound of the range.
+     */
+    public LocalDate upperBound() {
+        return to == null ? MAX_BIRTH_DATE : from == null ? to.minusDays(1) : to;
+    }
 }
@@ -0,0 +1,16 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the number of active users born in a year.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BirthYearCountDTO {
+    private int year;
+    private long count;
+}
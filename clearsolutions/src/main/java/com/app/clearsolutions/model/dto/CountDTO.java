@@ -0,0 +1,15 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the number of active users matching an analytics query.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountDTO {
+    private long count;
+}
@@ -0,0 +1,58 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Data Transfer Object (DTO) representing the position of a cursor (keyset) page: the sort key of the
+ * last returned user. The birth date is part of the key only for birth date range queries.
+ * Clients receive it as an opaque URL-safe string.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorDTO {
+    private LocalDate birthDate;
+    private long id;
+
+    /**
+     * Encodes the cursor into an opaque string.
+     *
+     * @return URL-safe representation of the cursor.
+     */
+    public String encode() {
+        String key = birthDate == null ? "i" + id : "d" + birthDate.toEpochDay() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param cursor The opaque cursor string.
+     * @return A CursorDTO object.
+     * @throws IllegalArgumentException If the cursor is malformed.
+     */
+    public static CursorDTO decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+
+            if (key.startsWith("i")) {
+                return new CursorDTO(null, Long.parseLong(key.substring(1)));
+            }
+            int separator = key.indexOf(':');
+            if (key.startsWith("d") && separator > 0) {
+                return new CursorDTO(LocalDate.ofEpochDay(Long.parseLong(key.substring(1, separator))),
+                        Long.parseLong(key.substring(separator + 1)));
+            }
+        } catch (IllegalArgumentException | DateTimeException exception) {
+            // fall through to the common error below
+        }
+        throw new IllegalArgumentException("Invalid cursor.");
+    }
+}
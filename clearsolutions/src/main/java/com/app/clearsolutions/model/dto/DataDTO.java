@@ -4,34 +4,32 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * Data Transfer Object (DTO) representing data along with pagination information.
  * This DTO facilitates constructing responses with data and pagination information.
+ * The data list is wrapped, not copied, so a page of results is passed to the serializer as returned by the query.
+ *
+ * @param <T> The type of the data objects.
  */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class DataDTO {
-    private List<Object> data;
+public class DataDTO<T> {
+    private List<T> data = Collections.emptyList();
     private Pagination pagination;
 
-    {
-        data = new ArrayList<>();
-    }
-
     /**
      * Constructs a DataDTO object with the provided pagination and data objects.
      *
      * @param pagination The pagination information.
      * @param objects    The data objects.
      */
-    public DataDTO(Pagination pagination, List<Object> objects) {
+    public DataDTO(Pagination pagination, List<T> objects) {
         this.pagination = pagination;
-        data.addAll(objects);
+        this.data = objects;
     }
 
     /**
@@ -39,7 +37,7 @@ public class DataDTO {
      *
      * @param object The data object.
      */
-    public DataDTO(Object object) {
-        data.add(object);
+    public DataDTO(T object) {
+        this.data = Collections.singletonList(object);
     }
 }
@@ -0,0 +1,20 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) selecting the users to deactivate in bulk: either a list of ids,
+ * or a birth date range ('from'/'to' as in the listing, at least one of them).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeactivationDTO {
+    private List<Long> ids;
+    private String from;
+    private String to;
+}
@@ -0,0 +1,16 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing the result of a bulk deactivation: the number of users
+ * that were active and have been deactivated.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeactivationResultDTO {
+    private int deactivated;
+}
@@ -0,0 +1,16 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing a rejected line of an imported file.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    private long line;
+    private String message;
+}
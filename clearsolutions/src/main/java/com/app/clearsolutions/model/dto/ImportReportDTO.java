@@ -0,0 +1,36 @@
+package com.app.clearsolutions.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing the outcome of a user import.
+ * 'lastCommittedLine' is the last line of the file whose outcome is final (created or rejected);
+ * an interrupted import is resumed by sending the file again with resumeAfterLine set to it.
+ * 'rejected' counts all rejected lines, 'errors' lists the first of them.
+ * 'failure' is set if the import was interrupted.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportReportDTO {
+    private long created;
+    private long rejected;
+    private long lastCommittedLine;
+    private boolean completed;
+    private String failure;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * Constructs an ImportReportDTO object for an import starting after the given line.
+     *
+     * @param resumeAfterLine The last line of the file that is skipped.
+     */
+    public ImportReportDTO(long resumeAfterLine) {
+        this.lastCommittedLine = resumeAfterLine;
+    }
+}
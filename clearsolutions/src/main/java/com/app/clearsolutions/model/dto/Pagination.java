@@ -1,17 +1,52 @@
 package com.app.clearsolutions.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 /**
  * Data class representing pagination information.
- * This class encapsulates the total number of items and the total number of pages for pagination purposes.
+ * This class encapsulates the total number of items and the total number of pages for pagination purposes,
+ * whether there is a next page (slice pagination), or the cursor of the next page (cursor pagination).
+ * Unknown values are not serialized.
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class Pagination {
-    private long numberOFItems;
-    private int numberOfPages;
+    private Long numberOFItems;
+    private Integer numberOfPages;
+    private Boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * Constructs a Pagination object for page-number based pagination.
+     *
+     * @param numberOFItems The total number of items.
+     * @param numberOfPages The total number of pages.
+     */
+    public Pagination(long numberOFItems, int numberOfPages) {
+        this.numberOFItems = numberOFItems;
+        this.numberOfPages = numberOfPages;
+    }
+
+    /**
+     * Constructs a Pagination object for slice pagination, when the totals are unknown.
+     *
+     * @param hasNext Whether there is a next page.
+     */
+    public Pagination(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    /**
+     * Constructs a Pagination object for cursor pagination.
+     *
+     * @param nextCursor The cursor of the next page, or null if this is the last page.
+     */
+    public Pagination(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
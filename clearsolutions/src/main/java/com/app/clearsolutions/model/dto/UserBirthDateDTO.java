@@ -0,0 +1,19 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) representing the id and birth date of an active user
+ * (a row of the analytics snapshot).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBirthDateDTO {
+    private long id;
+    private LocalDate birthDate;
+}
@@ -0,0 +1,22 @@
+package com.app.clearsolutions.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object (DTO) representing the searchable fields of an active user
+ * (a row of the search index load).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchDTO {
+    private long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private LocalDate birthDate;
+}
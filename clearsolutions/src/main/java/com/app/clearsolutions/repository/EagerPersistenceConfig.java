@@ -0,0 +1,28 @@
+package com.app.clearsolutions.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuration of the beans created at startup even with lazy initialization (spring.main.lazy-initialization,
+ * enabled by the 'fast-startup' profile): the connection pool, the Hibernate metamodel and the user repository
+ * (parsing of its queries), which every endpoint needs and which would otherwise make the first request take
+ * seconds. The other beans are created when first used.
+ */
+@Configuration
+public class EagerPersistenceConfig {
+    /**
+     * Creates the filter excluding the persistence beans from lazy initialization.
+     *
+     * @return The filter.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerPersistenceBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+                UserRepository.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.app.clearsolutions.repository;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Configuration of the 'in-memory' profile, where the users are stored by InMemoryUserRepository instead of
+ * the database (the data source and JPA auto-configurations are excluded in application-in-memory.properties).
+ * Every call of the in-memory repository is atomic on its own, so the transactions of the services only
+ * demarcate their callbacks: nothing is rolled back, and the only work of a commit is done by the repository's
+ * transaction synchronization, which writes back the changes of the users it returned in the transaction.
+ */
+@Configuration
+@Profile("in-memory")
+public class InMemoryRepositoryConfig {
+    /**
+     * Creates the transaction manager of the transaction templates of the services.
+     *
+     * @return A transaction manager without a transactional resource.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager() {
+        return new AbstractPlatformTransactionManager() {
+            @Override
+            protected Object doGetTransaction() {
+                return new Object();
+            }
+
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+                // No resource to bind
+            }
+
+            @Override
+            protected void doCommit(DefaultTransactionStatus status) {
+                // Writes are applied by the repository calls, and before the commit by its synchronization
+            }
+
+            @Override
+            protected void doRollback(DefaultTransactionStatus status) {
+                // Writes of the previous repository calls are kept
+            }
+        };
+    }
+}
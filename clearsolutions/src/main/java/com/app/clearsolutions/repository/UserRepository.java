@@ -1,22 +1,187 @@
 package com.app.clearsolutions.repository;
 
 import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.stereotype.Repository;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for managing User entities in the database.
+ * Listing queries select UserDTO projections directly, so read-only pages are not hydrated into
+ * managed entities (no persistence context entries, no dirty-checking snapshots, no second mapping pass).
+ * They are served by the (is_active, birth_date, id) and (is_active, id) indexes declared on User.
+ * Only the methods the application uses are declared (the save methods are implemented by Spring Data's
+ * SimpleJpaRepository), so that InMemoryUserRepository implements the same interface without the rest of
+ * JpaRepository.
  */
-@Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+@RepositoryDefinition(domainClass = User.class, idClass = Long.class)
+public interface UserRepository {
+    String SELECT_USER_DTO = "SELECT new com.app.clearsolutions.model.dto.UserDTO(u.id, u.email, u.firstName, " +
+            "u.lastName, u.birthDate, u.address, u.phoneNumber) FROM User u ";
+    String COUNT_USERS = "SELECT COUNT(u) FROM User u ";
+    String ACTIVE = "WHERE u.isActive = true";
+    String ACTIVE_BIRTH_DATE_BETWEEN = "WHERE u.isActive = true AND u.birthDate BETWEEN :from AND :to";
+    String ACTIVE_BIRTH_DATE_BEFORE = "WHERE u.isActive = true AND u.birthDate < :to";
+    String ACTIVE_BIRTH_DATE_AFTER = "WHERE u.isActive = true AND u.birthDate > :from";
+    String EXPORT_FETCH_SIZE = "1000";
+    // writes of active users; every write increments the version (the entity tag of the user)
+    String UPDATE_ACTIVE_USER = "UPDATE User u SET u.email = :email, u.firstName = :firstName, " +
+            "u.lastName = :lastName, u.birthDate = :birthDate, u.address = :address, " +
+            "u.phoneNumber = :phoneNumber, u.version = u.version + 1 WHERE u.id = :id AND u.isActive = true";
+    String DEACTIVATE_USERS = "UPDATE User u SET u.isActive = false, u.version = u.version + 1 ";
+
+    <S extends User> S save(S user);
+
+    // inserts which report a violated constraint (duplicate email) at once rather than at commit
+    <S extends User> S saveAndFlush(S user);
+
+    <S extends User> List<S> saveAllAndFlush(Iterable<S> users);
+
+    // all users, active or deleted
+    List<User> findAll();
+
     User findUserById(Long id);
-    Page<User> findUsersByIsActiveIsTrue(Pageable pageable);
-    Page<User> findUsersByBirthDateBetweenAndIsActiveIsTrue(LocalDate from, LocalDate to, Pageable pageable);
-    Page<User> findUsersByBirthDateBeforeAndIsActiveIsTrue(LocalDate to, Pageable pageable);
-    Page<User> findUsersByBirthDateAfterAndIsActiveIsTrue(LocalDate from, Pageable pageable);
 
+    // existence check which does not load the user: true if active, false if deleted, null if there is no such user
+    @Query("SELECT u.isActive FROM User u WHERE u.id = :id")
+    Boolean findIsActiveById(@Param("id") long id);
+
+    // version of an active user (conditional GET), null if the user is deleted or does not exist
+    @Query("SELECT u.version FROM User u WHERE u.id = :id AND u.isActive = true")
+    Long findActiveUserVersion(@Param("id") long id);
+
+    // emails of the given ones already taken by active or deleted users (the unique constraint covers both)
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    boolean existsByEmail(String email);
+
+    // page of search results: active users among the given ids (primary key lookups), in no particular order
+    @Query(SELECT_USER_DTO + "WHERE u.id IN :ids AND u.isActive = true")
+    List<UserDTO> findActiveUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SELECT_USER_DTO + ACTIVE, countQuery = COUNT_USERS + ACTIVE)
+    Page<UserDTO> findUsersByIsActiveIsTrue(Pageable pageable);
+
+    @Query(value = SELECT_USER_DTO + ACTIVE_BIRTH_DATE_BETWEEN, countQuery = COUNT_USERS + ACTIVE_BIRTH_DATE_BETWEEN)
+    Page<UserDTO> findUsersByBirthDateBetweenAndIsActiveIsTrue(@Param("from") LocalDate from,
+                                                               @Param("to") LocalDate to, Pageable pageable);
+
+    @Query(value = SELECT_USER_DTO + ACTIVE_BIRTH_DATE_BEFORE, countQuery = COUNT_USERS + ACTIVE_BIRTH_DATE_BEFORE)
+    Page<UserDTO> findUsersByBirthDateBeforeAndIsActiveIsTrue(@Param("to") LocalDate to, Pageable pageable);
+
+    @Query(value = SELECT_USER_DTO + ACTIVE_BIRTH_DATE_AFTER, countQuery = COUNT_USERS + ACTIVE_BIRTH_DATE_AFTER)
+    Page<UserDTO> findUsersByBirthDateAfterAndIsActiveIsTrue(@Param("from") LocalDate from, Pageable pageable);
+
+    // slice queries: fetch one extra row to tell if there is a next page instead of running a count query
+    @Query(SELECT_USER_DTO + ACTIVE)
+    Slice<UserDTO> findSliceByIsActiveIsTrue(Pageable pageable);
+
+    @Query(SELECT_USER_DTO + ACTIVE_BIRTH_DATE_BETWEEN)
+    Slice<UserDTO> findSliceByBirthDateBetweenAndIsActiveIsTrue(@Param("from") LocalDate from,
+                                                                @Param("to") LocalDate to, Pageable pageable);
+
+    @Query(SELECT_USER_DTO + ACTIVE_BIRTH_DATE_BEFORE)
+    Slice<UserDTO> findSliceByBirthDateBeforeAndIsActiveIsTrue(@Param("to") LocalDate to, Pageable pageable);
+
+    @Query(SELECT_USER_DTO + ACTIVE_BIRTH_DATE_AFTER)
+    Slice<UserDTO> findSliceByBirthDateAfterAndIsActiveIsTrue(@Param("from") LocalDate from, Pageable pageable);
+
+    // full update (PUT) of an active user in a single statement, no previous read or merge
+    @Transactional
+    @Modifying
+    @Query(UPDATE_ACTIVE_USER)
+    int updateActiveUser(@Param("id") long id, @Param("email") String email, @Param("firstName") String firstName,
+                         @Param("lastName") String lastName, @Param("birthDate") LocalDate birthDate,
+                         @Param("address") String address, @Param("phoneNumber") String phoneNumber);
+
+    // conditional full update (If-Match): only if the user still has the given version
+    @Transactional
+    @Modifying
+    @Query(UPDATE_ACTIVE_USER + " AND u.version = :version")
+    int updateActiveUserWithVersion(@Param("id") long id, @Param("email") String email,
+                                    @Param("firstName") String firstName, @Param("lastName") String lastName,
+                                    @Param("birthDate") LocalDate birthDate, @Param("address") String address,
+                                    @Param("phoneNumber") String phoneNumber, @Param("version") long version);
+
+    // soft deletes: a single set-based UPDATE, the affected-row count is the number of active users deactivated
+    @Transactional
+    @Modifying
+    @Query(DEACTIVATE_USERS + "WHERE u.id = :id AND u.isActive = true")
+    int deactivateUserById(@Param("id") long id);
+
+    @Transactional
+    @Modifying
+    @Query(DEACTIVATE_USERS + "WHERE u.id = :id AND u.isActive = true AND u.version = :version")
+    int deactivateUserByIdWithVersion(@Param("id") long id, @Param("version") long version);
+
+    @Transactional
+    @Modifying
+    @Query(DEACTIVATE_USERS + "WHERE u.id IN :ids AND u.isActive = true")
+    int deactivateUsersByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query(DEACTIVATE_USERS + ACTIVE_BIRTH_DATE_BETWEEN)
+    int deactivateUsersByBirthDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    long countByIsActiveIsTrue();
+    long countByBirthDateBetweenAndIsActiveIsTrue(LocalDate from, LocalDate to);
+    long countByBirthDateBeforeAndIsActiveIsTrue(LocalDate to);
+    long countByBirthDateAfterAndIsActiveIsTrue(LocalDate from);
+
+    // keyset (seek) queries: only the page limit of the pageable is used, no rows are skipped and no count is run
+    @Query(SELECT_USER_DTO + "WHERE u.isActive = true AND u.id > :afterId ORDER BY u.id")
+    List<UserDTO> findActiveUsersAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(SELECT_USER_DTO + ACTIVE_BIRTH_DATE_BETWEEN + " " +
+            "AND (u.birthDate > :afterBirthDate OR (u.birthDate = :afterBirthDate AND u.id > :afterId)) " +
+            "ORDER BY u.birthDate, u.id")
+    List<UserDTO> findActiveUsersByBirthDateAfterKey(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                     @Param("afterBirthDate") LocalDate afterBirthDate,
+                                                     @Param("afterId") long afterId, Pageable pageable);
+
+    // export queries: rows are read through a cursor in fetch-size batches (server-side cursor on MySQL with
+    // useCursorFetch=true); the stream must be consumed and closed inside a transaction
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_USER_DTO + ACTIVE + " ORDER BY u.id")
+    Stream<UserDTO> streamActiveUsers();
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_USER_DTO + ACTIVE_BIRTH_DATE_BETWEEN + " ORDER BY u.id")
+    Stream<UserDTO> streamActiveUsersByBirthDateBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // analytics snapshot load: id and birth date of every active user, read through a cursor like the export
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.app.clearsolutions.model.dto.UserBirthDateDTO(u.id, u.birthDate) FROM User u " +
+            ACTIVE + " ORDER BY u.id")
+    Stream<UserBirthDateDTO> streamActiveUserBirthDates();
+
+    // search index load: id, searchable fields and birth date of every active user, read through a cursor
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.app.clearsolutions.model.dto.UserSearchDTO(u.id, u.email, u.firstName, u.lastName, " +
+            "u.birthDate) FROM User u " + ACTIVE + " ORDER BY u.id")
+    Stream<UserSearchDTO> streamActiveUserSearchFields();
+
+    // email filter load: emails of all users, active or deleted, read through a cursor like the export
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamEmails();
 }
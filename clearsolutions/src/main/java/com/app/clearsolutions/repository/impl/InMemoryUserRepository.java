@@ -0,0 +1,937 @@
+package com.app.clearsolutions.repository.impl;
+
+import com.app.clearsolutions.index.SortedLongSet;
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * In-memory implementation of the user repository, active with the 'in-memory' profile (no database).
+ * Rows are immutable and stored in an array indexed by id, which is a primitive-keyed map since the ids are
+ * allocated by the repository (1, 2, ...). Two secondary indexes of the active users answer the listing
+ * queries like the (is_active, id) and (is_active, birth_date, id) database indexes: the ids, and the
+ * (birth date, id) pairs packed in longs, both in sorted long sets, so a page or a count is a rank lookup
+ * followed by a scan of the page. The streams read the users in id order by batches, like a database cursor.
+ * A map of the lower-case emails of all users enforces their uniqueness,
+ * like the unique constraint (a duplicate email throws DataIntegrityViolationException).
+ * Reads run concurrently under the read lock, writes are serialized by the write lock and every repository
+ * call is atomic; there is no rollback of the calls made in a transaction (see InMemoryRepositoryConfig).
+ * Entities returned are copies, except within a read-write transaction: like the persistence context, the
+ * transaction then keeps one instance per user returned or saved, and the changes of these users are written
+ * back before it commits (optimistic locking on the version). Outside transactions, a user is changed by saving it.
+ * If in-memory-repository.snapshot-file is set, the users are loaded from that file at startup and written
+ * to it periodically (when changed) and at shutdown.
+ */
+@Repository
+@Profile("in-memory")
+public class InMemoryUserRepository implements UserRepository {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryUserRepository.class);
+    private static final int ID_BITS = 40;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+    // epoch days of the birth date keys (about years -9500 to 13400), dates beyond are clamped
+    private static final long MIN_DAY = -(1L << 22);
+    private static final long MAX_DAY = (1L << 22) - 2;
+    private static final int SNAPSHOT_MAGIC = 0x55534552;
+    private static final int SNAPSHOT_FORMAT = 1;
+    private static final int STREAM_BATCH_SIZE = Integer.parseInt(UserRepository.EXPORT_FETCH_SIZE);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private StoredUser[] rows = new StoredUser[1024];
+    private long nextId = 1;
+    private final Map<String, Long> emails = new HashMap<>();
+    private SortedLongSet activeIds = new SortedLongSet();
+    private SortedLongSet birthDates = new SortedLongSet();
+    private long modifications;
+
+    private final Path snapshotFile;
+    private final ScheduledExecutorService snapshotExecutor;
+    private long snapshotModifications;
+
+    @Autowired
+    public InMemoryUserRepository(@Value("${in-memory-repository.snapshot-file:}") String snapshotFile,
+                                  @Value("${in-memory-repository.snapshot-interval:1m}") Duration snapshotInterval) {
+        if (snapshotFile.isBlank()) {
+            this.snapshotFile = null;
+            this.snapshotExecutor = null;
+            return;
+        }
+
+        this.snapshotFile = Path.of(snapshotFile);
+        if (Files.exists(this.snapshotFile)) {
+            loadSnapshot();
+        }
+        this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "in-memory-repository-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotExecutor.scheduleWithFixedDelay(this::writeSnapshotIfChanged, snapshotInterval.toMillis(),
+                snapshotInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes the last snapshot at shutdown, if snapshots are enabled.
+     */
+    @PreDestroy
+    public void close() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+            writeSnapshotIfChanged();
+        }
+    }
+
+    @Override
+    public User findUserById(Long id) {
+        lock.readLock().lock();
+        try {
+            StoredUser row = row(id);
+            return row == null ? null : managed(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Boolean findIsActiveById(long id) {
+        lock.readLock().lock();
+        try {
+            StoredUser row = row(id);
+            return row == null ? null : row.active();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Long findActiveUserVersion(long id) {
+        lock.readLock().lock();
+        try {
+            StoredUser row = row(id);
+            return row == null || !row.active() ? null : row.version();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> findExistingEmails(Collection<String> emails) {
+        lock.readLock().lock();
+        try {
+            List<String> existing = new ArrayList<>();
+            for (String email : emails) {
+                Long id = this.emails.get(emailKey(email));
+                if (id != null) {
+                    existing.add(rows[(int) (long) id].email());
+                }
+            }
+            return existing;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        lock.readLock().lock();
+        try {
+            return emails.containsKey(emailKey(email));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<UserDTO> findActiveUsersByIdIn(Collection<Long> ids) {
+        lock.readLock().lock();
+        try {
+            List<UserDTO> users = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                StoredUser row = row(id);
+                if (row != null && row.active()) {
+                    users.add(row.toDTO());
+                }
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<UserDTO> findUsersByIsActiveIsTrue(Pageable pageable) {
+        return findPage(active(), pageable);
+    }
+
+    @Override
+    public Page<UserDTO> findUsersByBirthDateBetweenAndIsActiveIsTrue(LocalDate from, LocalDate to,
+                                                                      Pageable pageable) {
+        return findPage(birthDateBetween(from, to), pageable);
+    }
+
+    @Override
+    public Page<UserDTO> findUsersByBirthDateBeforeAndIsActiveIsTrue(LocalDate to, Pageable pageable) {
+        return findPage(birthDateBefore(to), pageable);
+    }
+
+    @Override
+    public Page<UserDTO> findUsersByBirthDateAfterAndIsActiveIsTrue(LocalDate from, Pageable pageable) {
+        return findPage(birthDateAfter(from), pageable);
+    }
+
+    @Override
+    public Slice<UserDTO> findSliceByIsActiveIsTrue(Pageable pageable) {
+        return findSlice(active(), pageable);
+    }
+
+    @Override
+    public Slice<UserDTO> findSliceByBirthDateBetweenAndIsActiveIsTrue(LocalDate from, LocalDate to,
+                                                                       Pageable pageable) {
+        return findSlice(birthDateBetween(from, to), pageable);
+    }
+
+    @Override
+    public Slice<UserDTO> findSliceByBirthDateBeforeAndIsActiveIsTrue(LocalDate to, Pageable pageable) {
+        return findSlice(birthDateBefore(to), pageable);
+    }
+
+    @Override
+    public Slice<UserDTO> findSliceByBirthDateAfterAndIsActiveIsTrue(LocalDate from, Pageable pageable) {
+        return findSlice(birthDateAfter(from), pageable);
+    }
+
+    @Override
+    public int updateActiveUser(long id, String email, String firstName, String lastName, LocalDate birthDate,
+                                String address, String phoneNumber) {
+        return updateActiveUser(id, email, firstName, lastName, birthDate, address, phoneNumber, null);
+    }
+
+    @Override
+    public int updateActiveUserWithVersion(long id, String email, String firstName, String lastName,
+                                           LocalDate birthDate, String address, String phoneNumber, long version) {
+        return updateActiveUser(id, email, firstName, lastName, birthDate, address, phoneNumber, version);
+    }
+
+    @Override
+    public int deactivateUserById(long id) {
+        return deactivateUsers(List.of(id), null);
+    }
+
+    @Override
+    public int deactivateUserByIdWithVersion(long id, long version) {
+        return deactivateUsers(List.of(id), version);
+    }
+
+    @Override
+    public int deactivateUsersByIdIn(Collection<Long> ids) {
+        return deactivateUsers(ids, null);
+    }
+
+    @Override
+    public int deactivateUsersByBirthDateBetween(LocalDate from, LocalDate to) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            forEachId(birthDateBetween(from, to), ids::add);
+            return deactivateUsers(ids, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public long countByIsActiveIsTrue() {
+        return count(active());
+    }
+
+    @Override
+    public long countByBirthDateBetweenAndIsActiveIsTrue(LocalDate from, LocalDate to) {
+        return count(birthDateBetween(from, to));
+    }
+
+    @Override
+    public long countByBirthDateBeforeAndIsActiveIsTrue(LocalDate to) {
+        return count(birthDateBefore(to));
+    }
+
+    @Override
+    public long countByBirthDateAfterAndIsActiveIsTrue(LocalDate from) {
+        return count(birthDateAfter(from));
+    }
+
+    @Override
+    public List<UserDTO> findActiveUsersAfterId(long afterId, Pageable pageable) {
+        return findRows(new Range(activeIds, Math.max(afterId, 0) + 1, Long.MAX_VALUE), withoutSort(pageable), 0)
+                .stream().map(StoredUser::toDTO).toList();
+    }
+
+    @Override
+    public List<UserDTO> findActiveUsersByBirthDateAfterKey(LocalDate from, LocalDate to, LocalDate afterBirthDate,
+                                                            long afterId, Pageable pageable) {
+        Range range = birthDateBetween(from, to);
+        long afterKey = birthDateKey(afterBirthDate.toEpochDay()) | Math.max(afterId, 0);
+        return findRows(new Range(birthDates, Math.max(range.fromKey(), afterKey + 1), range.toKey()),
+                withoutSort(pageable), 0).stream().map(StoredUser::toDTO).toList();
+    }
+
+    @Override
+    public Stream<UserDTO> streamActiveUsers() {
+        return streamRows(this::readActiveRows).map(StoredUser::toDTO);
+    }
+
+    /**
+     * Streams the active users of the birth date range by id, like the database query: the ids are read in
+     * batches and the users of other birth dates skipped, so the stream does not hold the users of the range.
+     */
+    @Override
+    public Stream<UserDTO> streamActiveUsersByBirthDateBetween(LocalDate from, LocalDate to) {
+        return streamRows(this::readActiveRows)
+                .filter(row -> !row.birthDate().isBefore(from) && !row.birthDate().isAfter(to))
+                .map(StoredUser::toDTO);
+    }
+
+    @Override
+    public Stream<UserBirthDateDTO> streamActiveUserBirthDates() {
+        return streamRows(this::readActiveRows).map(row -> new UserBirthDateDTO(row.id(), row.birthDate()));
+    }
+
+    @Override
+    public Stream<UserSearchDTO> streamActiveUserSearchFields() {
+        return streamRows(this::readActiveRows)
+                .map(row -> new UserSearchDTO(row.id(), row.email(), row.firstName(), row.lastName(),
+                        row.birthDate()));
+    }
+
+    @Override
+    public Stream<String> streamEmails() {
+        return streamRows(this::readAllRows).map(StoredUser::email);
+    }
+
+    /**
+     * Inserts a new user (id 0 or unknown, a new id is allocated) or updates an existing one, if it still has
+     * the version of the stored user. The id and the version of the entity are updated.
+     *
+     * @param entity The user.
+     * @return The same user.
+     * @throws DataIntegrityViolationException        If another user has the email.
+     * @throws ObjectOptimisticLockingFailureException If the stored user has another version.
+     */
+    @Override
+    public <S extends User> S save(S entity) {
+        lock.writeLock().lock();
+        try {
+            check(entity, new HashMap<>());
+            store(entity);
+            manage(entity);
+            return entity;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Saves the users atomically: if one of them cannot be saved, none is.
+     *
+     * @param entities The users.
+     * @return The same users.
+     * @throws DataIntegrityViolationException        If an email is used twice or by another user.
+     * @throws ObjectOptimisticLockingFailureException If a stored user has another version.
+     */
+    @Override
+    public <S extends User> List<S> saveAllAndFlush(Iterable<S> entities) {
+        List<S> users = new ArrayList<>();
+        entities.forEach(users::add);
+
+        lock.writeLock().lock();
+        try {
+            Map<String, Long> claimedEmails = new HashMap<>();
+            for (S user : users) {
+                check(user, claimedEmails);
+            }
+            for (S user : users) {
+                store(user);
+                manage(user);
+            }
+            return users;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public <S extends User> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return findAllRows().stream().map(this::managed).toList();
+    }
+
+    /**
+     * Helper method which checks that a user can be saved: its email is not used by another user (or claimed
+     * by another user of the same save) and, for an update, it still has the version of the stored user.
+     *
+     * @param user          The user to save.
+     * @param claimedEmails The emails claimed by the users checked before, with the id of their user (0: new).
+     */
+    private void check(User user, Map<String, Long> claimedEmails) {
+        StoredUser stored = row(user.getId());
+        long id = stored == null ? 0 : stored.id();
+
+        if (stored != null && stored.version() != user.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(User.class, id);
+        }
+        String email = emailKey(user.getEmail());
+        Long owner = emails.get(email);
+        Long claimedBy = claimedEmails.put(email, id);
+        if (owner != null && owner != id || claimedBy != null) {
+            throw new DataIntegrityViolationException("Duplicate email.");
+        }
+    }
+
+    /**
+     * Helper method which stores a checked user: a new row, or a new version of the stored row if it changed.
+     */
+    private void store(User user) {
+        StoredUser stored = row(user.getId());
+
+        if (stored == null) {
+            long id = nextId++;
+            replace(null, StoredUser.of(user, id, 0));
+            user.setId(id);
+            user.setVersion(0);
+        } else if (!stored.hasSameFields(user)) {
+            replace(stored, StoredUser.of(user, stored.id(), stored.version() + 1));
+            user.setVersion(stored.version() + 1);
+        }
+    }
+
+    /**
+     * Helper method which returns the user of a row: a copy, or within a read-write transaction the instance
+     * managed by the transaction for this id.
+     */
+    private User managed(StoredUser row) {
+        ManagedUsers managedUsers = managedUsers();
+        if (managedUsers == null) {
+            return row.toUser();
+        }
+        return managedUsers.users.computeIfAbsent(row.id(), id -> new ManagedUser(row.toUser(), row)).user();
+    }
+
+    /**
+     * Helper method which makes a saved user the instance managed by the current read-write transaction, if any.
+     */
+    private void manage(User user) {
+        ManagedUsers managedUsers = managedUsers();
+        if (managedUsers != null) {
+            managedUsers.users.put(user.getId(), new ManagedUser(user, row(user.getId())));
+        }
+    }
+
+    /**
+     * Helper method which returns the users managed by the current read-write transaction (bound to it on first
+     * use), or null outside read-write transactions.
+     */
+    private ManagedUsers managedUsers() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        ManagedUsers managedUsers = (ManagedUsers) TransactionSynchronizationManager.getResource(this);
+        if (managedUsers == null) {
+            managedUsers = new ManagedUsers();
+            TransactionSynchronizationManager.bindResource(this, managedUsers);
+            TransactionSynchronizationManager.registerSynchronization(managedUsers);
+        }
+        return managedUsers;
+    }
+
+    /**
+     * Helper method which writes back the managed users of a committing transaction atomically, like a flush:
+     * the users changed since they were returned or saved are saved, if none of them has been deleted since.
+     *
+     * @throws DataIntegrityViolationException        If a changed email is used by another user.
+     * @throws ObjectOptimisticLockingFailureException If a changed user has been deleted or has another version.
+     */
+    private void writeBack(Collection<ManagedUser> managedUsers) {
+        lock.writeLock().lock();
+        try {
+            List<User> changed = new ArrayList<>();
+            Map<String, Long> claimedEmails = new HashMap<>();
+            for (ManagedUser managed : managedUsers) {
+                User user = managed.user();
+                if (managed.loaded().hasSameFields(user)) {
+                    continue;
+                }
+                if (row(user.getId()) == null) {
+                    throw new ObjectOptimisticLockingFailureException(User.class, user.getId());
+                }
+                check(user, claimedEmails);
+                changed.add(user);
+            }
+            changed.forEach(this::store);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int updateActiveUser(long id, String email, String firstName, String lastName, LocalDate birthDate,
+                                 String address, String phoneNumber, Long version) {
+        lock.writeLock().lock();
+        try {
+            StoredUser stored = row(id);
+            if (stored == null || !stored.active() || version != null && stored.version() != version) {
+                return 0;
+            }
+            Long owner = emails.get(emailKey(email));
+            if (owner != null && owner != id) {
+                throw new DataIntegrityViolationException("Duplicate email.");
+            }
+
+            replace(stored, stored.withFields(email, firstName, lastName, birthDate, address, phoneNumber));
+            return 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int deactivateUsers(Collection<Long> ids, Long version) {
+        lock.writeLock().lock();
+        try {
+            int deactivated = 0;
+            for (Long id : ids) {
+                StoredUser stored = row(id);
+                if (stored != null && stored.active() && (version == null || stored.version() == version)) {
+                    replace(stored, stored.deactivated());
+                    deactivated++;
+                }
+            }
+            return deactivated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Helper method which replaces a row and updates the indexes (previous is null for an insert).
+     */
+    private void replace(StoredUser previous, StoredUser next) {
+        if (previous != null) {
+            if (previous.active()) {
+                activeIds.remove(previous.id());
+                birthDates.remove(birthDateKey(previous));
+            }
+            emails.remove(emailKey(previous.email()));
+        }
+        if (next.id() >= rows.length) {
+            rows = Arrays.copyOf(rows, (int) Math.max(next.id() + 1, rows.length * 2L));
+        }
+        rows[(int) next.id()] = next;
+        emails.put(emailKey(next.email()), next.id());
+        if (next.active()) {
+            activeIds.add(next.id());
+            birthDates.add(birthDateKey(next));
+        }
+        nextId = Math.max(nextId, next.id() + 1);
+        modifications++;
+    }
+
+    private Page<UserDTO> findPage(Range range, Pageable pageable) {
+        lock.readLock().lock();
+        try {
+            List<UserDTO> users = findRows(range, pageable, 0).stream().map(StoredUser::toDTO).toList();
+            return new PageImpl<>(users, pageable, count(range));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Slice<UserDTO> findSlice(Range range, Pageable pageable) {
+        List<StoredUser> rows = findRows(range, pageable, 1); // one extra row tells if there is a next page
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        List<UserDTO> users = (hasNext ? rows.subList(0, pageable.getPageSize()) : rows).stream()
+                .map(StoredUser::toDTO).toList();
+        return new SliceImpl<>(users, pageable, hasNext);
+    }
+
+    /**
+     * Helper method which returns the page of the active users of the range. Without a sort (or sorted in the
+     * order of the index), only the rows of the page are read; otherwise the rows of the range are sorted.
+     *
+     * @param range      The range of the ids or of the birth date keys of the users.
+     * @param pageable   The page.
+     * @param extraRows  The number of rows to read after the page.
+     * @return The rows.
+     */
+    private List<StoredUser> findRows(Range range, Pageable pageable, int extraRows) {
+        lock.readLock().lock();
+        try {
+            int start = range.index().rank(range.fromKey());
+            int end = Math.max(start, range.index().rank(range.toKey()));
+            Sort sort = pageable.getSort();
+
+            if (sort.isUnsorted() || sort.equals(Sort.by(range.index() == activeIds ? "id" : "birthDate"))
+                    || sort.equals(Sort.by("birthDate", "id")) && range.index() == birthDates) {
+                int from = (int) Math.min(end, start + (pageable.isPaged() ? pageable.getOffset() : 0));
+                int to = pageable.isPaged() ? (int) Math.min(end, (long) from + pageable.getPageSize() + extraRows)
+                        : end;
+                List<StoredUser> page = new ArrayList<>(to - from);
+                range.index().forEach(from, to, key -> page.add(rows[(int) (key & ID_MASK)]));
+                return page;
+            }
+
+            List<StoredUser> matching = new ArrayList<>(end - start);
+            range.index().forEach(start, end, key -> matching.add(rows[(int) (key & ID_MASK)]));
+            matching.sort(comparator(sort));
+            return page(matching, pageable, extraRows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long count(Range range) {
+        lock.readLock().lock();
+        try {
+            return Math.max(0, range.index().rank(range.toKey()) - range.index().rank(range.fromKey()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void forEachId(Range range, LongConsumer consumer) {
+        int start = range.index().rank(range.fromKey());
+        int end = Math.max(start, range.index().rank(range.toKey()));
+        range.index().forEach(start, end, key -> consumer.accept(key & ID_MASK));
+    }
+
+    /**
+     * Helper method which streams rows read in batches of STREAM_BATCH_SIZE, each under the read lock, like the
+     * cursor of the database streams: the stream holds one batch, and sees the writes committed between batches
+     * (after the rows already read, as the rows are read in id order).
+     *
+     * @param batchReader Reads the batch of the rows from a given id.
+     * @return The stream of the rows.
+     */
+    private Stream<StoredUser> streamRows(BatchReader batchReader) {
+        Iterator<StoredUser> iterator = new Iterator<>() {
+            private final List<StoredUser> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+            private int position;
+            private long fromId = 1;
+
+            @Override
+            public boolean hasNext() {
+                if (position == batch.size() && fromId > 0) {
+                    batch.clear();
+                    position = 0;
+                    fromId = batchReader.read(fromId, batch);
+                }
+                return position < batch.size();
+            }
+
+            @Override
+            public StoredUser next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private long readActiveRows(long fromId, List<StoredUser> batch) {
+        lock.readLock().lock();
+        try {
+            int start = activeIds.rank(fromId);
+            int end = (int) Math.min(activeIds.size(), (long) start + STREAM_BATCH_SIZE);
+            activeIds.forEach(start, end, id -> batch.add(rows[(int) id]));
+            return batch.isEmpty() ? 0 : batch.get(batch.size() - 1).id() + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long readAllRows(long fromId, List<StoredUser> batch) {
+        lock.readLock().lock();
+        try {
+            long id = fromId;
+            for (; id < nextId && batch.size() < STREAM_BATCH_SIZE; id++) {
+                if (rows[(int) id] != null) {
+                    batch.add(rows[(int) id]);
+                }
+            }
+            return batch.isEmpty() ? 0 : id;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<StoredUser> findAllRows() {
+        lock.readLock().lock();
+        try {
+            List<StoredUser> all = new ArrayList<>(emails.size());
+            for (int id = 1; id < nextId; id++) {
+                if (rows[id] != null) {
+                    all.add(rows[id]);
+                }
+            }
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private StoredUser row(Long id) {
+        return id == null || id <= 0 || id >= nextId ? null : rows[(int) (long) id];
+    }
+
+    private Range active() {
+        return new Range(activeIds, 0, Long.MAX_VALUE);
+    }
+
+    private Range birthDateBetween(LocalDate from, LocalDate to) {
+        return new Range(birthDates, birthDateKey(from.toEpochDay()), birthDateKey(to.toEpochDay() + 1));
+    }
+
+    private Range birthDateBefore(LocalDate to) {
+        return new Range(birthDates, 0, birthDateKey(to.toEpochDay()));
+    }
+
+    private Range birthDateAfter(LocalDate from) {
+        return new Range(birthDates, birthDateKey(from.toEpochDay() + 1), Long.MAX_VALUE);
+    }
+
+    /**
+     * Helper method which writes a snapshot of the users if they changed since the last one: the rows are
+     * copied under the read lock, then written to a temporary file which replaces the snapshot file.
+     */
+    private synchronized void writeSnapshotIfChanged() {
+        List<StoredUser> all;
+        long snapshotOf;
+        long lastId;
+        lock.readLock().lock();
+        try {
+            if (modifications == snapshotModifications) {
+                return;
+            }
+            all = findAllRows();
+            snapshotOf = modifications;
+            lastId = nextId - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile), 1 << 16))) {
+                output.writeInt(SNAPSHOT_MAGIC);
+                output.writeInt(SNAPSHOT_FORMAT);
+                output.writeLong(lastId);
+                output.writeInt(all.size());
+                for (StoredUser row : all) {
+                    row.writeTo(output);
+                }
+            }
+            Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            snapshotModifications = snapshotOf;
+            log.debug("Snapshot of {} users written to {}", all.size(), snapshotFile);
+        } catch (IOException exception) {
+            log.warn("Snapshot of the users could not be written to {}", snapshotFile, exception);
+        }
+    }
+
+    /**
+     * Helper method which loads the users of the snapshot file and builds the indexes.
+     *
+     * @throws UncheckedIOException  If the snapshot file cannot be read.
+     * @throws IllegalStateException If the file is not a snapshot of this format.
+     */
+    private void loadSnapshot() {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            if (input.readInt() != SNAPSHOT_MAGIC || input.readInt() != SNAPSHOT_FORMAT) {
+                throw new IllegalStateException("Unsupported snapshot file: " + snapshotFile);
+            }
+            long lastId = input.readLong();
+            int count = input.readInt();
+
+            rows = new StoredUser[(int) Math.max(lastId + 1, 1024)];
+            long[] ids = new long[count];
+            long[] keys = new long[count];
+            int active = 0;
+            for (int i = 0; i < count; i++) {
+                StoredUser row = StoredUser.readFrom(input);
+                rows[(int) row.id()] = row;
+                emails.put(emailKey(row.email()), row.id());
+                if (row.active()) {
+                    ids[active] = row.id(); // rows are written in id order
+                    keys[active++] = birthDateKey(row);
+                }
+            }
+            Arrays.sort(keys, 0, active);
+            activeIds = SortedLongSet.of(ids, active);
+            birthDates = SortedLongSet.of(keys, active);
+            nextId = lastId + 1;
+            log.info("{} users loaded from the snapshot {}", count, snapshotFile);
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Snapshot file could not be read: " + snapshotFile, exception);
+        }
+    }
+
+    /**
+     * Helper method which builds the comparator of a sort (string properties are compared case-insensitively
+     * and null values come first in ascending order, as in MySQL), with the id as the last criterion.
+     *
+     * @throws IllegalArgumentException If a property of the sort is not a property of the user.
+     */
+    private static Comparator<StoredUser> comparator(Sort sort) {
+        Comparator<StoredUser> comparator = (first, second) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<StoredUser> property = switch (order.getProperty()) {
+                case "id" -> Comparator.comparingLong(StoredUser::id);
+                case "email" -> Comparator.comparing(StoredUser::email, strings());
+                case "firstName" -> Comparator.comparing(StoredUser::firstName, strings());
+                case "lastName" -> Comparator.comparing(StoredUser::lastName, strings());
+                case "birthDate" -> Comparator.comparing(StoredUser::birthDate);
+                case "address" -> Comparator.comparing(StoredUser::address, strings());
+                case "phoneNumber" -> Comparator.comparing(StoredUser::phoneNumber, strings());
+                case "isActive" -> Comparator.comparing(StoredUser::active);
+                case "version" -> Comparator.comparingLong(StoredUser::version);
+                default -> throw new IllegalArgumentException(String.format("No property '%s' found for type 'User'.",
+                        order.getProperty()));
+            };
+            comparator = comparator.thenComparing(order.isAscending() ? property : property.reversed());
+        }
+        return comparator.thenComparingLong(StoredUser::id);
+    }
+
+    private static Comparator<String> strings() {
+        return Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    private static <T> List<T> page(List<T> sorted, Pageable pageable, int extraRows) {
+        if (pageable.isUnpaged()) {
+            return sorted;
+        }
+        int from = (int) Math.min(sorted.size(), pageable.getOffset());
+        return sorted.subList(from, (int) Math.min(sorted.size(), (long) from + pageable.getPageSize() + extraRows));
+    }
+
+    private static Pageable withoutSort(Pageable pageable) {
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()) : Pageable.unpaged();
+    }
+
+    private static String emailKey(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    private static long birthDateKey(StoredUser row) {
+        return birthDateKey(row.birthDate().toEpochDay()) | row.id();
+    }
+
+    /**
+     * Helper method which returns the smallest key of the given birth date: the (clamped) epoch day in the upper
+     * bits, above the id.
+     */
+    private static long birthDateKey(long epochDay) {
+        return (Math.max(MIN_DAY, Math.min(MAX_DAY + 1, epochDay)) - MIN_DAY) << ID_BITS;
+    }
+
+    /**
+     * Users returned or saved in a read-write transaction, by id, with their stored row at that time; written
+     * back before the transaction commits, dropped when it completes.
+     */
+    private class ManagedUsers implements TransactionSynchronization {
+        private final Map<Long, ManagedUser> users = new HashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            writeBack(users.values());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(InMemoryUserRepository.this);
+        }
+    }
+
+    private record ManagedUser(User user, StoredUser loaded) {
+    }
+
+    /**
+     * Keys [fromKey, toKey) of an index: ids of the active users, or their (birth date, id) keys.
+     */
+    private record Range(SortedLongSet index, long fromKey, long toKey) {
+    }
+
+    /**
+     * Reader of a batch of rows of a stream.
+     */
+    @FunctionalInterface
+    private interface BatchReader {
+        /**
+         * Reads the next rows, at most STREAM_BATCH_SIZE.
+         *
+         * @param fromId The smallest id of the batch.
+         * @param batch  The list the rows are added to, in id order.
+         * @return The smallest id of the next batch, or 0 if the batch is empty (no more rows).
+         */
+        long read(long fromId, List<StoredUser> batch);
+    }
+}
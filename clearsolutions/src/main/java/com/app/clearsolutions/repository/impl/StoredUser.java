@@ -0,0 +1,108 @@
+package com.app.clearsolutions.repository.impl;
+
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserDTO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable row of the in-memory repository. Entities handed out by the repository are copies, so a row only
+ * changes through the repository (which keeps the secondary indexes and the version in sync).
+ */
+record StoredUser(long id, String email, String firstName, String lastName, LocalDate birthDate, String address,
+                  String phoneNumber, boolean active, long version) {
+
+    static StoredUser of(User user, long id, long version) {
+        return new StoredUser(id, user.getEmail(), user.getFirstName(), user.getLastName(), user.getBirthDate(),
+                user.getAddress(), user.getPhoneNumber(), user.getIsActive(), version);
+    }
+
+    StoredUser withFields(String email, String firstName, String lastName, LocalDate birthDate, String address,
+                          String phoneNumber) {
+        return new StoredUser(id, email, firstName, lastName, birthDate, address, phoneNumber, active, version + 1);
+    }
+
+    StoredUser deactivated() {
+        return new StoredUser(id, email, firstName, lastName, birthDate, address, phoneNumber, false, version + 1);
+    }
+
+    boolean hasSameFields(User user) {
+        return Objects.equals(email, user.getEmail()) && Objects.equals(firstName, user.getFirstName())
+                && Objects.equals(lastName, user.getLastName()) && Objects.equals(birthDate, user.getBirthDate())
+                && Objects.equals(address, user.getAddress()) && Objects.equals(phoneNumber, user.getPhoneNumber())
+                && active == user.getIsActive();
+    }
+
+    User toUser() {
+        return new User(id, email, firstName, lastName, birthDate, address, phoneNumber, active, version);
+    }
+
+    UserDTO toDTO() {
+        return new UserDTO(id, email, firstName, lastName, birthDate, address, phoneNumber);
+    }
+
+    /**
+     * Writes the row to a snapshot.
+     *
+     * @param output The snapshot output.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    void writeTo(DataOutput output) throws IOException {
+        output.writeLong(id);
+        output.writeLong(version);
+        output.writeBoolean(active);
+        writeString(output, email);
+        writeString(output, firstName);
+        writeString(output, lastName);
+        output.writeLong(birthDate.toEpochDay());
+        writeString(output, address);
+        writeString(output, phoneNumber);
+    }
+
+    /**
+     * Reads a row written by writeTo.
+     *
+     * @param input The snapshot input.
+     * @return The row.
+     * @throws IOException If the snapshot cannot be read.
+     */
+    static StoredUser readFrom(DataInput input) throws IOException {
+        long id = input.readLong();
+        long version = input.readLong();
+        boolean active = input.readBoolean();
+        String email = readString(input);
+        String firstName = readString(input);
+        String lastName = readString(input);
+        LocalDate birthDate = LocalDate.ofEpochDay(input.readLong());
+        return new StoredUser(id, email, firstName, lastName, birthDate, readString(input), readString(input),
+                active, version);
+    }
+
+    /**
+     * Helper method which writes a nullable string as its UTF-8 length (-1 for null) and bytes.
+     */
+    private static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInput input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,26 @@
+package com.app.clearsolutions.search;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index interface of the first names, last names and emails of active users,
+ * answering type-ahead searches without reaching the database.
+ */
+public interface UserSearchIndex {
+    void load(Stream<UserSearchDTO> users);
+
+    boolean isLoaded();
+
+    int size();
+
+    List<Long> search(String prefix, int limit);
+
+    void onUserChanged(UserChangedEvent event);
+
+    void onUsersDeactivated(UsersDeactivatedEvent event);
+}
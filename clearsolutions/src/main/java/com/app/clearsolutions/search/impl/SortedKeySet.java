@@ -0,0 +1,168 @@
+package com.app.clearsolutions.search.impl;
+
+import com.app.clearsolutions.index.BlockSortedSet;
+
+/**
+ * Sorted set of (key, id) entries, ordered by key then id, stored in blocks of at most BLOCK_SIZE entries
+ * (parallel key and id arrays per block, see BlockSortedSet). A write is a binary search over the first entries
+ * of the blocks, one within the block and an arraycopy of at most BLOCK_SIZE entries. Scans walk the blocks
+ * in order. Not thread-safe: the search index guards it with its lock.
+ */
+final class SortedKeySet extends BlockSortedSet<SortedKeySet.Block> {
+    /**
+     * Creates a set of the given entries.
+     *
+     * @param sortedKeys The keys of the entries, sorted with their ids by (key, id), without duplicate entries.
+     * @param sortedIds  The ids of the entries.
+     * @param count      The number of entries to take from the arrays.
+     * @return The set.
+     */
+    static SortedKeySet of(String[] sortedKeys, long[] sortedIds, int count) {
+        SortedKeySet set = new SortedKeySet();
+        set.load(count, (block, from, length) -> {
+            System.arraycopy(sortedKeys, from, block.keys, 0, length);
+            System.arraycopy(sortedIds, from, block.ids, 0, length);
+        });
+        return set;
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param key The key.
+     * @param id  The id.
+     * @return false if the set already contains it.
+     */
+    boolean add(String key, long id) {
+        int block = blockOf(key, id);
+        int position = lowerBound(block, key, id);
+        if (contains(block, position, key, id)) {
+            return false;
+        }
+
+        long slot = openSlot(block, position);
+        Block entries = block(slotBlock(slot));
+        entries.keys[slotPosition(slot)] = key;
+        entries.ids[slotPosition(slot)] = id;
+        return true;
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param key The key.
+     * @param id  The id.
+     * @return false if the set does not contain it.
+     */
+    boolean remove(String key, long id) {
+        int block = blockOf(key, id);
+        int position = lowerBound(block, key, id);
+        if (!contains(block, position, key, id)) {
+            return false;
+        }
+
+        removeAt(block, position);
+        return true;
+    }
+
+    /**
+     * Passes the entries to the visitor in order, starting with the first entry whose key is not less than
+     * the given key, until the visitor returns false or the entries are exhausted.
+     *
+     * @param key     The key to start from.
+     * @param visitor The visitor of the entries.
+     */
+    void scan(String key, EntryVisitor visitor) {
+        int block = blockOf(key, Long.MIN_VALUE);
+        visit(block, lowerBound(block, key, Long.MIN_VALUE),
+                (entries, position) -> visitor.visit(entries.keys[position], entries.ids[position]));
+    }
+
+    /**
+     * Visitor of the entries of the set.
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+        /**
+         * Visits an entry.
+         *
+         * @param key The key of the entry.
+         * @param id  The id of the entry.
+         * @return false to stop the scan.
+         */
+        boolean visit(String key, long id);
+    }
+
+    @Override
+    protected Block newBlock() {
+        return new Block();
+    }
+
+    @Override
+    protected void copy(Block source, int sourcePosition, Block target, int targetPosition, int length) {
+        System.arraycopy(source.keys, sourcePosition, target.keys, targetPosition, length);
+        System.arraycopy(source.ids, sourcePosition, target.ids, targetPosition, length);
+    }
+
+    @Override
+    protected void clear(Block block, int from, int to) {
+        for (int i = from; i < to; i++) {
+            block.keys[i] = null;
+        }
+    }
+
+    private boolean contains(int block, int position, String key, long id) {
+        Block entries = block(block);
+        return position < blockSize(block) && entries.ids[position] == id && entries.keys[position].equals(key);
+    }
+
+    /**
+     * Helper method which finds the block the entry belongs to: the last block whose first entry is not
+     * greater than the entry, or the first block.
+     */
+    private int blockOf(String key, long id) {
+        int low = 1;
+        int high = blockCount() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            Block entries = block(middle);
+            if (compare(entries.keys[0], entries.ids[0], key, id) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Helper method which finds the position of the first entry of the block not less than (key, id).
+     */
+    private int lowerBound(int block, String key, long id) {
+        Block entries = block(block);
+        int low = 0;
+        int high = blockSize(block);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(entries.keys[middle], entries.ids[middle], key, id) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String key, long id, String otherKey, long otherId) {
+        int comparison = key.compareTo(otherKey);
+        return comparison != 0 ? comparison : Long.compare(id, otherId);
+    }
+
+    /**
+     * Block of entries: parallel arrays of keys and ids.
+     */
+    static final class Block {
+        private final String[] keys = new String[BLOCK_SIZE];
+        private final long[] ids = new long[BLOCK_SIZE];
+    }
+}
@@ -0,0 +1,262 @@
+package com.app.clearsolutions.search.impl;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.index.EventSyncedIndex;
+import com.app.clearsolutions.index.LongIntHashMap;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+import com.app.clearsolutions.search.UserSearchIndex;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Prefix index implementation of the searchable fields of active users. The normalized (trimmed, lower-case)
+ * keys - first name, last name and email, one entry per distinct key of a user - are kept in a block-based
+ * sorted set of (key, id) entries. A prefix search is a binary search for the first key not less than the
+ * prefix followed by a scan of the keys starting with it, so its cost depends on the number of results, not on
+ * the number of users. Each user also has a slot holding its keys and its birth date (used only to apply
+ * deactivations by birth date range), found through a primitive map from user id to slot: a change or a
+ * deletion removes the user's former entries by key, each a binary search and a shift within one block, so
+ * no write shifts or scans the whole index under the lock. Only a deactivation by birth date range walks all
+ * the slots. Loading and event replay are handled by EventSyncedIndex.
+ */
+@Component
+public class UserSearchIndexImpl extends EventSyncedIndex implements UserSearchIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_SLOT = -1;
+    private static final int NO_BIRTH_DATE = Integer.MIN_VALUE;
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparing(Entry::key)
+            .thenComparingLong(Entry::id);
+
+    private SortedKeySet entries = new SortedKeySet();
+    private LongIntHashMap slotById = new LongIntHashMap(0);
+    private String[][] slotKeys = new String[INITIAL_CAPACITY][];
+    private int[] slotDays = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[0];
+    private int freeSlotCount;
+    private int slotCount;
+
+    public UserSearchIndexImpl() {
+        super("The search index is being loaded, try again later.");
+    }
+
+    /**
+     * Replaces the index content with the given users and replays the events received in the meantime.
+     *
+     * @param users The searchable fields of all active users.
+     */
+    @Override
+    public void load(Stream<UserSearchDTO> users) {
+        List<Entry> loadedEntries = new ArrayList<>();
+        Map<String, String> sharedKeys = new HashMap<>(); // Users with the same name share one key instance
+        String[][] keysBySlot = new String[INITIAL_CAPACITY][];
+        int[] daysBySlot = new int[INITIAL_CAPACITY];
+        LongIntHashMap loadedSlotById = new LongIntHashMap(0);
+        int count = 0;
+
+        for (UserSearchDTO user : (Iterable<UserSearchDTO>) users::iterator) {
+            String[] keys = keysOf(user.getEmail(), user.getFirstName(), user.getLastName()).stream()
+                    .map(key -> sharedKeys.computeIfAbsent(key, k -> k))
+                    .toArray(String[]::new);
+            for (String key : keys) {
+                loadedEntries.add(new Entry(key, user.getId()));
+            }
+            if (count == keysBySlot.length) {
+                keysBySlot = Arrays.copyOf(keysBySlot, count * 2);
+                daysBySlot = Arrays.copyOf(daysBySlot, count * 2);
+            }
+            loadedSlotById.put(user.getId(), count);
+            keysBySlot[count] = keys;
+            daysBySlot[count++] = epochDay(user.getBirthDate());
+        }
+        loadedEntries.sort(ENTRY_ORDER);
+
+        String[] sortedKeys = new String[loadedEntries.size()];
+        long[] sortedIds = new long[loadedEntries.size()];
+        for (int i = 0; i < loadedEntries.size(); i++) {
+            sortedKeys[i] = loadedEntries.get(i).key();
+            sortedIds[i] = loadedEntries.get(i).id();
+        }
+        SortedKeySet loadedSet = SortedKeySet.of(sortedKeys, sortedIds, sortedKeys.length);
+        String[][] loadedSlotKeys = keysBySlot;
+        int[] loadedSlotDays = daysBySlot;
+        int loadedSlotCount = count;
+
+        replaceContent(() -> {
+            entries = loadedSet;
+            slotById = loadedSlotById;
+            slotKeys = loadedSlotKeys;
+            slotDays = loadedSlotDays;
+            freeSlotCount = 0;
+            slotCount = loadedSlotCount;
+        });
+    }
+
+    /**
+     * Returns the number of keys in the index (up to three per user).
+     *
+     * @return The number of entries of the index.
+     */
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            checkLoaded();
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the active users whose first name, last name or email starts with the given prefix
+     * (case-insensitive). Users are ordered by their first matching key, then by id.
+     *
+     * @param prefix The prefix to search for.
+     * @param limit  The maximum number of users to return.
+     * @return The ids of the matching users, at most 'limit' of them.
+     */
+    @Override
+    public List<Long> search(String prefix, int limit) {
+        String normalized = normalize(prefix);
+
+        lock.readLock().lock();
+        try {
+            checkLoaded();
+            Set<Long> found = new LinkedHashSet<>();
+            entries.scan(normalized, (key, id) -> {
+                if (found.size() >= limit || !key.startsWith(normalized)) {
+                    return false;
+                }
+                found.add(id);
+                return true;
+            });
+            return new ArrayList<>(found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the entries of a created, updated or deleted user. The indexed keys of the user are used
+     * rather than the previous ones of the event, which may be unknown or stale.
+     *
+     * @param event The user change event.
+     */
+    @Override
+    protected void apply(UserChangedEvent event) {
+        UserDTO current = event.getCurrent();
+        if (current == null) {
+            removeUser(event.getId());
+            return;
+        }
+
+        long id = event.getId();
+        String[] currentKeys = keysOf(current.getEmail(), current.getFirstName(), current.getLastName())
+                .toArray(String[]::new);
+        int slot = slotById.getOrDefault(id, NO_SLOT);
+        if (slot == NO_SLOT) {
+            slot = allocateSlot();
+            slotById.put(id, slot);
+        } else {
+            for (String key : slotKeys[slot]) {
+                if (!Arrays.asList(currentKeys).contains(key)) {
+                    entries.remove(key, id);
+                }
+            }
+        }
+        for (String key : currentKeys) {
+            entries.add(key, id);
+        }
+        slotKeys[slot] = currentKeys;
+        slotDays[slot] = epochDay(current.getBirthDate());
+    }
+
+    /**
+     * Removes the entries of deactivated users: by id, or the users whose slot has a birth date in the range.
+     *
+     * @param event The users deactivation event.
+     */
+    @Override
+    protected void apply(UsersDeactivatedEvent event) {
+        if (event.getIds() != null) {
+            event.getIds().forEach(this::removeUser);
+            return;
+        }
+
+        int from = epochDay(event.getRange().lowerBound());
+        int to = epochDay(event.getRange().upperBound());
+        List<Long> removedIds = new ArrayList<>();
+        slotById.forEach((id, slot) -> {
+            if (slotDays[slot] >= from && slotDays[slot] <= to) {
+                removedIds.add(id);
+            }
+        });
+        removedIds.forEach(this::removeUser);
+    }
+
+    private void removeUser(long id) {
+        int slot = slotById.getOrDefault(id, NO_SLOT);
+        if (slot == NO_SLOT) {
+            return;
+        }
+
+        for (String key : slotKeys[slot]) {
+            entries.remove(key, id);
+        }
+        slotById.remove(id);
+        slotKeys[slot] = null;
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, Math.max(INITIAL_CAPACITY, freeSlotCount * 2));
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == slotKeys.length) {
+            slotKeys = Arrays.copyOf(slotKeys, slotCount * 2);
+            slotDays = Arrays.copyOf(slotDays, slotCount * 2);
+        }
+        return slotCount++;
+    }
+
+    /**
+     * Helper method which returns the distinct non-empty normalized keys of the given fields.
+     */
+    private static List<String> keysOf(String... fields) {
+        List<String> keys = new ArrayList<>(fields.length);
+        for (String field : fields) {
+            String key = field == null ? "" : normalize(field);
+            if (!key.isEmpty() && !keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int epochDay(LocalDate date) {
+        return date == null ? NO_BIRTH_DATE : (int) date.toEpochDay();
+    }
+
+    private record Entry(String key, long id) {
+    }
+}
@@ -0,0 +1,20 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.AgeBucketDTO;
+import com.app.clearsolutions.model.dto.BirthYearCountDTO;
+import com.app.clearsolutions.model.dto.CountDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Service interface for birth date analytics of the active users.
+ */
+public interface AnalyticsService {
+    void loadSnapshot();
+
+    ResponseEntity<DataDTO<CountDTO>> countUsers(String from, String to);
+
+    ResponseEntity<DataDTO<BirthYearCountDTO>> countUsersByBirthYear();
+
+    ResponseEntity<DataDTO<AgeBucketDTO>> countUsersByAge();
+}
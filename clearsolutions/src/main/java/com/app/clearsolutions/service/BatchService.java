@@ -0,0 +1,17 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Service interface for creating users in bulk.
+ */
+public interface BatchService {
+    ResponseEntity<DataDTO<BatchItemResultDTO>> createUsers(List<UserDTO> userDTOs);
+
+    List<BatchItemResultDTO> saveUsers(List<UserDTO> userDTOs);
+}
@@ -0,0 +1,11 @@
+package com.app.clearsolutions.service;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Service interface for exporting users.
+ */
+public interface ExportService {
+    ResponseEntity<StreamingResponseBody> exportUsers(String from, String to);
+}
@@ -0,0 +1,15 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.ImportReportDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+
+/**
+ * Service interface for importing users from files.
+ */
+public interface ImportService {
+    ResponseEntity<DataDTO<ImportReportDTO>> importUsers(InputStream inputStream, String contentType,
+                                                         long resumeAfterLine);
+}
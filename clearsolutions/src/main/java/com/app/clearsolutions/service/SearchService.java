@@ -0,0 +1,15 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Service interface for type-ahead search of active users by first name, last name and email.
+ */
+public interface SearchService {
+    void loadIndex();
+
+    ResponseEntity<DataDTO<UserDTO>> searchUsers(String query, Pageable pageable);
+}
@@ -2,6 +2,8 @@ package com.app.clearsolutions.service;
 
 import com.app.clearsolutions.exception.InvalidInputFormatException;
 import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.DeactivationDTO;
+import com.app.clearsolutions.model.dto.DeactivationResultDTO;
 import com.app.clearsolutions.model.dto.UserDTO;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
@@ -13,13 +15,22 @@ import org.springframework.web.util.UriComponentsBuilder;
 public interface UserService {
     ResponseEntity<Void> createUser(UserDTO userDTO, UriComponentsBuilder uriBuilder) throws InvalidInputFormatException;
 
-    ResponseEntity<DataDTO> getUsers(String from, String to, Pageable pageable);
+    ResponseEntity<DataDTO<UserDTO>> getUsers(String from, String to, Pageable pageable);
 
-    ResponseEntity<DataDTO> getUserById(long id);
+    ResponseEntity<DataDTO<UserDTO>> getUsers(String from, String to, Pageable pageable, String paging,
+                                              String ifNoneMatch);
 
-    ResponseEntity<Void> deleteUser(long id);
+    ResponseEntity<DataDTO<UserDTO>> getUsersAfter(String from, String to, String after, int size, String ifNoneMatch);
 
-    ResponseEntity<Void> updateAllUserFields(UserDTO userDTO, long id) throws InvalidInputFormatException;
+    ResponseEntity<DataDTO<UserDTO>> getUserById(long id, String ifNoneMatch);
 
-    ResponseEntity<Void> partialUpdateUser(UserDTO userDTO, long id) throws InvalidInputFormatException;
+    ResponseEntity<Void> deleteUser(long id, String ifMatch);
+
+    ResponseEntity<DataDTO<DeactivationResultDTO>> deactivateUsers(DeactivationDTO deactivationDTO);
+
+    ResponseEntity<Void> updateAllUserFields(UserDTO userDTO, long id, String ifMatch)
+            throws InvalidInputFormatException;
+
+    ResponseEntity<Void> partialUpdateUser(UserDTO userDTO, long id, String ifMatch)
+            throws InvalidInputFormatException;
 }
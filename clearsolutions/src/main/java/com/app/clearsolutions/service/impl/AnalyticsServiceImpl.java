@@ -0,0 +1,127 @@
+package com.app.clearsolutions.service.impl;
+
+import com.app.clearsolutions.analytics.BirthDateIndex;
+import com.app.clearsolutions.model.dto.AgeBucketDTO;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.BirthYearCountDTO;
+import com.app.clearsolutions.model.dto.CountDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.service.AnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.app.clearsolutions.datasource.PrimaryReadConfig.PRIMARY_READ_TRANSACTION_TEMPLATE;
+
+/**
+ * Service implementation for birth date analytics. Queries are answered from the in-memory birth date
+ * index, loaded from the database once when the application is ready; the database is not queried afterwards.
+ */
+@Service
+public class AnalyticsServiceImpl implements AnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    private final BirthDateIndex birthDateIndex;
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private final int[] ageBuckets;
+
+    @Autowired
+    public AnalyticsServiceImpl(BirthDateIndex birthDateIndex, UserRepository userRepository,
+                                @Qualifier(PRIMARY_READ_TRANSACTION_TEMPLATE) TransactionTemplate primaryReadTransactionTemplate,
+                                @Value("${analytics.age-buckets:18,25,35,45,55,65}") int[] ageBuckets) {
+        for (int i = 0; i < ageBuckets.length; i++) {
+            if (ageBuckets[i] < 0 || i > 0 && ageBuckets[i] <= ageBuckets[i - 1]) {
+                throw new IllegalArgumentException("Age buckets must be increasing non-negative ages.");
+            }
+        }
+        this.birthDateIndex = birthDateIndex;
+        this.userRepository = userRepository;
+        this.primaryReadTransactionTemplate = primaryReadTransactionTemplate;
+        this.ageBuckets = ageBuckets;
+    }
+
+    /**
+     * Loads the birth date index from the database (id and birth date of the active users, streamed).
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSnapshot() {
+        long start = System.nanoTime();
+
+        primaryReadTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserBirthDateDTO> users = userRepository.streamActiveUserBirthDates()) {
+                birthDateIndex.load(users);
+            }
+        });
+        log.info("Analytics snapshot of {} users loaded in {} ms", birthDateIndex.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Counts the active users born in the given range ('from'/'to' as in the listing).
+     *
+     * @param from The start date of the birth date range, or an empty string.
+     * @param to   The end date of the birth date range, or an empty string.
+     * @return ResponseEntity containing the number of users.
+     * @throws IllegalArgumentException If the dates are invalid.
+     */
+    @Override
+    public ResponseEntity<DataDTO<CountDTO>> countUsers(String from, String to) {
+        BirthDateRangeDTO birthDateRangeDTO = BirthDateRangeDTO.parse(from, to);
+        long count = birthDateIndex.countBetween(birthDateRangeDTO.lowerBound(), birthDateRangeDTO.upperBound());
+
+        return ResponseEntity.ok(new DataDTO<>(new CountDTO(count)));
+    }
+
+    /**
+     * Counts the active users per birth year.
+     *
+     * @return ResponseEntity containing the number of users per year, from the earliest to the latest birth year.
+     */
+    @Override
+    public ResponseEntity<DataDTO<BirthYearCountDTO>> countUsersByBirthYear() {
+        List<BirthYearCountDTO> years = new ArrayList<>();
+
+        birthDateIndex.countByBirthYear().forEach((year, count) -> years.add(new BirthYearCountDTO(year, count)));
+        return ResponseEntity.ok(new DataDTO<>(null, years));
+    }
+
+    /**
+     * Counts the active users per age bucket (analytics.age-buckets are the first ages of the buckets;
+     * users younger than the first one are not counted).
+     *
+     * @return ResponseEntity containing the number of users per age bucket.
+     */
+    @Override
+    public ResponseEntity<DataDTO<AgeBucketDTO>> countUsersByAge() {
+        LocalDate today = LocalDate.now();
+        List<AgeBucketDTO> buckets = new ArrayList<>();
+
+        for (int i = 0; i < ageBuckets.length; i++) {
+            boolean last = i == ageBuckets.length - 1;
+            // Aged 'fromAge' to 'toAge': born after today - (toAge + 1) years, on or before today - fromAge years
+            LocalDate latest = today.minusYears(ageBuckets[i]);
+            LocalDate earliest = last ? BirthDateRangeDTO.MIN_BIRTH_DATE
+                    : today.minusYears(ageBuckets[i + 1]).plusDays(1);
+
+            buckets.add(new AgeBucketDTO(ageBuckets[i], last ? null : ageBuckets[i + 1] - 1,
+                    birthDateIndex.countBetween(earliest, latest)));
+        }
+        return ResponseEntity.ok(new DataDTO<>(null, buckets));
+    }
+}
@@ -0,0 +1,247 @@
+package com.app.clearsolutions.service.impl;
+
+import com.app.clearsolutions.cache.EmailFilter;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.service.BatchService;
+import com.app.clearsolutions.validator.UserValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Service implementation for creating users in bulk. Items are validated up front, then written in
+ * chunks, each chunk in its own transaction, so JDBC batching (pooled id allocation,
+ * hibernate.jdbc.batch_size) turns a chunk into a few multi-row statements. A failed item never rolls
+ * back the others: invalid items and duplicate emails are rejected before the insert, and a chunk that
+ * still hits the unique constraint (concurrent insert) is retried item by item.
+ */
+@Service
+public class BatchServiceImpl implements BatchService {
+    private static final String REQUIRED_FIELDS_MESSAGE = "User cannot be created without required fields " +
+            "(email, firstName, lastName, birthDate).";
+    private static final String DUPLICATE_EMAIL_MESSAGE = "User with such an email already exists!";
+    private static final String DUPLICATE_IN_BATCH_MESSAGE = "Email is used by another user of the batch.";
+
+    private final UserRepository userRepository;
+    private final UserValidator userValidator;
+    private final EmailFilter emailFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int maximumSize;
+
+    @Autowired
+    public BatchServiceImpl(UserRepository userRepository, UserValidator userValidator, EmailFilter emailFilter,
+                            PlatformTransactionManager transactionManager, ApplicationEventPublisher eventPublisher,
+                            @Value("${user-batch.chunk-size:500}") int chunkSize,
+                            @Value("${user-batch.maximum-size:10000}") int maximumSize) {
+        this.userRepository = userRepository;
+        this.userValidator = userValidator;
+        this.emailFilter = emailFilter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Creates the users of the batch and reports the outcome of every item.
+     *
+     * @param userDTOs The user DTOs to create.
+     * @return ResponseEntity containing one result per item, in request order.
+     * @throws IllegalArgumentException If the batch is empty or larger than the configured maximum size.
+     */
+    @Override
+    public ResponseEntity<DataDTO<BatchItemResultDTO>> createUsers(List<UserDTO> userDTOs) {
+        if (userDTOs == null || userDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one user.");
+        }
+        if (userDTOs.size() > maximumSize) {
+            throw new IllegalArgumentException(String.format("Batch must not contain more than %d users.",
+                    maximumSize));
+        }
+
+        return ResponseEntity.ok(new DataDTO<>(saveUsers(userDTOs), null));
+    }
+
+    /**
+     * Validates and inserts the users in chunks. Ids of the user DTOs are ignored.
+     *
+     * @param userDTOs The user DTOs to create.
+     * @return One result per item, in the order of the user DTOs.
+     */
+    @Override
+    public List<BatchItemResultDTO> saveUsers(List<UserDTO> userDTOs) {
+        BatchItemResultDTO[] results = new BatchItemResultDTO[userDTOs.size()];
+        List<Integer> pending = new ArrayList<>(userDTOs.size());
+        Set<String> emails = new HashSet<>();
+
+        for (int i = 0; i < userDTOs.size(); i++) {
+            String error = checkUserDTO(userDTOs.get(i));
+
+            if (error == null && !emails.add(normalizeEmail(userDTOs.get(i).getEmail()))) {
+                error = DUPLICATE_IN_BATCH_MESSAGE;
+            }
+            if (error == null) {
+                pending.add(i);
+            } else {
+                results[i] = BatchItemResultDTO.failed(i, error);
+            }
+        }
+
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            saveChunk(userDTOs, pending.subList(from, Math.min(from + chunkSize, pending.size())), results);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Helper method which checks one item of the batch.
+     *
+     * @param userDTO The user DTO to check.
+     * @return The reason why the user cannot be created, or null if it is valid.
+     */
+    private String checkUserDTO(UserDTO userDTO) {
+        if (userDTO == null || userDTO.getEmail() == null || userDTO.getFirstName() == null ||
+                userDTO.getLastName() == null || userDTO.getBirthDate() == null) {
+            return REQUIRED_FIELDS_MESSAGE;
+        }
+
+        try {
+            userValidator.validate(userDTO); // Check if userDTO contains valid data and user age
+        } catch (InvalidInputFormatException | IllegalArgumentException exception) {
+            return exception.getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * Helper method which inserts one chunk of valid items. Emails taken by existing users are rejected
+     * first (only the emails which the email filter may contain are looked up); if the insert still violates
+     * the unique constraint, the chunk is rolled back and retried item by item, so only the conflicting items
+     * fail.
+     *
+     * @param userDTOs The user DTOs of the batch.
+     * @param chunk    The positions of the items of the chunk.
+     * @param results  The results of the batch, filled in for the items of the chunk.
+     */
+    private void saveChunk(List<UserDTO> userDTOs, List<Integer> chunk, BatchItemResultDTO[] results) {
+        List<String> chunkEmails = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            if (emailFilter.mightContain(userDTOs.get(index).getEmail())) {
+                chunkEmails.add(userDTOs.get(index).getEmail());
+            }
+        }
+
+        Set<String> existingEmails = new HashSet<>();
+        if (!chunkEmails.isEmpty()) {
+            for (String email : userRepository.findExistingEmails(chunkEmails)) {
+                existingEmails.add(normalizeEmail(email));
+            }
+        }
+
+        List<Integer> toInsert = new ArrayList<>(chunk.size());
+        for (int index : chunk) {
+            if (existingEmails.contains(normalizeEmail(userDTOs.get(index).getEmail()))) {
+                results[index] = BatchItemResultDTO.failed(index, DUPLICATE_EMAIL_MESSAGE);
+            } else {
+                toInsert.add(index);
+            }
+        }
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        List<User> users;
+        try {
+            users = transactionTemplate.execute(status -> {
+                List<User> newUsers = new ArrayList<>(toInsert.size());
+                for (int index : toInsert) {
+                    newUsers.add(newUser(userDTOs.get(index)));
+                }
+                return userRepository.saveAllAndFlush(newUsers);
+            });
+        } catch (DataIntegrityViolationException exception) {
+            saveOneByOne(userDTOs, toInsert, results);
+            return;
+        }
+
+        for (int i = 0; i < toInsert.size(); i++) {
+            created(toInsert.get(i), users.get(i), results);
+        }
+    }
+
+    /**
+     * Helper method which inserts the items of a failed chunk one by one, each in its own transaction.
+     *
+     * @param userDTOs The user DTOs of the batch.
+     * @param indexes  The positions of the items to insert.
+     * @param results  The results of the batch, filled in for the items.
+     */
+    private void saveOneByOne(List<UserDTO> userDTOs, List<Integer> indexes, BatchItemResultDTO[] results) {
+        for (int index : indexes) {
+            try {
+                User user = transactionTemplate.execute(status ->
+                        userRepository.saveAndFlush(newUser(userDTOs.get(index))));
+                created(index, user, results);
+            } catch (DataIntegrityViolationException exception) {
+                results[index] = BatchItemResultDTO.failed(index, DUPLICATE_EMAIL_MESSAGE);
+            }
+        }
+    }
+
+    /**
+     * Helper method which records a created user and notifies the listeners of user changes.
+     *
+     * @param index   The position of the item in the batch.
+     * @param user    The created user.
+     * @param results The results of the batch.
+     */
+    private void created(int index, User user, BatchItemResultDTO[] results) {
+        results[index] = BatchItemResultDTO.created(index, user.getId());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), null, UserDTO.getDTOFromUser(user)));
+    }
+
+    /**
+     * Helper method which maps a user DTO to a new (not yet persisted) user. A fresh entity is created
+     * for every attempt, so a rolled back chunk leaves no ids behind.
+     *
+     * @param userDTO The user DTO.
+     * @return The new user.
+     */
+    private static User newUser(UserDTO userDTO) {
+        User user = User.getUserFromDTO(userDTO);
+        user.setId(0);
+        return user;
+    }
+
+    /**
+     * Helper method which normalizes an email for duplicate detection (the email column is compared
+     * case-insensitively by MySQL).
+     *
+     * @param email The email.
+     * @return The normalized email.
+     */
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
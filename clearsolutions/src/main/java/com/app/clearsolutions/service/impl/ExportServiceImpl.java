@@ -0,0 +1,96 @@
+package com.app.clearsolutions.service.impl;
+
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Service implementation for exporting users as NDJSON (one JSON user per line).
+ * Rows are read through a database cursor and written to the response one by one, so memory use
+ * does not depend on the number of exported users: nothing is collected into lists and the
+ * UserDTO projection leaves no managed entities in the persistence context.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter userWriter;
+
+    @Autowired
+    public ExportServiceImpl(UserRepository userRepository, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.userWriter = objectMapper.writerFor(UserDTO.class);
+    }
+
+    /**
+     * Exports active users ordered by id, optionally filtered by birth date range. The range is checked
+     * before the response is committed; the rows are streamed once the response body is written.
+     *
+     * @param from The start date of the birth date range filter.
+     * @param to   The end date of the birth date range filter.
+     * @return ResponseEntity with the NDJSON body.
+     * @throws IllegalArgumentException If the dates are invalid.
+     */
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportUsers(String from, String to) {
+        BirthDateRangeDTO birthDateRangeDTO = from.isEmpty() && to.isEmpty()
+                ? null : BirthDateRangeDTO.parse(from, to);
+
+        StreamingResponseBody body = outputStream -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserDTO> users = birthDateRangeDTO == null
+                    ? userRepository.streamActiveUsers()
+                    : userRepository.streamActiveUsersByBirthDateBetween(birthDateRangeDTO.lowerBound(),
+                    birthDateRangeDTO.upperBound())) {
+                writeUsers(users.iterator(), outputStream);
+            } catch (IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Helper method which writes users as NDJSON. The generator buffers a few kilobytes at a time
+     * and hands them to the response, which flushes to the client as its buffer fills up.
+     *
+     * @param users        The users to write.
+     * @param outputStream The response body.
+     * @throws IOException If writing to the response fails (e.g. the client has disconnected).
+     */
+    private void writeUsers(Iterator<UserDTO> users, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container closes the response
+            generator.setRootValueSeparator(null); // lines are terminated explicitly
+
+            while (users.hasNext()) {
+                userWriter.writeValue(generator, users.next());
+                generator.writeRaw('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.app.clearsolutions.service.impl;
+
+import com.app.clearsolutions.model.ImportFormat;
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.ImportErrorDTO;
+import com.app.clearsolutions.model.dto.ImportReportDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.service.BatchService;
+import com.app.clearsolutions.service.ImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Service implementation for importing users from CSV or NDJSON files.
+ * The request body is read line by line and at most one chunk of parsed users is held in memory:
+ * the next line is only read once the previous chunk has been committed through the batch service,
+ * so a fast client is throttled by TCP flow control instead of filling the heap (back-pressure).
+ * Every line is created or rejected independently; rejected lines are reported with their line
+ * number and the import can be resumed after the last committed line. With user-import.chunk-size
+ * not larger than user-batch.chunk-size a chunk is committed in one transaction; lines replayed
+ * on resume are rejected as duplicate emails either way.
+ */
+@Service
+public class ImportServiceImpl implements ImportService {
+    private static final String[] CSV_COLUMNS = {"email", "firstName", "lastName", "birthDate", "address",
+            "phoneNumber"};
+
+    private final BatchService batchService;
+    private final ObjectReader userReader;
+    private final int chunkSize;
+    private final int maximumReportedErrors;
+
+    @Autowired
+    public ImportServiceImpl(BatchService batchService, ObjectMapper objectMapper,
+                             @Value("${user-import.chunk-size:500}") int chunkSize,
+                             @Value("${user-import.maximum-reported-errors:1000}") int maximumReportedErrors) {
+        this.batchService = batchService;
+        this.userReader = objectMapper.readerFor(UserDTO.class);
+        this.chunkSize = chunkSize;
+        this.maximumReportedErrors = maximumReportedErrors;
+    }
+
+    /**
+     * Imports users from a CSV or NDJSON request body. Lines are numbered from 1 (the CSV header is line 1),
+     * blank lines are skipped.
+     *
+     * @param inputStream     The request body.
+     * @param contentType     The content type of the request body ('text/csv' or 'application/x-ndjson').
+     * @param resumeAfterLine The number of lines to skip (lastCommittedLine of an interrupted import), or 0.
+     * @return ResponseEntity containing the import report, with status 500 if the import was interrupted.
+     * @throws IllegalArgumentException If the content type, the CSV header or resumeAfterLine is invalid.
+     */
+    @Override
+    public ResponseEntity<DataDTO<ImportReportDTO>> importUsers(InputStream inputStream, String contentType,
+                                                                long resumeAfterLine) {
+        if (resumeAfterLine < 0) {
+            throw new IllegalArgumentException("'resumeAfterLine' must not be negative.");
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        ImportFormat format = ImportFormat.fromMediaType(mediaType);
+        Charset charset = mediaType.getCharset() == null ? StandardCharsets.UTF_8 : mediaType.getCharset();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        ImportReportDTO report = new ImportReportDTO(resumeAfterLine);
+        List<UserDTO> chunk = new ArrayList<>(chunkSize);
+        long[] chunkLines = new long[chunkSize];
+        long lineNumber = 0;
+
+        try {
+            int[] columns = null;
+            if (format == ImportFormat.CSV) {
+                columns = parseCsvHeader(reader.readLine());
+                lineNumber++;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfterLine || line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(format == ImportFormat.CSV ? parseCsvLine(line, columns) : parseJsonLine(line));
+                } catch (IllegalArgumentException exception) {
+                    reject(report, lineNumber, exception.getMessage());
+                    continue;
+                }
+                chunkLines[chunk.size() - 1] = lineNumber;
+
+                if (chunk.size() == chunkSize) {
+                    commitChunk(chunk, chunkLines, report);
+                    report.setLastCommittedLine(lineNumber);
+                }
+            }
+            commitChunk(chunk, chunkLines, report);
+            report.setLastCommittedLine(Math.max(lineNumber, resumeAfterLine));
+            report.setCompleted(true);
+        } catch (IOException | DataAccessException exception) {
+            report.setFailure(exception.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new DataDTO<>(report));
+        }
+
+        return ResponseEntity.ok(new DataDTO<>(report));
+    }
+
+    /**
+     * Helper method which creates the users of a chunk through the batch service and records the outcome
+     * of every line.
+     *
+     * @param chunk      The parsed users, emptied afterwards.
+     * @param chunkLines The line numbers of the parsed users.
+     * @param report     The import report.
+     */
+    private void commitChunk(List<UserDTO> chunk, long[] chunkLines, ImportReportDTO report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        for (BatchItemResultDTO result : batchService.saveUsers(chunk)) {
+            if (result.getId() != null) {
+                report.setCreated(report.getCreated() + 1);
+            } else {
+                reject(report, chunkLines[result.getIndex()], result.getMessage());
+            }
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Helper method which records a rejected line. Only the first rejected lines are listed.
+     *
+     * @param report     The import report.
+     * @param lineNumber The number of the rejected line.
+     * @param message    The reason of the rejection.
+     */
+    private void reject(ImportReportDTO report, long lineNumber, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < maximumReportedErrors) {
+            report.getErrors().add(new ImportErrorDTO(lineNumber, message));
+        }
+    }
+
+    /**
+     * Helper method which parses one NDJSON line.
+     *
+     * @param line The line.
+     * @return The user DTO.
+     * @throws IllegalArgumentException If the line is not a JSON user.
+     */
+    private UserDTO parseJsonLine(String line) {
+        try {
+            return userReader.readValue(line);
+        } catch (JsonProcessingException exception) {
+            throw new IllegalArgumentException("Malformed JSON line.");
+        }
+    }
+
+    /**
+     * Helper method which resolves the columns of a CSV file from its header line.
+     * Column names are those of UserDTO (case-insensitive, in any order).
+     *
+     * @param header The header line.
+     * @return The index in CSV_COLUMNS of every column.
+     * @throws IllegalArgumentException If the header is missing or names an unknown or repeated column.
+     */
+    private static int[] parseCsvHeader(String header) {
+        if (header == null || header.isBlank()) {
+            throw new IllegalArgumentException("CSV header is missing.");
+        }
+        if (header.charAt(0) == '\uFEFF') { // byte order mark
+            header = header.substring(1);
+        }
+
+        List<String> names = splitCsvLine(header);
+        int[] columns = new int[names.size()];
+        boolean[] seen = new boolean[CSV_COLUMNS.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = -1;
+            for (int field = 0; field < CSV_COLUMNS.length; field++) {
+                if (CSV_COLUMNS[field].equalsIgnoreCase(names.get(i).trim())) {
+                    columns[i] = field;
+                }
+            }
+            if (columns[i] == -1 || seen[columns[i]]) {
+                throw new IllegalArgumentException(String.format("Unknown or repeated CSV column '%s'. " +
+                        "Supported columns: %s.", names.get(i).trim(), String.join(", ", CSV_COLUMNS)));
+            }
+            seen[columns[i]] = true;
+        }
+        return columns;
+    }
+
+    /**
+     * Helper method which parses one CSV line. Empty values are treated as absent.
+     *
+     * @param line    The line.
+     * @param columns The columns resolved from the header.
+     * @return The user DTO.
+     * @throws IllegalArgumentException If the line does not match the header or the birth date is invalid.
+     */
+    private static UserDTO parseCsvLine(String line, int[] columns) {
+        List<String> values = splitCsvLine(line);
+        if (values.size() != columns.length) {
+            throw new IllegalArgumentException(String.format("Expected %d values, found %d.",
+                    columns.length, values.size()));
+        }
+
+        UserDTO userDTO = new UserDTO();
+        for (int i = 0; i < columns.length; i++) {
+            String value = values.get(i).isEmpty() ? null : values.get(i);
+
+            switch (columns[i]) {
+                case 0 -> userDTO.setEmail(value);
+                case 1 -> userDTO.setFirstName(value);
+                case 2 -> userDTO.setLastName(value);
+                case 3 -> userDTO.setBirthDate(parseDate(value));
+                case 4 -> userDTO.setAddress(value);
+                default -> userDTO.setPhoneNumber(value);
+            }
+        }
+        return userDTO;
+    }
+
+    /**
+     * Helper method which parses a birth date value.
+     *
+     * @param value The value, or null.
+     * @return The date, or null.
+     * @throws IllegalArgumentException If the value is not a date.
+     */
+    private static LocalDate parseDate(String value) {
+        try {
+            return value == null ? null : LocalDate.parse(value);
+        } catch (DateTimeParseException exception) {
+            throw new IllegalArgumentException("Wrong date format. Example of correct format: '2000-01-01'");
+        }
+    }
+
+    /**
+     * Helper method which splits a CSV line into values (RFC 4180 quoting, a record per line).
+     *
+     * @param line The line.
+     * @return The values.
+     * @throws IllegalArgumentException If a quoted value is not terminated.
+     */
+    private static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') { // escaped quote
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value.");
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
@@ -0,0 +1,115 @@
+package com.app.clearsolutions.service.impl;
+
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.Pagination;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.search.UserSearchIndex;
+import com.app.clearsolutions.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static com.app.clearsolutions.datasource.PrimaryReadConfig.PRIMARY_READ_TRANSACTION_TEMPLATE;
+
+/**
+ * Service implementation for type-ahead search. Matches are found in the in-memory prefix index, loaded from
+ * the database once when the application is ready; only the users of the requested page are read from the
+ * database, by primary key.
+ */
+@Service
+public class SearchServiceImpl implements SearchService {
+    private static final Logger log = LoggerFactory.getLogger(SearchServiceImpl.class);
+
+    private final UserSearchIndex userSearchIndex;
+    private final UserRepository userRepository;
+    private final TransactionTemplate primaryReadTransactionTemplate;
+    private final TransactionTemplate readTransactionTemplate;
+    private final int maximumResults;
+
+    @Autowired
+    public SearchServiceImpl(UserSearchIndex userSearchIndex, UserRepository userRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Qualifier(PRIMARY_READ_TRANSACTION_TEMPLATE) TransactionTemplate primaryReadTransactionTemplate,
+                             @Value("${user-search.maximum-results:1000}") int maximumResults) {
+        this.userSearchIndex = userSearchIndex;
+        this.userRepository = userRepository;
+        this.primaryReadTransactionTemplate = primaryReadTransactionTemplate;
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+        this.maximumResults = maximumResults;
+    }
+
+    /**
+     * Loads the search index from the database (searchable fields of the active users, streamed).
+     */
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.nanoTime();
+
+        primaryReadTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<UserSearchDTO> users = userRepository.streamActiveUserSearchFields()) {
+                userSearchIndex.load(users);
+            }
+        });
+        log.info("Search index of {} keys loaded in {} ms", userSearchIndex.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Searches the active users whose first name, last name or email starts with the query (case-insensitive).
+     * At most user-search.maximum-results matches are found; they are paged like the user listing
+     * (the sort of the pageable is ignored, users are ordered by their first matching field, then by id).
+     *
+     * @param query    The prefix to search for.
+     * @param pageable The pagination information.
+     * @return ResponseEntity containing a page of matching users and pagination details.
+     * @throws IllegalArgumentException If the query is blank.
+     */
+    @Override
+    public ResponseEntity<DataDTO<UserDTO>> searchUsers(String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty.");
+        }
+
+        List<Long> ids = userSearchIndex.search(query, maximumResults);
+        List<Long> pageIds = ids;
+        int numberOfPages = 1;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+            numberOfPages = (ids.size() + pageable.getPageSize() - 1) / pageable.getPageSize();
+        }
+
+        List<UserDTO> users = List.of();
+        if (!pageIds.isEmpty()) {
+            Map<Long, Integer> positions = new HashMap<>(pageIds.size() * 2);
+            for (int i = 0; i < pageIds.size(); i++) {
+                positions.put(pageIds.get(i), i);
+            }
+            List<Long> idsToLoad = pageIds;
+            users = readTransactionTemplate.execute(status -> userRepository.findActiveUsersByIdIn(idsToLoad)).stream()
+                    .sorted(Comparator.comparing(user -> positions.get(user.getId())))
+                    .toList();
+        }
+
+        return ResponseEntity.ok(new DataDTO<>(new Pagination(ids.size(), numberOfPages), users));
+    }
+}
@@ -1,59 +1,109 @@
 package com.app.clearsolutions.service.impl;
 
+import com.app.clearsolutions.cache.CachedUser;
+import com.app.clearsolutions.cache.EmailFilter;
+import com.app.clearsolutions.cache.UserCache;
+import com.app.clearsolutions.cache.UserCountCache;
+import com.app.clearsolutions.cache.UserListVersion;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.exception.DuplicateEmailException;
 import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.exception.PreconditionFailedException;
+import com.app.clearsolutions.exception.UserDeletedException;
+import com.app.clearsolutions.exception.UserNotFoundException;
 import com.app.clearsolutions.helper.UpdateHelper;
+import com.app.clearsolutions.model.EntityTag;
+import com.app.clearsolutions.model.PagingMode;
 import com.app.clearsolutions.model.User;
 import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.CursorDTO;
 import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.DeactivationDTO;
+import com.app.clearsolutions.model.dto.DeactivationResultDTO;
 import com.app.clearsolutions.model.dto.Pagination;
 import com.app.clearsolutions.model.dto.UserDTO;
 import com.app.clearsolutions.repository.UserRepository;
 import com.app.clearsolutions.service.UserService;
+import com.app.clearsolutions.validator.UserValidator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.env.Environment;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
 import java.time.LocalDate;
-import java.time.Period;
 import java.time.format.DateTimeParseException;
-import java.util.Objects;
-import java.util.regex.Pattern;
+import java.util.List;
 
 /**
  * Service implementation for managing user-related operations.
  */
 @Service
 public class UserServiceImpl implements UserService {
+    // bound of the id list of a bulk deactivation (a single IN list)
+    private static final int MAXIMUM_DEACTIVATION_IDS = 10000;
+    private static final String NO_SUCH_USER_MESSAGE = "There is no user with such an id.";
+    private static final String DELETED_USER_MESSAGE = "User with such an id has been deleted.";
+    private static final String PRECONDITION_FAILED_MESSAGE = "User has been changed since the version " +
+            "of If-Match.";
+
     private final UserRepository userRepository;
-    private final Environment environment;
+    private final UserValidator userValidator;
     private final UpdateHelper updateHelper;
+    private final UserCountCache userCountCache;
+    private final UserCache userCache;
+    private final EmailFilter emailFilter;
+    private final UserListVersion userListVersion;
+    private final TransactionTemplate transactionTemplate;
+    // reads: read-only transactions (no flush, no dirty checking), routed to a read replica if replicas are set
+    private final TransactionTemplate readTransactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository, Environment environment, UpdateHelper updateHelper) {
+    public UserServiceImpl(UserRepository userRepository, UserValidator userValidator, UpdateHelper updateHelper,
+                           UserCountCache userCountCache, UserCache userCache, EmailFilter emailFilter,
+                           UserListVersion userListVersion, PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
-        this.environment = environment;
+        this.userValidator = userValidator;
         this.updateHelper = updateHelper;
+        this.userCountCache = userCountCache;
+        this.userCache = userCache;
+        this.emailFilter = emailFilter;
+        this.userListVersion = userListVersion;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readTransactionTemplate.setReadOnly(true);
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Creates a new user based on provided user DTO.
+     * Creates a new user based on provided user DTO. An email which the email filter may contain is
+     * checked by an indexed existence query first, so a duplicate is rejected without a failed insert.
      *
      * @param userDTO      The user DTO containing user information.
      * @param uriBuilder   The URI components builder for creating resource URIs.
      * @return ResponseEntity with HTTP status indicating success or failure.
      * @throws InvalidInputFormatException If the input data is invalid.
+     * @throws DuplicateEmailException If a user with such an email already exists.
      */
     @Override
     public ResponseEntity<Void> createUser(UserDTO userDTO, UriComponentsBuilder uriBuilder)
             throws InvalidInputFormatException {
-        checkUserDTO(userDTO); // Check if userDTO contains valid data
-        if (userDTO.getBirthDate() != null) {
-            checkUserAge(userDTO.getBirthDate()); // Check user age
+        userValidator.validate(userDTO); // Check if userDTO contains valid data and user age
+
+        if (userDTO.getEmail() != null && emailFilter.mightContain(userDTO.getEmail())
+                && userRepository.existsByEmail(userDTO.getEmail())) {
+            throw new DuplicateEmailException("Duplicate email.");
         }
 
         User user;
@@ -64,7 +114,7 @@ public class UserServiceImpl implements UserService {
             throw new InvalidInputFormatException("User cannot be created without required fields " +
                     "(email, firstName, lastName, birthDate).");
         }
-
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), null, UserDTO.getDTOFromUser(user)));
 
         URI uriLocation = uriBuilder.path("/api/users/{id}") // Build URI for created user
                 .buildAndExpand(user.getId())
@@ -82,27 +132,109 @@ public class UserServiceImpl implements UserService {
      * @return ResponseEntity containing a list of users and pagination details.
      */
     @Override
-    public ResponseEntity<DataDTO> getUsers(String from, String to, Pageable pageable) {
-        Page<User> usersPage;
-
-        if (from.isEmpty() && to.isEmpty()) { // Retrieve all users with pagination
-            usersPage = userRepository.findUsersByIsActiveIsTrue(pageable);
-        } else {
+    public ResponseEntity<DataDTO<UserDTO>> getUsers(String from, String to, Pageable pageable) {
+        // The page and the count query run in one read-only transaction
+        Page<UserDTO> usersPage = readTransactionTemplate.execute(status -> {
+            if (from.isEmpty() && to.isEmpty()) { // Retrieve all users with pagination
+                return userRepository.findUsersByIsActiveIsTrue(pageable);
+            }
             try { // Retrieve users within specified birth date range with pagination
-                usersPage = getUsersByBirthDateRange(new BirthDateRangeDTO(from, to), pageable);
+                return getUsersByBirthDateRange(new BirthDateRangeDTO(from, to), pageable);
             } catch (DateTimeParseException exception) {
                 throw new IllegalArgumentException("Wrong date format. Example of correct format: '2000-01-01'");
             }
-        }
-        DataDTO usersData = new DataDTO(new Pagination(usersPage.getTotalElements(), usersPage.getTotalPages()),
-                usersPage.getContent().stream()
-                        .map(UserDTO::getDTOFromUser)
-                        .map(u -> (Object)u)
-                        .toList());
+        });
+        DataDTO<UserDTO> usersData = new DataDTO<>(
+                new Pagination(usersPage.getTotalElements(), usersPage.getTotalPages()), usersPage.getContent());
 
         return ResponseEntity.ok(usersData);
     }
 
+    /**
+     * Retrieves all users with pagination in the requested mode and optional filtering by birth date range.
+     * 'page' mode runs a count query on every call, 'slice' mode skips the count and only reports whether there
+     * is a next page, 'cached' mode takes the totals from a count cached per filter and kept up to date on writes.
+     * The response carries the entity tag of the user listing; if it matches If-None-Match, no query is run.
+     *
+     * @param from        The start date of the birth date range filter.
+     * @param to          The end date of the birth date range filter.
+     * @param pageable    The pagination information.
+     * @param paging      The paging mode ('page', 'slice' or 'cached').
+     * @param ifNoneMatch The If-None-Match header, or null.
+     * @return ResponseEntity containing a list of users and pagination details, or 304 Not Modified.
+     * @throws IllegalArgumentException If the dates or the paging mode are invalid.
+     */
+    @Override
+    public ResponseEntity<DataDTO<UserDTO>> getUsers(String from, String to, Pageable pageable, String paging,
+                                                     String ifNoneMatch) {
+        PagingMode pagingMode = PagingMode.fromParameter(paging);
+        BirthDateRangeDTO birthDateRangeDTO = BirthDateRangeDTO.parse(from, to);
+        String etag = userListVersion.getETag(); // Taken before the query, so a racing write changes the next tag
+
+        if (EntityTag.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (pagingMode == PagingMode.PAGE) {
+            return ResponseEntity.ok().eTag(etag).body(getUsers(from, to, pageable).getBody());
+        }
+
+        Slice<UserDTO> usersSlice = readTransactionTemplate.execute(status ->
+                getUsersSliceByBirthDateRange(birthDateRangeDTO, pageable));
+        Pagination pagination;
+
+        if (pagingMode == PagingMode.SLICE) {
+            pagination = new Pagination(usersSlice.hasNext());
+        } else {
+            long numberOfItems = userCountCache.getCount(birthDateRangeDTO,
+                    () -> countUsersByBirthDateRange(birthDateRangeDTO));
+            int numberOfPages = pageable.isPaged()
+                    ? (int) ((numberOfItems + pageable.getPageSize() - 1) / pageable.getPageSize())
+                    : 1;
+            pagination = new Pagination(numberOfItems, numberOfPages);
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(new DataDTO<>(pagination, usersSlice.getContent()));
+    }
+
+    /**
+     * Helper method which retrieves a slice (no count query) of active users based on provided birth date
+     * range parameters. Both dates null means no filtering.
+     *
+     * @param birthDateRangeDTO The birth date range DTO containing 'from' and 'to' dates.
+     * @param pageable          The pagination information.
+     * @return A slice of active users within the specified birth date range.
+     */
+    private Slice<UserDTO> getUsersSliceByBirthDateRange(BirthDateRangeDTO birthDateRangeDTO, Pageable pageable) {
+        if (birthDateRangeDTO.getFrom() == null && birthDateRangeDTO.getTo() == null) {
+            return userRepository.findSliceByIsActiveIsTrue(pageable);
+        } else if (birthDateRangeDTO.getFrom() == null) {
+            return userRepository.findSliceByBirthDateBeforeAndIsActiveIsTrue(birthDateRangeDTO.getTo(), pageable);
+        } else if (birthDateRangeDTO.getTo() == null) {
+            return userRepository.findSliceByBirthDateAfterAndIsActiveIsTrue(birthDateRangeDTO.getFrom(), pageable);
+        }
+        return userRepository.findSliceByBirthDateBetweenAndIsActiveIsTrue(
+                birthDateRangeDTO.getFrom(), birthDateRangeDTO.getTo(), pageable);
+    }
+
+    /**
+     * Helper method which counts active users based on provided birth date range parameters.
+     * Both dates null means no filtering.
+     *
+     * @param birthDateRangeDTO The birth date range DTO containing 'from' and 'to' dates.
+     * @return The number of active users within the specified birth date range.
+     */
+    private long countUsersByBirthDateRange(BirthDateRangeDTO birthDateRangeDTO) {
+        if (birthDateRangeDTO.getFrom() == null && birthDateRangeDTO.getTo() == null) {
+            return userRepository.countByIsActiveIsTrue();
+        } else if (birthDateRangeDTO.getFrom() == null) {
+            return userRepository.countByBirthDateBeforeAndIsActiveIsTrue(birthDateRangeDTO.getTo());
+        } else if (birthDateRangeDTO.getTo() == null) {
+            return userRepository.countByBirthDateAfterAndIsActiveIsTrue(birthDateRangeDTO.getFrom());
+        }
+        return userRepository.countByBirthDateBetweenAndIsActiveIsTrue(
+                birthDateRangeDTO.getFrom(), birthDateRangeDTO.getTo());
+    }
+
     /**
      * Helper method which retrieves users based on provided birth date range parameters.
      *
@@ -111,14 +243,14 @@ public class UserServiceImpl implements UserService {
      * @return A page of active users within the specified birth date range.
      * @throws IllegalArgumentException If the 'from' date is after the 'to' date.
      */
-    public Page<User> getUsersByBirthDateRange(BirthDateRangeDTO birthDateRangeDTO, Pageable pageable) {
+    public Page<UserDTO> getUsersByBirthDateRange(BirthDateRangeDTO birthDateRangeDTO, Pageable pageable) {
         // Check if 'from' date is before 'to' date
         if (birthDateRangeDTO.getFrom() != null && birthDateRangeDTO.getTo() != null &&
                 birthDateRangeDTO.getFrom().isAfter(birthDateRangeDTO.getTo())) {
             throw new IllegalArgumentException("Chronology failure. 'From' should be earlier than 'to'!");
         }
 
-        Page<User> usersPage;
+        Page<UserDTO> usersPage;
 
         // Retrieve users based on specified birth date range
         if(birthDateRangeDTO.getFrom() == null) {
@@ -134,139 +266,319 @@ public class UserServiceImpl implements UserService {
     }
 
     /**
-     * Retrieves a user by ID.
+     * Retrieves one page of active users with cursor (keyset) pagination and optional filtering by birth
+     * date range. Users are ordered by id, or by birth date and id if a range is specified, and the page
+     * starts right after the position encoded in the cursor, so the cost of a page does not depend on
+     * how deep it is. The range bounds have the same meaning as in {@link #getUsers}.
      *
-     * @param id The ID of the user to retrieve.
-     * @return ResponseEntity containing the user data.
+     * @param from  The start date of the birth date range filter.
+     * @param to    The end date of the birth date range filter.
+     * @param after       The cursor returned with the previous page, or an empty string for the first page.
+     * @param size        The maximum number of users in the page.
+     * @param ifNoneMatch The If-None-Match header, or null.
+     * @return ResponseEntity containing a list of users and the cursor of the next page (absent on the last page),
+     * or 304 Not Modified if the entity tag of the user listing matches If-None-Match.
+     * @throws IllegalArgumentException If the dates or the cursor are invalid.
      */
     @Override
-    public ResponseEntity<DataDTO> getUserById(long id) {
-        User user = userRepository.findUserById(id);
+    public ResponseEntity<DataDTO<UserDTO>> getUsersAfter(String from, String to, String after, int size,
+                                                          String ifNoneMatch) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        CursorDTO cursor = after.isEmpty() ? null : CursorDTO.decode(after);
+        Pageable limit = PageRequest.ofSize(size + 1); // one extra row tells if there is a next page
+        boolean byBirthDate = !from.isEmpty() || !to.isEmpty();
+        List<UserDTO> users;
 
-        if (!user.getIsActive()) {
-            throw new NullPointerException("User with such an id has been deleted.");
+        if (cursor != null && (cursor.getBirthDate() != null) != byBirthDate) {
+            throw new IllegalArgumentException("Cursor does not match the requested filter.");
         }
+        BirthDateRangeDTO birthDateRangeDTO = BirthDateRangeDTO.parse(from, to);
+        String etag = userListVersion.getETag(); // Taken before the query, so a racing write changes the next tag
 
-        return ResponseEntity.ok(new DataDTO(UserDTO.getDTOFromUser(user)));
+        if (EntityTag.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+
+        users = readTransactionTemplate.execute(status -> {
+            if (!byBirthDate) {
+                return userRepository.findActiveUsersAfterId(cursor == null ? 0 : cursor.getId(), limit);
+            }
+            LocalDate lower = birthDateRangeDTO.lowerBound();
+            LocalDate upper = birthDateRangeDTO.upperBound();
+
+            return userRepository.findActiveUsersByBirthDateAfterKey(lower, upper,
+                    cursor == null ? lower.minusDays(1) : cursor.getBirthDate(),
+                    cursor == null ? 0 : cursor.getId(), limit);
+        });
+
+        String nextCursor = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            UserDTO last = users.get(size - 1);
+            nextCursor = new CursorDTO(byBirthDate ? last.getBirthDate() : null, last.getId()).encode();
+        }
+
+        return ResponseEntity.ok().eTag(etag).body(new DataDTO<>(new Pagination(nextCursor), users));
     }
 
     /**
-     * Deletes a user by ID (sets isActive to false).
+     * Retrieves a user by ID. Lookups go through the user cache, which also remembers deleted
+     * and non-existent ids; write paths keep it in sync through UserChangedEvent.
+     * The response carries the version of the user as a strong entity tag. If-None-Match is checked against
+     * the cached version, or a version-only query, so an unchanged user is answered with 304 Not Modified
+     * without loading it.
      *
-     * @param id The ID of the user to delete.
-     * @return ResponseEntity indicating success or failure.
+     * @param id          The ID of the user to retrieve.
+     * @param ifNoneMatch The If-None-Match header, or null.
+     * @return ResponseEntity containing the user data, or 304 Not Modified.
+     * @throws UserNotFoundException If there is no user with such an id.
+     * @throws UserDeletedException  If the user has been deleted.
      */
     @Override
-    public ResponseEntity<Void> deleteUser(long id) {
-        User user = userRepository.findUserById(id);
+    public ResponseEntity<DataDTO<UserDTO>> getUserById(long id, String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            CachedUser cached = userCache.getIfPresent(id);
+            Long version = cached == null ? userRepository.findActiveUserVersion(id)
+                    : cached.getUser() != null ? cached.getVersion() : null;
+
+            if (version != null && EntityTag.matches(ifNoneMatch, EntityTag.of(version))) {
+                return notModified(EntityTag.of(version));
+            }
+        }
 
-        if (user == null) {
-            throw new NullPointerException("There is no user with such an id.");
+        CachedUser cachedUser = userCache.get(id, this::loadUser); // Read through the user cache
+
+        if (cachedUser.getUser() == null) {
+            throw cachedUser.isDeleted() ? new UserDeletedException(DELETED_USER_MESSAGE)
+                    : new UserNotFoundException(NO_SUCH_USER_MESSAGE);
         }
 
-        user.setActive(false); // Set user as inactive (deleted)
-        userRepository.save(user);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok().eTag(EntityTag.of(cachedUser.getVersion()))
+                .body(new DataDTO<>(cachedUser.getUser()));
     }
 
     /**
-     * Updates all fields of a user with the provided user DTO.
+     * Helper method which builds a 304 Not Modified response.
      *
-     * @param userDTO The user DTO containing updated user information.
-     * @param id      The ID of the user to update.
+     * @param etag The current entity tag.
+     * @return ResponseEntity with the Not Modified status and the entity tag, without a body.
+     */
+    private static ResponseEntity<DataDTO<UserDTO>> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+
+    /**
+     * Helper method which loads the user cache entry of a user from the database.
+     *
+     * @param id The ID of the user.
+     * @return The user data, or a negative entry if the user is deleted or does not exist.
+     */
+    private CachedUser loadUser(long id) {
+        User user = readTransactionTemplate.execute(status -> userRepository.findUserById(id));
+
+        if (user == null) {
+            return CachedUser.MISSING;
+        }
+        return user.getIsActive()
+                ? CachedUser.active(UserDTO.getDTOFromUser(user), user.getVersion()) : CachedUser.DELETED;
+    }
+
+    /**
+     * Deletes a user by ID (sets isActive to false) with a single UPDATE statement. The user is only read
+     * (existence check) if no active user was updated; deleting a deleted user succeeds.
+     * With If-Match, the user is only deleted if it still has the version of the entity tag. The previous state
+     * of a cached user is passed to the listeners, so that they can adjust (rather than drop) what they derive.
+     *
+     * @param id      The ID of the user to delete.
+     * @param ifMatch The If-Match header, or null.
      * @return ResponseEntity indicating success or failure.
-     * @throws InvalidInputFormatException If the input data is invalid.
+     * @throws UserNotFoundException       If there is no user with such an id.
+     * @throws PreconditionFailedException If the user has another version than the one of If-Match.
      */
     @Override
-    public ResponseEntity<Void> updateAllUserFields(UserDTO userDTO, long id)
-            throws InvalidInputFormatException {
-        checkUserDTO(userDTO); // Check if userDTO contains valid data
-        if (userDTO.getBirthDate() != null) {
-            checkUserAge(userDTO.getBirthDate());
+    public ResponseEntity<Void> deleteUser(long id, String ifMatch) {
+        Long requiredVersion = EntityTag.requiredVersion(ifMatch);
+        CachedUser cached = userCache.getIfPresent(id); // Previous state for the listeners, if known for free
+        int deactivated = requiredVersion == null // Set user as inactive (deleted) if active
+                ? userRepository.deactivateUserById(id)
+                : userRepository.deactivateUserByIdWithVersion(id, requiredVersion);
+
+        if (deactivated == 0) { // Not active: deleted before, or no such user, or another version
+            Boolean active = userRepository.findIsActiveById(id);
+
+            if (active == null) {
+                throw new UserNotFoundException(NO_SUCH_USER_MESSAGE);
+            }
+            if (active) { // Still active, so it has another version than the one of If-Match
+                throw new PreconditionFailedException(PRECONDITION_FAILED_MESSAGE);
+            }
+            return ResponseEntity.ok().build();
         }
-        User user = userRepository.findUserById(id); // Check user age
-        userDTO.setId(id);
+        eventPublisher.publishEvent(cached != null && cached.getUser() != null
+                ? new UserChangedEvent(id, cached.getUser(), null)
+                : new UsersDeactivatedEvent(List.of(id), null, deactivated));
+        return ResponseEntity.ok().build();
+    }
 
-        if (!user.getIsActive()) {
-            throw new NullPointerException("User with such an id has been deleted.");
+    /**
+     * Deactivates (deletes) the active users with the given ids or birth dates in the given range,
+     * with a single UPDATE statement.
+     *
+     * @param deactivationDTO The ids, or the birth date range, of the users to deactivate.
+     * @return ResponseEntity containing the number of deactivated users.
+     * @throws IllegalArgumentException If neither or both of the ids and the range are given, the id list is
+     *                                  empty or too long, or the dates are invalid.
+     */
+    @Override
+    public ResponseEntity<DataDTO<DeactivationResultDTO>> deactivateUsers(DeactivationDTO deactivationDTO) {
+        List<Long> ids = deactivationDTO.getIds();
+        String from = deactivationDTO.getFrom() == null ? "" : deactivationDTO.getFrom();
+        String to = deactivationDTO.getTo() == null ? "" : deactivationDTO.getTo();
+        boolean byRange = !from.isEmpty() || !to.isEmpty();
+
+        if (ids == null == !byRange) {
+            throw new IllegalArgumentException("Specify either the ids or the birth date range ('from'/'to') " +
+                    "of the users to deactivate.");
         }
 
-        try {
-            if (!updateHelper.checkIfFieldsAreNonNull(userDTO)) { // Check if all fields are specified
-                throw new IllegalArgumentException("You need to specify all the fields to update with 'put'.");
+        int deactivated;
+        BirthDateRangeDTO birthDateRangeDTO = null;
+
+        if (ids != null) {
+            if (ids.isEmpty()) {
+                throw new IllegalArgumentException("Specify at least one id of the users to deactivate.");
             }
-            userRepository.save(User.getUserFromDTO(userDTO));
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+            if (ids.size() > MAXIMUM_DEACTIVATION_IDS) {
+                throw new IllegalArgumentException(String.format("Cannot deactivate more than %d ids at once.",
+                        MAXIMUM_DEACTIVATION_IDS));
+            }
+            deactivated = userRepository.deactivateUsersByIdIn(ids);
+        } else {
+            birthDateRangeDTO = BirthDateRangeDTO.parse(from, to);
+            deactivated = userRepository.deactivateUsersByBirthDateBetween(birthDateRangeDTO.lowerBound(),
+                    birthDateRangeDTO.upperBound());
         }
-        return ResponseEntity.ok().build();
+
+        if (deactivated > 0) {
+            eventPublisher.publishEvent(new UsersDeactivatedEvent(ids, birthDateRangeDTO, deactivated));
+        }
+        return ResponseEntity.ok(new DataDTO<>(new DeactivationResultDTO(deactivated)));
     }
 
     /**
-     * Partially updates a user with the provided user DTO.
+     * Updates all fields of a user with the provided user DTO, with a single UPDATE statement (no previous
+     * read, no merge). The user is only read (existence check) if no active user was updated.
+     * With If-Match, the user is only updated if it still has the version of the entity tag.
      *
      * @param userDTO The user DTO containing updated user information.
      * @param id      The ID of the user to update.
+     * @param ifMatch The If-Match header, or null.
      * @return ResponseEntity indicating success or failure.
      * @throws InvalidInputFormatException If the input data is invalid.
+     * @throws UserNotFoundException       If there is no user with such an id.
+     * @throws UserDeletedException        If the user has been deleted.
+     * @throws PreconditionFailedException If the user has another version than the one of If-Match.
      */
     @Override
-    public ResponseEntity<Void> partialUpdateUser(UserDTO userDTO, long id)
+    public ResponseEntity<Void> updateAllUserFields(UserDTO userDTO, long id, String ifMatch)
             throws InvalidInputFormatException {
-        if (userDTO.getBirthDate() != null) {
-            checkUserAge(userDTO.getBirthDate()); // Check user age
-        }
-        checkUserDTO(userDTO); // Check if userDTO contains valid data
-
-        User user = userRepository.findUserById(id);
+        userValidator.validate(userDTO); // Check if userDTO contains valid data and user age
         userDTO.setId(id);
 
-        if (!user.getIsActive()) {
-            throw new NullPointerException("User with such an id has been deleted.");
-        }
-
         try {
-            updateHelper.userPatcher(user, userDTO); // Partially update user fields
-            userRepository.save(user);
-        } catch (IllegalAccessException | NoSuchFieldException e) {
+            if (!updateHelper.checkIfFieldsAreNonNull(userDTO)) { // Check if all fields are specified
+                throw new IllegalArgumentException("You need to specify all the fields to update with 'put'.");
+            }
+        } catch (IllegalAccessException e) {
             throw new RuntimeException(e);
         }
 
+        Long requiredVersion = EntityTag.requiredVersion(ifMatch);
+        CachedUser cached = userCache.getIfPresent(id); // Previous state for the listeners, if known for free
+        int updated = requiredVersion == null
+                ? userRepository.updateActiveUser(id, userDTO.getEmail(), userDTO.getFirstName(),
+                        userDTO.getLastName(), userDTO.getBirthDate(), userDTO.getAddress(), userDTO.getPhoneNumber())
+                : userRepository.updateActiveUserWithVersion(id, userDTO.getEmail(), userDTO.getFirstName(),
+                        userDTO.getLastName(), userDTO.getBirthDate(), userDTO.getAddress(), userDTO.getPhoneNumber(),
+                        requiredVersion);
+
+        if (updated == 0) { // Not active: deleted, or no such user, or another version
+            throw notUpdated(id);
+        }
+        eventPublisher.publishEvent(cached != null && cached.getUser() != null
+                ? new UserChangedEvent(id, cached.getUser(), userDTO)
+                : UserChangedEvent.updatedWithoutPrevious(id, userDTO));
         return ResponseEntity.ok().build();
     }
 
     /**
-     * Checks if the user's age meets the threshold defined in the environment properties.
+     * Helper method which finds why no active user was updated, with an existence check which does not load
+     * the user.
      *
-     * @param birthDate The birth date of the user.
-     * @throws IllegalArgumentException If the user's age is below the defined threshold.
+     * @param id The ID of the user.
+     * @return The exception to throw: not found, deleted, or precondition failed if the user is still active
+     * (it has another version than the one of If-Match).
      */
-    private void checkUserAge(LocalDate birthDate) throws IllegalArgumentException {
-        int ageThreshold = Integer.parseInt(Objects.
-                requireNonNull(environment.getProperty("age-threshold")));
-        if (Period.between(birthDate, LocalDate.now()).getYears() < ageThreshold
-        ) {
-            throw new IllegalArgumentException(String
-                    .format("Users must be over %d years old!", ageThreshold));
+    private RuntimeException notUpdated(long id) {
+        Boolean active = userRepository.findIsActiveById(id);
+
+        if (active == null) {
+            return new UserNotFoundException(NO_SUCH_USER_MESSAGE);
         }
+        return active ? new PreconditionFailedException(PRECONDITION_FAILED_MESSAGE)
+                : new UserDeletedException(DELETED_USER_MESSAGE);
     }
 
     /**
-     * Validates the fields of the user DTO based on regex patterns.
+     * Partially updates a user with the provided user DTO. The user is read and patched in one transaction,
+     * so it stays managed and only the changed columns are written when it commits (dynamic update);
+     * nothing is written if no field has changed. The version of the user is checked when it is written
+     * (optimistic locking), and with If-Match it must also be the version of the entity tag.
      *
-     * @param userDTO The user DTO to validate.
-     * @throws InvalidInputFormatException If the input data does not match the expected format.
+     * @param userDTO The user DTO containing updated user information.
+     * @param id      The ID of the user to update.
+     * @param ifMatch The If-Match header, or null.
+     * @return ResponseEntity indicating success or failure.
+     * @throws InvalidInputFormatException If the input data is invalid.
+     * @throws UserNotFoundException       If there is no user with such an id.
+     * @throws UserDeletedException        If the user has been deleted.
+     * @throws PreconditionFailedException If the user has another version than the one of If-Match.
      */
-    private void checkUserDTO(UserDTO userDTO) throws InvalidInputFormatException {
-        String nameRegex = "^[\\p{L}\\s]+$",
-                emailRegex = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$",
-                phoneRegex = "^\\+\\d{5,13}$";
-
-        if (userDTO.getFirstName() != null && !Pattern.matches(nameRegex, userDTO.getFirstName()) ||
-                userDTO.getLastName() != null && !Pattern.matches(nameRegex, userDTO.getLastName()) ||
-                (userDTO.getEmail() != null && !Pattern.matches(emailRegex, userDTO.getEmail())) ||
-                (userDTO.getPhoneNumber() != null && !Pattern.matches(phoneRegex, userDTO.getPhoneNumber()))) {
-            throw new InvalidInputFormatException("Invalid format of input data.");
+    @Override
+    public ResponseEntity<Void> partialUpdateUser(UserDTO userDTO, long id, String ifMatch)
+            throws InvalidInputFormatException {
+        if (userDTO.getBirthDate() != null) {
+            userValidator.checkUserAge(userDTO.getBirthDate()); // Check user age
+        }
+        userValidator.checkUserDTO(userDTO); // Check if userDTO contains valid data
+        userDTO.setId(id);
+        Long requiredVersion = EntityTag.requiredVersion(ifMatch);
+
+        UserChangedEvent event = transactionTemplate.execute(status -> {
+            User user = userRepository.findUserById(id);
+
+            if (user == null) {
+                throw new UserNotFoundException(NO_SUCH_USER_MESSAGE);
+            }
+            if (!user.getIsActive()) {
+                throw new UserDeletedException(DELETED_USER_MESSAGE);
+            }
+            if (requiredVersion != null && user.getVersion() != requiredVersion) {
+                throw new PreconditionFailedException(PRECONDITION_FAILED_MESSAGE);
+            }
+
+            UserDTO previous = UserDTO.getDTOFromUser(user);
+
+            // Partially update user fields, the changed ones are flushed on commit
+            return updateHelper.patchUser(user, userDTO) != 0
+                    ? new UserChangedEvent(id, previous, UserDTO.getDTOFromUser(user)) : null;
+        });
+
+        if (event != null) { // Published after the commit, so listeners reload the committed state
+            eventPublisher.publishEvent(event);
         }
+        return ResponseEntity.ok().build();
     }
 }
@@ -0,0 +1,19 @@
+package com.app.clearsolutions.validator;
+
+import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.model.dto.UserDTO;
+
+import java.time.LocalDate;
+
+/**
+ * Validator interface for checking user input before it is persisted.
+ */
+public interface UserValidator {
+    void validate(UserDTO userDTO) throws InvalidInputFormatException;
+
+    void checkUserDTO(UserDTO userDTO) throws InvalidInputFormatException;
+
+    void checkUserAge(LocalDate birthDate);
+
+    void refreshAgePolicy();
+}
@@ -0,0 +1,232 @@
+package com.app.clearsolutions.validator.impl;
+
+import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.validator.UserValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Validator implementation for user input. The format rules are hand-written scanners
+ * equivalent to the documented regexes, so no pattern is compiled or matched per request,
+ * and the age policy is resolved once per day instead of on every call.
+ */
+@Component
+public class UserValidatorImpl implements UserValidator {
+    private static final String AGE_THRESHOLD_PROPERTY = "age-threshold";
+
+    private final Environment environment;
+    private volatile AgePolicy agePolicy;
+
+    @Autowired
+    public UserValidatorImpl(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Validates the format of all specified fields and, if the birth date is specified, the user's age.
+     *
+     * @param userDTO The user DTO to validate.
+     * @throws InvalidInputFormatException If the input data does not match the expected format.
+     * @throws IllegalArgumentException    If the user's age is below the defined threshold.
+     */
+    @Override
+    public void validate(UserDTO userDTO) throws InvalidInputFormatException {
+        checkUserDTO(userDTO);
+        if (userDTO.getBirthDate() != null) {
+            checkUserAge(userDTO.getBirthDate());
+        }
+    }
+
+    /**
+     * Validates the format of the specified (non-null) fields of the user DTO. All the fields are
+     * checked in one pass, and every invalid field is named in the exception message.
+     * Rules: names - {@code ^[\p{L}\s]+$}, email - {@code ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$},
+     * phone number - {@code ^\+\d{5,13}$}.
+     *
+     * @param userDTO The user DTO to validate.
+     * @throws InvalidInputFormatException If the input data does not match the expected format.
+     */
+    @Override
+    public void checkUserDTO(UserDTO userDTO) throws InvalidInputFormatException {
+        StringJoiner invalidFields = null; // allocated only when there is something to report
+
+        if (userDTO.getEmail() != null && !isValidEmail(userDTO.getEmail())) {
+            invalidFields = addField(invalidFields, "email");
+        }
+        if (userDTO.getFirstName() != null && !isValidName(userDTO.getFirstName())) {
+            invalidFields = addField(invalidFields, "firstName");
+        }
+        if (userDTO.getLastName() != null && !isValidName(userDTO.getLastName())) {
+            invalidFields = addField(invalidFields, "lastName");
+        }
+        if (userDTO.getPhoneNumber() != null && !isValidPhoneNumber(userDTO.getPhoneNumber())) {
+            invalidFields = addField(invalidFields, "phoneNumber");
+        }
+
+        if (invalidFields != null) {
+            throw new InvalidInputFormatException("Invalid format of input data: " + invalidFields + ".");
+        }
+    }
+
+    /**
+     * Checks if the user's age meets the threshold defined in the environment properties.
+     *
+     * @param birthDate The birth date of the user.
+     * @throws IllegalArgumentException If the user's age is below the defined threshold.
+     */
+    @Override
+    public void checkUserAge(LocalDate birthDate) throws IllegalArgumentException {
+        AgePolicy policy = currentAgePolicy();
+
+        if (birthDate.isAfter(policy.latestBirthDate())) {
+            throw new IllegalArgumentException(String
+                    .format("Users must be over %d years old!", policy.threshold()));
+        }
+    }
+
+    /**
+     * Drops the cached age policy, so the threshold is read from the environment again on the next check.
+     * Called on every context refresh; otherwise the policy is reloaded when the day changes.
+     */
+    @Override
+    @EventListener(ContextRefreshedEvent.class)
+    public void refreshAgePolicy() {
+        agePolicy = null;
+    }
+
+    /**
+     * Returns the age policy for the current day, loading it if it is missing or outdated.
+     *
+     * @return The current age policy.
+     */
+    private AgePolicy currentAgePolicy() {
+        AgePolicy policy = agePolicy;
+
+        if (policy == null || System.currentTimeMillis() >= policy.validUntil()) {
+            policy = loadAgePolicy();
+            agePolicy = policy;
+        }
+        return policy;
+    }
+
+    /**
+     * Reads the age threshold and precomputes the latest birth date allowed today.
+     * A user is old enough when {@code birthDate <= today - threshold years}, which is the same as
+     * {@code Period.between(birthDate, today).getYears() >= threshold}.
+     *
+     * @return A new age policy valid until the end of the current day.
+     */
+    private AgePolicy loadAgePolicy() {
+        int threshold = Integer.parseInt(Objects.
+                requireNonNull(environment.getProperty(AGE_THRESHOLD_PROPERTY)));
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        long validUntil = today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli();
+
+        return new AgePolicy(threshold, today.minusYears(threshold), validUntil);
+    }
+
+    private static StringJoiner addField(StringJoiner invalidFields, String field) {
+        if (invalidFields == null) {
+            invalidFields = new StringJoiner(", ");
+        }
+        return invalidFields.add(field);
+    }
+
+    /**
+     * Equivalent of {@code ^[\p{L}\s]+$}.
+     */
+    private static boolean isValidName(String name) {
+        int length = name.length();
+        if (length == 0) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ) {
+            int codePoint = name.codePointAt(i);
+            if (!Character.isLetter(codePoint) && !isRegexWhitespace(codePoint)) {
+                return false;
+            }
+            i += Character.charCount(codePoint);
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent of {@code ^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}$}. The domain may contain dots,
+     * so only the last dot can start the top-level domain.
+     */
+    private static boolean isValidEmail(String email) {
+        int length = email.length();
+        int at = email.indexOf('@');
+        int lastDot = email.lastIndexOf('.');
+
+        if (at < 1 || lastDot < at + 2 || length - lastDot - 1 < 2) {
+            return false;
+        }
+
+        for (int i = 0; i < at; i++) {
+            char c = email.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '.' && c != '_' && c != '%' && c != '+' && c != '-') {
+                return false;
+            }
+        }
+        for (int i = at + 1; i < lastDot; i++) {
+            char c = email.charAt(i);
+            if (!isAsciiLetterOrDigit(c) && c != '.' && c != '-') {
+                return false;
+            }
+        }
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isAsciiLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Equivalent of {@code ^\+\d{5,13}$}.
+     */
+    private static boolean isValidPhoneNumber(String phoneNumber) {
+        int length = phoneNumber.length();
+        if (length < 6 || length > 14 || phoneNumber.charAt(0) != '+') {
+            return false;
+        }
+
+        for (int i = 1; i < length; i++) {
+            char c = phoneNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isRegexWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    /**
+     * Age threshold together with the latest allowed birth date, valid until the given epoch millisecond.
+     */
+    private record AgePolicy(int threshold, LocalDate latestBirthDate, long validUntil) {
+    }
+}
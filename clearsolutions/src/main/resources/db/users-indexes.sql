@@ -0,0 +1,11 @@
+-- Indexes of the users table (MySQL 8). New schemas get them from the @Index definitions on User
+-- (spring.jpa.generate-ddl); run this script once on databases created before they were added.
+--
+-- idx_users_active_birth_date: birth date range listings, their COUNT(*) (index-only) and
+--                              the (birth_date, id) cursor pagination.
+-- idx_users_active_id:         unfiltered listing of active users and the (id) cursor pagination.
+-- InnoDB appends the primary key to every secondary index; id is listed explicitly to keep the
+-- ordering the same on other databases.
+
+CREATE INDEX idx_users_active_birth_date ON users (is_active, birth_date, id);
+CREATE INDEX idx_users_active_id ON users (is_active, id);
@@ -0,0 +1,11 @@
+-- Id generator of the users table (MySQL 8). User ids used to be AUTO_INCREMENT (IDENTITY), which
+-- disables JDBC insert batching; they now come from the pooled 'users_seq' generator, emulated with a
+-- single-row table on MySQL. New schemas get the table from spring.jpa.generate-ddl; run this script
+-- once on databases created before, BEFORE starting the new version (otherwise the generated table
+-- starts at 1 and collides with existing ids).
+--
+-- With allocationSize = 50 Hibernate reads next_val as the upper bound of the next block of ids,
+-- so starting at MAX(id) + 50 makes the first id MAX(id) + 1.
+
+CREATE TABLE users_seq (next_val BIGINT);
+INSERT INTO users_seq (next_val) SELECT COALESCE(MAX(id), 0) + 50 FROM users;
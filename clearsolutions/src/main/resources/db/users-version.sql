@@ -0,0 +1,5 @@
+-- Version column of the users table (MySQL 8), the optimistic lock and entity tag (ETag) of a user.
+-- New schemas get the column from spring.jpa.generate-ddl; on databases created before, the generated
+-- ALTER TABLE has no default for the existing rows, so run this script once BEFORE starting the new version.
+
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,153 @@
+package com.app.clearsolutions.analytics;
+
+import com.app.clearsolutions.analytics.impl.BirthDateIndexImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.exception.SnapshotLoadingException;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BirthDateIndexTest {
+    private BirthDateIndex birthDateIndex;
+
+    @BeforeEach
+    public void setUp() {
+        birthDateIndex = new BirthDateIndexImpl();
+    }
+
+    @Test
+    public void testQueryBeforeLoad_thenThrowsSnapshotLoadingException() {
+        assertFalse(birthDateIndex.isLoaded());
+        assertThrows(SnapshotLoadingException.class, () -> birthDateIndex.countBetween(date(1990, 1, 1),
+                date(2000, 1, 1)));
+    }
+
+    @Test
+    public void testLoad_thenRangeCountsAndHistogramAreComputed() {
+        load();
+
+        assertEquals(4, birthDateIndex.size());
+        assertEquals(3, birthDateIndex.countBetween(date(1990, 1, 1), date(1995, 6, 1)));
+        assertEquals(1, birthDateIndex.countBetween(date(1990, 1, 1), date(1995, 5, 31)));
+        assertEquals(2, birthDateIndex.countBetween(date(1995, 6, 1), date(1995, 6, 1)));
+        assertEquals(0, birthDateIndex.countBetween(date(2001, 1, 1), date(2002, 1, 1)));
+        assertEquals(0, birthDateIndex.countBetween(date(2002, 1, 1), date(2001, 1, 1)));
+
+        Map<Integer, Long> years = birthDateIndex.countByBirthYear();
+        assertEquals(List.of(1990, 1991, 1992, 1993, 1994, 1995, 1996, 1997, 1998, 1999, 2000),
+                List.copyOf(years.keySet()));
+        assertEquals(1, years.get(1990));
+        assertEquals(2, years.get(1995));
+        assertEquals(0, years.get(1996));
+        assertEquals(1, years.get(2000));
+    }
+
+    @Test
+    public void testUserEvents_thenIndexIsUpdated() {
+        load();
+
+        birthDateIndex.onUserChanged(new UserChangedEvent(5, null, user(5, date(1980, 1, 1))));
+        birthDateIndex.onUserChanged(new UserChangedEvent(1, user(1, date(1990, 1, 1)),
+                user(1, date(2000, 2, 2))));
+        birthDateIndex.onUserChanged(new UserChangedEvent(2, user(2, date(1995, 6, 1)), null));
+        birthDateIndex.onUserChanged(UserChangedEvent.updatedWithoutPrevious(3, user(3, date(1981, 1, 1))));
+
+        assertEquals(4, birthDateIndex.size());
+        assertEquals(2, birthDateIndex.countBetween(date(1980, 1, 1), date(1981, 12, 31)));
+        assertEquals(0, birthDateIndex.countBetween(date(1990, 1, 1), date(1995, 12, 31)));
+        assertEquals(2, birthDateIndex.countBetween(date(2000, 1, 1), date(2000, 12, 31)));
+    }
+
+    @Test
+    public void testDeactivationEvents_thenUsersAreRemoved() {
+        load();
+
+        birthDateIndex.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L, 9L), null, 1));
+        assertEquals(3, birthDateIndex.size());
+
+        birthDateIndex.onUsersDeactivated(new UsersDeactivatedEvent(null,
+                new BirthDateRangeDTO(date(1995, 1, 1), date(1995, 12, 31)), 2));
+        assertEquals(1, birthDateIndex.size());
+        assertEquals(1, birthDateIndex.countBetween(date(2000, 1, 1), date(2000, 12, 31)));
+    }
+
+    @Test
+    public void testUpdateWithStalePreviousBirthDate_thenIndexedEntryIsReplaced() {
+        load();
+
+        birthDateIndex.onUserChanged(new UserChangedEvent(2, user(2, date(1970, 1, 1)),
+                user(2, date(2005, 5, 5))));
+
+        assertEquals(4, birthDateIndex.size());
+        assertEquals(1, birthDateIndex.countBetween(date(1995, 6, 1), date(1995, 6, 1)));
+        assertEquals(1, birthDateIndex.countBetween(date(2005, 5, 5), date(2005, 5, 5)));
+    }
+
+    @Test
+    public void testDeactivationOfManyIds_thenOnlyTheirKeysAreRemoved() {
+        birthDateIndex.load(LongStream.rangeClosed(1, 100)
+                .mapToObj(id -> new UserBirthDateDTO(id, date(1950, 1, 1).plusDays(id % 7))));
+
+        birthDateIndex.onUsersDeactivated(new UsersDeactivatedEvent(
+                LongStream.rangeClosed(1, 60).boxed().toList(), null, 60));
+        birthDateIndex.onUserChanged(new UserChangedEvent(30, null, user(30, date(1960, 1, 1))));
+
+        assertEquals(41, birthDateIndex.size());
+        assertEquals(40, birthDateIndex.countBetween(date(1950, 1, 1), date(1950, 12, 31)));
+        assertEquals(1, birthDateIndex.countBetween(date(1960, 1, 1), date(1960, 1, 1)));
+    }
+
+    @Test
+    public void testEventsBeforeLoad_thenReplayedOnSnapshot() {
+        // Created before the snapshot query (already in it) and after it (not in it)
+        birthDateIndex.onUserChanged(new UserChangedEvent(4, null, user(4, date(2000, 1, 1))));
+        birthDateIndex.onUserChanged(new UserChangedEvent(6, null, user(6, date(2010, 1, 1))));
+        birthDateIndex.onUserChanged(new UserChangedEvent(1, user(1, date(1990, 1, 1)), null));
+
+        load();
+
+        assertEquals(4, birthDateIndex.size());
+        assertEquals(1, birthDateIndex.countBetween(date(2000, 1, 1), date(2000, 12, 31)));
+        assertEquals(1, birthDateIndex.countBetween(date(2010, 1, 1), date(2010, 1, 1)));
+        assertEquals(0, birthDateIndex.countBetween(date(1990, 1, 1), date(1990, 12, 31)));
+    }
+
+    @Test
+    public void testManyInserts_thenArraysGrow() {
+        birthDateIndex.load(Stream.empty());
+
+        for (int i = 1; i <= 5000; i++) {
+            birthDateIndex.onUserChanged(new UserChangedEvent(i, null, user(i, date(1950, 1, 1).plusDays(i % 365))));
+        }
+
+        assertEquals(5000, birthDateIndex.size());
+        assertEquals(5000, birthDateIndex.countBetween(date(1950, 1, 1), date(1950, 12, 31)));
+    }
+
+    private void load() {
+        birthDateIndex.load(Stream.of(
+                new UserBirthDateDTO(1, date(1990, 1, 1)),
+                new UserBirthDateDTO(2, date(1995, 6, 1)),
+                new UserBirthDateDTO(3, date(1995, 6, 1)),
+                new UserBirthDateDTO(4, date(2000, 1, 1))));
+    }
+
+    private static UserDTO user(long id, LocalDate birthDate) {
+        return new UserDTO(id, "user" + id + "@gmail.com", "First", "Last", birthDate, null, null);
+    }
+
+    private static LocalDate date(int year, int month, int day) {
+        return LocalDate.of(year, month, day);
+    }
+}
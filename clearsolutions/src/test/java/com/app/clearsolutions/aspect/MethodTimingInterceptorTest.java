@@ -0,0 +1,154 @@
+package com.app.clearsolutions.aspect;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.app.clearsolutions.controller.UserController;
+import com.app.clearsolutions.controller.exceptionHandler.ControllerExceptionHandler;
+import com.app.clearsolutions.exception.UserNotFoundException;
+import com.app.clearsolutions.helper.impl.UpdateHelperImpl;
+import com.app.clearsolutions.service.UserService;
+import com.app.clearsolutions.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MethodTimingInterceptorTest {
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void init() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testSuccessfulCallsRecordedInOneTimer() throws Exception {
+        Callable<String> proxy = proxy(new MethodTimingInterceptor(() -> registry, 1.0, true), () -> "result");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("result", proxy.call());
+        }
+
+        Timer timer = registry.get(MethodTimingInterceptor.METRIC_NAME)
+                .tag("method", "call")
+                .tag("exception", "none")
+                .timer();
+        assertEquals(3, timer.count());
+        assertEquals(1, registry.find(MethodTimingInterceptor.METRIC_NAME).timers().size());
+    }
+
+    @Test
+    public void testFailedCallTaggedWithExceptionAndRethrown() {
+        Callable<String> proxy = proxy(new MethodTimingInterceptor(() -> registry, 1.0, false), () -> {
+            throw new IllegalArgumentException("Invalid");
+        });
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, proxy::call);
+
+        assertEquals("Invalid", exception.getMessage());
+        assertEquals(1, registry.get(MethodTimingInterceptor.METRIC_NAME)
+                .tag("exception", "IllegalArgumentException")
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void testRepeatedFailures_thenFailureTimerIsRegisteredOnce() {
+        AtomicInteger registrations = new AtomicInteger();
+        Callable<String> proxy = proxy(new MethodTimingInterceptor(() -> {
+            registrations.incrementAndGet(); // The registry is only needed to register a timer
+            return registry;
+        }, 1.0, false), () -> {
+            throw new UserNotFoundException("There is no user with such an id.");
+        });
+
+        assertThrows(UserNotFoundException.class, proxy::call);
+        assertThrows(UserNotFoundException.class, proxy::call);
+
+        assertEquals(1, registrations.get());
+        assertEquals(2, registry.get(MethodTimingInterceptor.METRIC_NAME)
+                .tag("exception", "UserNotFoundException")
+                .timer()
+                .count());
+    }
+
+    @Test
+    public void testNestedFailures_thenUnexpectedOneLoggedOnceAtWarn() {
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        Logger logger = (Logger) LoggerFactory.getLogger(MethodTimingInterceptor.class);
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            MethodTimingInterceptor interceptor = new MethodTimingInterceptor(() -> registry, 1.0, false);
+            Callable<String> failing = proxy(interceptor, () -> {
+                throw new IllegalStateException("Unexpected");
+            });
+            Callable<String> invalid = proxy(interceptor, () -> {
+                throw new IllegalArgumentException("Invalid");
+            });
+
+            // A controller calling a service: both are intercepted
+            assertThrows(IllegalStateException.class, proxy(interceptor, failing::call)::call);
+            assertThrows(IllegalArgumentException.class, proxy(interceptor, invalid::call)::call);
+        } finally {
+            logger.detachAppender(appender);
+        }
+
+        assertEquals(1, appender.list.stream().filter(event -> event.getLevel() == Level.WARN).count());
+        assertTrue(appender.list.stream()
+                .filter(event -> event.getLevel() == Level.WARN)
+                .allMatch(event -> event.getFormattedMessage().contains("Unexpected")));
+    }
+
+    @Test
+    public void testZeroSampleRateRecordsNothing() throws Exception {
+        Callable<String> proxy = proxy(new MethodTimingInterceptor(() -> registry, 0.0, true), () -> "result");
+
+        assertEquals("result", proxy.call());
+
+        assertTrue(registry.find(MethodTimingInterceptor.METRIC_NAME).timers().isEmpty());
+    }
+
+    @Test
+    public void testInvalidSampleRate() {
+        assertThrows(IllegalArgumentException.class, () -> new MethodTimingInterceptor(() -> registry, 1.5, true));
+    }
+
+    @Test
+    public void testDefaultPointcutLimitedToControllersAndServices() {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(MethodTimingConfig.DEFAULT_POINTCUT);
+
+        assertTrue(matches(pointcut, UserController.class, "readUserBuId"));
+        assertTrue(matches(pointcut, UserServiceImpl.class, "deleteUser"));
+        assertTrue(matches(pointcut, UserService.class, "deleteUser"));
+        assertFalse(matches(pointcut, UpdateHelperImpl.class, "patchUser"));
+        assertFalse(matches(pointcut, ControllerExceptionHandler.class, "handleIllegalArgumentException"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Callable<String> proxy(MethodTimingInterceptor interceptor, Callable<String> target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(Callable.class);
+        factory.addAdvice(interceptor);
+        return (Callable<String>) factory.getProxy();
+    }
+
+    private static boolean matches(AspectJExpressionPointcut pointcut, Class<?> type, String methodName) {
+        return Arrays.stream(ReflectionUtils.getDeclaredMethods(type))
+                .filter(method -> method.getName().equals(methodName))
+                .anyMatch(method -> pointcut.matches(method, type));
+    }
+}
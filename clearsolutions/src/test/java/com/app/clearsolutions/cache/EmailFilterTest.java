@@ -0,0 +1,86 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.cache.impl.EmailFilterImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailFilterTest {
+    private EmailFilterImpl emailFilter;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        emailFilter = new EmailFilterImpl(userRepository, new TransactionTemplate(transactionManager), 10000, 0.01);
+    }
+
+    @Test
+    public void testBeforeLoad_thenEveryEmailMayBeTaken() {
+        assertFalse(emailFilter.isLoaded());
+        assertTrue(emailFilter.mightContain("artem@gmail.com"));
+    }
+
+    @Test
+    public void testLoad_thenLoadedEmailsAreContainedIgnoringCase() {
+        when(userRepository.streamEmails()).thenReturn(Stream.of("artem@gmail.com", "Pavlo@gmail.com"));
+
+        emailFilter.load();
+
+        assertTrue(emailFilter.isLoaded());
+        assertTrue(emailFilter.mightContain("ARTEM@gmail.com"));
+        assertTrue(emailFilter.mightContain("pavlo@gmail.com"));
+        assertFalse(emailFilter.mightContain("oksana@gmail.com"));
+    }
+
+    @Test
+    public void testUserChanged_thenCurrentEmailIsAdded() {
+        when(userRepository.streamEmails()).thenReturn(Stream.empty());
+        emailFilter.load();
+
+        emailFilter.onUserChanged(new UserChangedEvent(1, null, new UserDTO(1, "artem@gmail.com", "Artem",
+                "Sobko", LocalDate.of(2003, 9, 15), null, null)));
+        emailFilter.onUserChanged(new UserChangedEvent(2, null, null));
+
+        assertTrue(emailFilter.mightContain("artem@gmail.com"));
+    }
+
+    @Test
+    public void testFilledToExpectedInsertions_thenFalsePositiveRateIsNearConfigured() {
+        when(userRepository.streamEmails())
+                .thenReturn(IntStream.range(0, 10000).mapToObj(i -> "user" + i + "@gmail.com"));
+        emailFilter.load();
+
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> emailFilter.mightContain("other" + i + "@gmail.com"))
+                .count();
+
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertTrue(IntStream.range(0, 10000).allMatch(i -> emailFilter.mightContain("user" + i + "@gmail.com")));
+    }
+
+    @Test
+    public void testInvalidSize_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new EmailFilterImpl(userRepository, new TransactionTemplate(transactionManager),
+                0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new EmailFilterImpl(userRepository, new TransactionTemplate(transactionManager),
+                100, 1));
+    }
+}
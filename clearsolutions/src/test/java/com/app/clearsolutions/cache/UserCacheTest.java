@@ -0,0 +1,125 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.cache.impl.UserCacheImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCacheTest {
+    private UserCacheImpl userCache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final UserDTO userDTO = new UserDTO(1, "artem@gmail.com", "Artem", "Sobko",
+            LocalDate.of(2003, 9, 15), null, null);
+
+    @BeforeEach
+    public void setUp() {
+        userCache = new UserCacheImpl(100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    public void testGetTwice_thenLoaderRunsOnce() {
+        userCache.get(1, this::load);
+        CachedUser cachedUser = userCache.get(1, this::load);
+
+        assertEquals(userDTO, cachedUser.getUser());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testUpdateUser_thenEntryIsEvicted() {
+        userCache.get(1, this::load);
+
+        userCache.onUserChanged(new UserChangedEvent(1, userDTO, userDTO));
+        userCache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testDeleteUser_thenEntryIsNegative() {
+        userCache.get(1, this::load);
+
+        userCache.onUserChanged(new UserChangedEvent(1, userDTO, null));
+        CachedUser cachedUser = userCache.get(1, this::load);
+
+        assertNull(cachedUser.getUser());
+        assertTrue(cachedUser.isDeleted());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testDeactivateUser_thenEntryIsNegative() {
+        userCache.get(1, this::load);
+
+        userCache.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L), null, 1));
+        CachedUser cachedUser = userCache.get(1, this::load);
+
+        assertTrue(cachedUser.isDeleted());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testDeactivateUsersByIdsOrRange_thenEntriesAreEvicted() {
+        userCache.get(1, this::load);
+        userCache.get(2, this::load);
+
+        userCache.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L, 3L), null, 1));
+        userCache.get(1, this::load);
+        userCache.get(2, this::load);
+        assertEquals(3, loads.get());
+
+        userCache.onUsersDeactivated(new UsersDeactivatedEvent(null, new BirthDateRangeDTO("1990-01-01", ""), 5));
+        userCache.get(2, this::load);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    public void testUpdateUserWhileLoading_thenLoadedValueIsNotCached() {
+        userCache.get(1, id -> {
+            userCache.onUserChanged(new UserChangedEvent(id, userDTO, userDTO)); // write racing with the load
+            return load(id);
+        });
+        userCache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void testLoaderFails_thenExceptionIsThrownAndNothingIsCached() {
+        assertThrows(IllegalStateException.class, () -> userCache.get(1, id -> {
+            throw new IllegalStateException("Connection refused");
+        }));
+        CachedUser cachedUser = userCache.get(1, this::load);
+
+        assertEquals(userDTO, cachedUser.getUser());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testBindTo_thenHitsAndMissesAreReported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userCache.bindTo(registry);
+
+        userCache.get(1, this::load);
+        userCache.get(1, this::load);
+
+        assertEquals(1, registry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    private CachedUser load(long id) {
+        loads.incrementAndGet();
+        return CachedUser.active(userDTO, 0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.cache.impl.UserCountCacheImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserCountCacheTest {
+    private UserCountCache userCountCache;
+    private final BirthDateRangeDTO all = new BirthDateRangeDTO();
+    private final BirthDateRangeDTO nineties = new BirthDateRangeDTO(LocalDate.of(1990, 1, 1),
+            LocalDate.of(1999, 12, 31));
+
+    @BeforeEach
+    public void setUp() {
+        userCountCache = new UserCountCacheImpl(10, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testGetCountTwice_thenCounterRunsOnce() {
+        AtomicInteger calls = new AtomicInteger();
+
+        userCountCache.getCount(all, () -> calls.incrementAndGet() * 10L);
+        long count = userCountCache.getCount(all, () -> calls.incrementAndGet() * 10L);
+
+        assertEquals(10, count);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCreateUser_thenMatchingCountsAreIncremented() {
+        userCountCache.getCount(all, () -> 10);
+        userCountCache.getCount(nineties, () -> 3);
+
+        userCountCache.onUserChanged(new UserChangedEvent(1, null, user(LocalDate.of(2001, 1, 1))));
+
+        assertEquals(11, userCountCache.getCount(all, () -> -1));
+        assertEquals(3, userCountCache.getCount(nineties, () -> -1));
+    }
+
+    @Test
+    public void testDeactivateUsers_thenCountsAreRecounted() {
+        userCountCache.getCount(all, () -> 10);
+
+        userCountCache.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L, 2L), null, 0));
+        assertEquals(10, userCountCache.getCount(all, () -> -1));
+
+        userCountCache.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L, 2L), null, 2));
+        assertEquals(8, userCountCache.getCount(all, () -> 8));
+    }
+
+    @Test
+    public void testDeleteUserWithKnownPreviousState_thenMatchingCountsAreDecremented() {
+        AtomicInteger calls = new AtomicInteger();
+        userCountCache.getCount(all, () -> 10);
+        userCountCache.getCount(nineties, () -> 3);
+
+        userCountCache.onUserChanged(new UserChangedEvent(1, user(LocalDate.of(1995, 1, 1)), null));
+
+        assertEquals(9, userCountCache.getCount(all, () -> calls.incrementAndGet()));
+        assertEquals(2, userCountCache.getCount(nineties, () -> calls.incrementAndGet()));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testUpdateUserWithUnknownPreviousState_thenCountsAreRecounted() {
+        userCountCache.getCount(nineties, () -> 3);
+
+        userCountCache.onUserChanged(UserChangedEvent.updatedWithoutPrevious(1, user(LocalDate.of(1995, 1, 1))));
+
+        assertEquals(4, userCountCache.getCount(nineties, () -> 4));
+    }
+
+    @Test
+    public void testMoveBirthDateIntoRange_thenOnlyRangeCountChanges() {
+        userCountCache.getCount(all, () -> 10);
+        userCountCache.getCount(nineties, () -> 3);
+
+        userCountCache.onUserChanged(new UserChangedEvent(1, user(LocalDate.of(2001, 1, 1)),
+                user(LocalDate.of(1995, 1, 1))));
+
+        assertEquals(10, userCountCache.getCount(all, () -> -1));
+        assertEquals(4, userCountCache.getCount(nineties, () -> -1));
+    }
+
+    @Test
+    public void testDeleteUser_thenMatchingCountsAreDecremented() {
+        userCountCache.getCount(all, () -> 10);
+        userCountCache.getCount(nineties, () -> 3);
+
+        userCountCache.onUserChanged(new UserChangedEvent(1, user(LocalDate.of(1999, 12, 31)), null));
+
+        assertEquals(9, userCountCache.getCount(all, () -> -1));
+        assertEquals(2, userCountCache.getCount(nineties, () -> -1));
+    }
+
+    @Test
+    public void testExpiredCount_thenCounterRunsAgain() {
+        userCountCache = new UserCountCacheImpl(10, Duration.ZERO);
+
+        userCountCache.getCount(all, () -> 10);
+
+        assertEquals(20, userCountCache.getCount(all, () -> 20));
+    }
+
+    @Test
+    public void testClear_thenCounterRunsAgain() {
+        userCountCache.getCount(all, () -> 10);
+        userCountCache.clear();
+
+        assertEquals(20, userCountCache.getCount(all, () -> 20));
+    }
+
+    private static UserDTO user(LocalDate birthDate) {
+        return new UserDTO(1, "artem@gmail.com", "Artem", "Sobko", birthDate, null, null);
+    }
+}
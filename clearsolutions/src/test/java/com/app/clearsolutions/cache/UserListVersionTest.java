@@ -0,0 +1,49 @@
+package com.app.clearsolutions.cache;
+
+import com.app.clearsolutions.cache.impl.UserListVersionImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserListVersionTest {
+    private final UserListVersion userListVersion = new UserListVersionImpl(Duration.ofHours(1));
+
+    @Test
+    public void testWithoutChanges_thenETagIsStable() {
+        assertEquals(userListVersion.getETag(), userListVersion.getETag());
+    }
+
+    @Test
+    public void testUserChangedOrDeactivated_thenETagChanges() {
+        String etag = userListVersion.getETag();
+
+        userListVersion.onUserChanged(new UserChangedEvent(1, null, null));
+        String changed = userListVersion.getETag();
+        userListVersion.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L), null, 1));
+
+        assertNotEquals(etag, changed);
+        assertNotEquals(changed, userListVersion.getETag());
+    }
+
+    @Test
+    public void testTimeToLiveElapsed_thenETagChanges() throws InterruptedException {
+        UserListVersion shortLived = new UserListVersionImpl(Duration.ofMillis(5));
+        String etag = shortLived.getETag();
+
+        Thread.sleep(20);
+
+        assertNotEquals(etag, shortLived.getETag());
+    }
+
+    @Test
+    public void testETag_thenIsQuotedStrongTag() {
+        String etag = userListVersion.getETag();
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+    }
+}
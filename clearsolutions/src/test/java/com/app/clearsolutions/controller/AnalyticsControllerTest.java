@@ -0,0 +1,74 @@
+package com.app.clearsolutions.controller;
+
+import com.app.clearsolutions.exception.SnapshotLoadingException;
+import com.app.clearsolutions.model.dto.AgeBucketDTO;
+import com.app.clearsolutions.model.dto.BirthYearCountDTO;
+import com.app.clearsolutions.model.dto.CountDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = AnalyticsController.class)
+@AutoConfigureMockMvc
+public class AnalyticsControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private AnalyticsService analyticsService;
+
+    @Test
+    public void testCountUsers() throws Exception {
+        when(analyticsService.countUsers("1990-01-01", ""))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(new CountDTO(7))));
+
+        mockMvc.perform(get("/api/analytics/count").param("from", "1990-01-01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].count").value(7));
+    }
+
+    @Test
+    public void testCountUsersWhileSnapshotIsLoading_thenServiceUnavailable() throws Exception {
+        when(analyticsService.countUsers("", ""))
+                .thenThrow(new SnapshotLoadingException("The analytics snapshot is being loaded, try again later."));
+
+        mockMvc.perform(get("/api/analytics/count"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.exceptionName").value("SnapshotLoadingException"));
+    }
+
+    @Test
+    public void testCountUsersByBirthYear() throws Exception {
+        when(analyticsService.countUsersByBirthYear())
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(null, List.of(new BirthYearCountDTO(2000, 3)))));
+
+        mockMvc.perform(get("/api/analytics/birth-years"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].year").value(2000))
+                .andExpect(jsonPath("$.data[0].count").value(3));
+    }
+
+    @Test
+    public void testCountUsersByAge() throws Exception {
+        when(analyticsService.countUsersByAge())
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(null, List.of(new AgeBucketDTO(18, 24, 2),
+                        new AgeBucketDTO(65, null, 1)))));
+
+        mockMvc.perform(get("/api/analytics/ages"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].toAge").value(24))
+                .andExpect(jsonPath("$.data[1].toAge").doesNotExist());
+    }
+}
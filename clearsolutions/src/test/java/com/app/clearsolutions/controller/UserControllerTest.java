@@ -1,7 +1,19 @@
 package com.app.clearsolutions.controller;
 
+import com.app.clearsolutions.exception.DuplicateEmailException;
+import com.app.clearsolutions.exception.PreconditionFailedException;
+import com.app.clearsolutions.exception.UserDeletedException;
+import com.app.clearsolutions.exception.UserNotFoundException;
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
 import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.DeactivationDTO;
+import com.app.clearsolutions.model.dto.DeactivationResultDTO;
+import com.app.clearsolutions.model.dto.ImportReportDTO;
 import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.service.BatchService;
+import com.app.clearsolutions.service.ExportService;
+import com.app.clearsolutions.service.ImportService;
+import com.app.clearsolutions.service.SearchService;
 import com.app.clearsolutions.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -12,16 +24,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.mockito.Mockito.*;
 
@@ -33,6 +55,14 @@ public class UserControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private UserService userService;
+    @MockBean
+    private BatchService batchService;
+    @MockBean
+    private ExportService exportService;
+    @MockBean
+    private ImportService importService;
+    @MockBean
+    private SearchService searchService;
     @Autowired
     private ObjectMapper objectMapper;
     private final UserDTO userDTO;
@@ -57,10 +87,53 @@ public class UserControllerTest {
 
     }
 
+    @Test
+    public void testCreateUserWithTakenEmail_thenHttpStatusIsBadRequest() throws Exception {
+        when(userService.createUser(any(UserDTO.class), any(UriComponentsBuilder.class)))
+                .thenThrow(new DuplicateEmailException("Duplicate email."));
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("User with such an email already exists!"));
+    }
+
+    @Test
+    public void testCreateUsers_thenHttpStatusIsOkAndItemResultsAreReturned() throws Exception {
+        String requestBody = objectMapper.writeValueAsString(List.of(userDTO, userDTO));
+
+        when(batchService.createUsers(anyList()))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(List.of(BatchItemResultDTO.created(0, 1),
+                        BatchItemResultDTO.failed(1, "Email is used by another user of the batch.")), null)));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(requestBody)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].status").value(201))
+                .andExpect(jsonPath("$.data[1].status").value(400));
+    }
+
+    @Test
+    public void testImportUsers_thenBodyIsPassedAsStream() throws Exception {
+        when(importService.importUsers(any(InputStream.class), startsWith("text/csv"), eq(5L)))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(new ImportReportDTO(5))));
+
+        mockMvc.perform(post("/api/users/import")
+                        .param("resumeAfterLine", "5")
+                        .contentType("text/csv")
+                        .content("email,firstName,lastName,birthDate\n")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].lastCommittedLine").value(5));
+    }
+
     @Test
     public void testReadUsers_thenHttpStatusIsOk() throws Exception {
-        when(userService.getUsers(anyString(), anyString(), any(Pageable.class)))
-                .thenReturn(ResponseEntity.ok(new DataDTO(userDTO)));
+        when(userService.getUsers(anyString(), anyString(), any(Pageable.class), eq("page"), isNull()))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(userDTO)));
 
         mockMvc.perform(get("/api/users")
                         .param("from", "2000-01-01")
@@ -70,12 +143,79 @@ public class UserControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    public void testReadUsersWithSlicePaging_thenHttpStatusIsOk() throws Exception {
+        when(userService.getUsers(anyString(), anyString(), any(Pageable.class), eq("slice"), isNull()))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(userDTO)));
+
+        mockMvc.perform(get("/api/users")
+                        .param("paging", "slice")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testReadUsersWithCursor_thenCursorPaginationIsUsed() throws Exception {
+        when(userService.getUsersAfter(anyString(), anyString(), eq(""), eq(5), isNull()))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(userDTO)));
+
+        mockMvc.perform(get("/api/users")
+                        .param("after", "")
+                        .param("size", "5")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        verify(userService, never()).getUsers(anyString(), anyString(), any(Pageable.class), anyString(), isNull());
+    }
+
+    @Test
+    public void testSearchUsers_thenMatchesAreReturned() throws Exception {
+        when(searchService.searchUsers(eq("pav"), any(Pageable.class)))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(userDTO)));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("q", "pav")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(2))
+                .andExpect(jsonPath("$.data[0].birthDate").value("2000-05-10"));
+    }
+
+    @Test
+    public void testSearchUsersWithoutQuery_thenHttpStatusIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/search")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(searchService);
+    }
+
+    @Test
+    public void testExportUsers_thenBodyIsStreamed() throws Exception {
+        StreamingResponseBody body = outputStream -> outputStream.write("{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+
+        when(exportService.exportUsers("2000-01-01", ""))
+                .thenReturn(ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body));
+
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                        .param("from", "2000-01-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":2}\n"));
+    }
+
     @Test
     public void testRadUserById_thenHttpStatusIsOk() throws Exception {
         long id = 1L;
 
-        when(userService.getUserById(anyLong()))
-                .thenReturn(ResponseEntity.ok(new DataDTO(userDTO)));
+        when(userService.getUserById(anyLong(), isNull()))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(userDTO)));
 
         mockMvc.perform(get("/api/users/{id}", id)
                         .accept(MediaType.APPLICATION_JSON))
@@ -83,11 +223,48 @@ public class UserControllerTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON));
     }
 
+    @Test
+    public void testReadUserByIdWithIfNoneMatch_thenHttpStatusIsNotModified() throws Exception {
+        when(userService.getUserById(1L, "\"3\""))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"3\"").build());
+
+        mockMvc.perform(get("/api/users/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    public void testReadMissingOrDeletedUser_thenHttpStatusIsNotFoundOrGone() throws Exception {
+        when(userService.getUserById(1L, null)).thenThrow(new UserNotFoundException("There is no user with such an id."));
+        when(userService.getUserById(2L, null)).thenThrow(new UserDeletedException("User with such an id has been deleted."));
+
+        mockMvc.perform(get("/api/users/{id}", 1L))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.exceptionName").value("UserNotFoundException"));
+        mockMvc.perform(get("/api/users/{id}", 2L))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.message").value("User with such an id has been deleted."));
+    }
+
+    @Test
+    public void testUpdateUserWithOldIfMatch_thenHttpStatusIsPreconditionFailed() throws Exception {
+        when(userService.updateAllUserFields(any(UserDTO.class), eq(1L), eq("\"3\"")))
+                .thenThrow(new PreconditionFailedException("User has been changed since the version of If-Match."));
+
+        mockMvc.perform(put("/api/users/{id}", 1L)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDTO)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.exceptionName").value("PreconditionFailedException"));
+    }
+
     @Test
     public void testDeleteUser_thenHttpStatusIsOk() throws Exception {
         long id = 1L;
 
-        when(userService.deleteUser(anyLong()))
+        when(userService.deleteUser(anyLong(), isNull()))
                 .thenReturn(ResponseEntity.ok().build());
 
         mockMvc.perform(delete("/api/users/{id}", id)
@@ -95,12 +272,25 @@ public class UserControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    public void testDeactivateUsers_thenCountIsReturned() throws Exception {
+        when(userService.deactivateUsers(any(DeactivationDTO.class)))
+                .thenReturn(ResponseEntity.ok(new DataDTO<>(new DeactivationResultDTO(2))));
+
+        mockMvc.perform(post("/api/users/deactivate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\": [1, 2, 3]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].deactivated").value(2));
+        verify(userService).deactivateUsers(new DeactivationDTO(List.of(1L, 2L, 3L), null, null));
+    }
+
     @Test
     public void testUpdateUser_thenHttpStatusIsOk() throws Exception {
         long id = 1L;
         String requestBody = objectMapper.writeValueAsString(userDTO);
 
-        when(userService.updateAllUserFields(any(UserDTO.class), anyLong()))
+        when(userService.updateAllUserFields(any(UserDTO.class), anyLong(), isNull()))
                 .thenReturn(ResponseEntity.ok().build());
 
         mockMvc.perform(put("/api/users/{id}", id)
@@ -115,7 +305,7 @@ public class UserControllerTest {
         long id = 1L;
         String requestBody = objectMapper.writeValueAsString(userDTO);
 
-        when(userService.partialUpdateUser(any(UserDTO.class), anyLong()))
+        when(userService.partialUpdateUser(any(UserDTO.class), anyLong(), isNull()))
                 .thenReturn(ResponseEntity.ok().build());
 
         mockMvc.perform(patch("/api/users/{id}", id)
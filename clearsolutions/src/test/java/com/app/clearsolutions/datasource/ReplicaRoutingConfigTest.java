@@ -0,0 +1,64 @@
+package com.app.clearsolutions.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that JPA read-only transactions of the application are routed to the replica, with two embedded
+ * H2 databases standing in for the primary and the replica.
+ */
+@SpringBootTest(classes = ReplicaRoutingConfigTest.TestConfig.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource.replica-urls=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "datasource.replica-lag-window=0s"})
+public class ReplicaRoutingConfigTest {
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testJpaTransactions_thenReadOnlyOnesGoToReplica() {
+        TransactionTemplate readTransactionTemplate = new TransactionTemplate(transactionManager);
+        readTransactionTemplate.setReadOnly(true);
+        TransactionTemplate writeTransactionTemplate = new TransactionTemplate(transactionManager);
+
+        assertEquals("routing-replica", readTransactionTemplate.execute(status -> node()));
+        assertEquals("routing-primary", writeTransactionTemplate.execute(status -> node()));
+    }
+
+    private String node() {
+        return (String) entityManager.createNativeQuery("SELECT name FROM node").getSingleResult();
+    }
+
+    @Configuration
+    @Import(ReplicaRoutingConfig.class)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    static class TestConfig {
+        static {
+            for (String name : new String[]{"routing-primary", "routing-replica"}) {
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(
+                        new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", ""));
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+                jdbcTemplate.update("DELETE FROM node");
+                jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.app.clearsolutions.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Routing tests with embedded H2 databases standing in for the primary and the replicas: each database has
+ * a one-row table holding its name.
+ */
+public class ReplicaRoutingDataSourceTest {
+    private final DataSource primary = database("primary");
+    private final DataSource replica1 = database("replica-1");
+    private final DataSource replica2 = database("replica-2");
+
+    @Test
+    public void testReadOnlyTransaction_thenReadsFromReplica() {
+        Routing routing = new Routing(List.of(replica1), Duration.ZERO);
+
+        assertEquals("replica-1", routing.read());
+        assertEquals("primary", routing.write());
+        assertEquals("primary", routing.withoutTransaction());
+    }
+
+    @Test
+    public void testReadOnlyTransactions_thenReplicasAreUsedRoundRobin() {
+        Routing routing = new Routing(List.of(replica1, replica2), Duration.ZERO);
+
+        List<String> databases = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            databases.add(routing.read());
+        }
+
+        assertEquals(List.of("replica-1", "replica-2", "replica-1", "replica-2"), databases);
+    }
+
+    @Test
+    public void testReplicaFails_thenReadsGoToOtherReplicaAndFailedOneIsSkipped() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Routing routing = new Routing(List.of(failing, replica2), Duration.ZERO);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("replica-2", routing.read());
+        }
+        verify(failing, times(1)).getConnection();
+    }
+
+    @Test
+    public void testAllReplicasFail_thenReadsGoToPrimary() throws SQLException {
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused"));
+        Routing routing = new Routing(List.of(failing), Duration.ZERO);
+
+        assertEquals("primary", routing.read());
+        assertEquals("primary", routing.read());
+    }
+
+    @Test
+    public void testReadAfterWrite_thenReadsFromPrimaryDuringLagWindow() {
+        Routing routing = new Routing(List.of(replica1), Duration.ofMinutes(1));
+
+        assertEquals("replica-1", routing.read());
+        routing.write();
+        assertEquals("primary", routing.read());
+    }
+
+    @Test
+    public void testWriteOnOtherThread_thenReadsStayOnReplica() throws Exception {
+        Routing routing = new Routing(List.of(replica1), Duration.ofMinutes(1));
+
+        Thread writer = new Thread(routing::write);
+        writer.start();
+        writer.join();
+
+        assertEquals("replica-1", routing.read());
+    }
+
+    @Test
+    public void testNoReplicas_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplicaRoutingDataSource(primary, List.of(), Duration.ZERO, Duration.ZERO));
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        jdbcTemplate.update("DELETE FROM node");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    /**
+     * The routing data source wired as in the application: behind a lazy connection proxy, with transactions
+     * of a transaction manager.
+     */
+    private class Routing {
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readTransactionTemplate;
+        private final TransactionTemplate writeTransactionTemplate;
+
+        Routing(List<DataSource> replicas, Duration lagWindow) {
+            DataSource dataSource = new LazyConnectionDataSourceProxy(
+                    new ReplicaRoutingDataSource(primary, replicas, Duration.ofMinutes(1), lagWindow));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            readTransactionTemplate = new TransactionTemplate(transactionManager);
+            readTransactionTemplate.setReadOnly(true);
+            writeTransactionTemplate = new TransactionTemplate(transactionManager);
+        }
+
+        String read() {
+            return readTransactionTemplate.execute(status -> withoutTransaction());
+        }
+
+        String write() {
+            return writeTransactionTemplate.execute(status -> withoutTransaction());
+        }
+
+        String withoutTransaction() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+    }
+}
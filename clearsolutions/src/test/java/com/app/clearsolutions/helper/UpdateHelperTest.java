@@ -31,6 +31,30 @@ public class UpdateHelperTest {
         assertEquals(newFirstName, user.getFirstName());
     }
 
+    @Test
+    public void testPatchUser_thenOnlyChangedFieldsAreReported() {
+        User user = new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003, 9, 15));
+        UserDTO userDTO = new UserDTO();
+        userDTO.setEmail("artem@gmail.com");
+        userDTO.setLastName("Biruk");
+        userDTO.setPhoneNumber("+380667778899");
+
+        int changedFields = updateHelper.patchUser(user, userDTO);
+
+        assertEquals(2, Integer.bitCount(changedFields));
+        assertEquals("Biruk", user.getLastName());
+        assertEquals("+380667778899", user.getPhoneNumber());
+    }
+
+    @Test
+    public void testPatchUserWithSameValues_thenReturnsZero() {
+        User user = new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003, 9, 15));
+
+        assertEquals(0, updateHelper.patchUser(user, UserDTO.getDTOFromUser(user)));
+    }
+
     @Test
     public void testCheckIfFieldsAreNonNull_thenReturnsTrue() throws IllegalAccessException {
         UserDTO userDTO = new UserDTO(2, "pavlo@gmail.com", "Pavlo", "Biruk",
@@ -0,0 +1,54 @@
+package com.app.clearsolutions.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongIntHashMapTest {
+    @Test
+    public void testPutGetAndRemove() {
+        LongIntHashMap map = new LongIntHashMap(0);
+
+        map.put(1, 10);
+        map.put(2, 20);
+        map.put(1, 11);
+
+        assertEquals(2, map.size());
+        assertEquals(11, map.getOrDefault(1, -1));
+        assertEquals(-1, map.getOrDefault(3, -1));
+        assertTrue(map.remove(1));
+        assertFalse(map.remove(1));
+        assertFalse(map.containsKey(1));
+        assertTrue(map.containsKey(2));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testRandomOperations_thenSameContentAsHashMap() {
+        LongIntHashMap map = new LongIntHashMap(0);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, -1), map.getOrDefault(key, -1));
+        }
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+}
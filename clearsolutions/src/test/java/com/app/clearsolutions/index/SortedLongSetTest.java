@@ -0,0 +1,58 @@
+package com.app.clearsolutions.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortedLongSetTest {
+    @Test
+    public void testRandomOperations_thenSameContentAsTreeSet() {
+        SortedLongSet set = new SortedLongSet();
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(10_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), set.remove(key));
+            } else {
+                assertEquals(expected.add(key), set.add(key));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        assertEquals(expected.first(), set.first());
+        assertEquals(expected.last(), set.last());
+        assertEquals(expected.headSet(5_000L).size(), set.rank(5_000));
+        assertEquals(new ArrayList<>(expected), keys(set, 0, set.size()));
+    }
+
+    @Test
+    public void testLoadedSet_thenPositionalReadsSpanBlocks() {
+        long[] keys = new long[3_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 2L;
+        }
+        SortedLongSet set = SortedLongSet.of(keys, 2_500);
+
+        assertTrue(set.add(1));
+        assertFalse(set.add(2));
+        assertTrue(set.remove(0));
+
+        assertEquals(2_500, set.size());
+        assertEquals(1_000, set.rank(2_000));
+        assertEquals(List.of(2_000L, 2_002L, 2_004L), keys(set, 1_000, 1_003));
+        assertEquals(4_998, set.last());
+    }
+
+    private static List<Long> keys(SortedLongSet set, int from, int to) {
+        List<Long> keys = new ArrayList<>();
+        set.forEach(from, to, keys::add);
+        return keys;
+    }
+}
@@ -0,0 +1,70 @@
+package com.app.clearsolutions.json;
+
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.Pagination;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDTOSerializerTest {
+    // dates as ISO strings, like the ObjectMapper configured by Spring Boot
+    private final ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final ObjectMapper userMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializers(new UserDTOSerializer()).build();
+
+    @Test
+    public void testSerialize_thenOutputIsSameAsDefault() throws Exception {
+        UserDTO userDTO = new UserDTO(1, "artem.sobko@gmail.com", "Artem", "Sobko \"Jr\"",
+                LocalDate.of(1995, 9, 5), "Kharkiv city, Naberezhna St. 1", "+380667778899");
+
+        assertEquals(defaultMapper.writeValueAsString(userDTO), userMapper.writeValueAsString(userDTO));
+        assertEquals("{\"id\":1,\"email\":\"artem.sobko@gmail.com\",\"firstName\":\"Artem\"," +
+                "\"lastName\":\"Sobko \\\"Jr\\\"\",\"birthDate\":\"1995-09-05\"," +
+                "\"address\":\"Kharkiv city, Naberezhna St. 1\",\"phoneNumber\":\"+380667778899\"}",
+                userMapper.writeValueAsString(userDTO));
+    }
+
+    @Test
+    public void testSerializeNullFields_thenOutputIsSameAsDefault() throws Exception {
+        UserDTO userDTO = new UserDTO();
+
+        assertEquals(defaultMapper.writeValueAsString(userDTO), userMapper.writeValueAsString(userDTO));
+    }
+
+    @Test
+    public void testSerializeYearOutOfIsoRange_thenOutputIsSameAsDefault() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setBirthDate(LocalDate.of(10000, 1, 1));
+
+        assertEquals(defaultMapper.writeValueAsString(userDTO), userMapper.writeValueAsString(userDTO));
+    }
+
+    @Test
+    public void testSerializeDatesAsTimestamps_thenOutputIsSameAsDefault() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setBirthDate(LocalDate.of(2000, 1, 1));
+
+        assertEquals(defaultMapper.writer(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(userDTO),
+                userMapper.writer(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(userDTO));
+        assertTrue(userMapper.writer(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).writeValueAsString(userDTO)
+                .contains("\"birthDate\":[2000,1,1]"));
+    }
+
+    @Test
+    public void testSerializePage_thenOutputIsSameAsDefault() throws Exception {
+        DataDTO<UserDTO> page = new DataDTO<>(new Pagination(2, 1), List.of(
+                new UserDTO(1, "artem@gmail.com", "Artem", "Sobko", LocalDate.of(1995, 9, 15), null, null),
+                new UserDTO(2, "pavlo@gmail.com", "Pavlo", "Sobko", LocalDate.of(2001, 12, 31), "Kyiv", null)));
+
+        assertEquals(defaultMapper.writeValueAsString(page), userMapper.writeValueAsString(page));
+    }
+}
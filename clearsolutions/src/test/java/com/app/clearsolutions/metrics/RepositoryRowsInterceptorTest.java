@@ -0,0 +1,109 @@
+package com.app.clearsolutions.metrics;
+
+import com.app.clearsolutions.model.dto.UserDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RepositoryRowsInterceptorTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testRowsOfCollectionsPagesAndOptionals() {
+        Repository repository = proxy();
+
+        repository.findAll();
+        repository.findAll();
+        repository.findPage();
+        repository.findById(1);
+        repository.findById(2);
+
+        assertEquals(2, summaryCount("findAll"));
+        assertEquals(6, summaryTotal("findAll"));
+        assertEquals(2, summaryTotal("findPage"));
+        assertEquals(2, summaryCount("findById"));
+        assertEquals(1, summaryTotal("findById"));
+        assertEquals("Repository", registry.get(RepositoryRowsInterceptor.METRIC_NAME).tag("method", "findAll")
+                .summary().getId().getTag("repository"));
+    }
+
+    @Test
+    public void testCountsAndStreamsNotRecorded() {
+        Repository repository = proxy();
+
+        repository.count();
+        repository.stream().close();
+
+        assertTrue(registry.find(RepositoryRowsInterceptor.METRIC_NAME).summaries().isEmpty());
+    }
+
+    @Test
+    public void testRows() {
+        assertEquals(0, RepositoryRowsInterceptor.rows(null, UserDTO.class));
+        assertEquals(1, RepositoryRowsInterceptor.rows(new UserDTO(), UserDTO.class));
+        assertEquals(-1, RepositoryRowsInterceptor.rows(5, int.class));
+        assertEquals(-1, RepositoryRowsInterceptor.rows(true, Boolean.class));
+    }
+
+    private Repository proxy() {
+        ProxyFactory factory = new ProxyFactory(new RepositoryImpl());
+        factory.addInterface(Repository.class);
+        factory.addAdvice(new RepositoryRowsInterceptor(() -> registry));
+        return (Repository) factory.getProxy();
+    }
+
+    private long summaryCount(String method) {
+        return registry.get(RepositoryRowsInterceptor.METRIC_NAME).tag("method", method).summary().count();
+    }
+
+    private double summaryTotal(String method) {
+        return registry.get(RepositoryRowsInterceptor.METRIC_NAME).tag("method", method).summary().totalAmount();
+    }
+
+    public interface Repository {
+        List<UserDTO> findAll();
+
+        Slice<UserDTO> findPage();
+
+        Optional<UserDTO> findById(long id);
+
+        long count();
+
+        Stream<UserDTO> stream();
+    }
+
+    private static class RepositoryImpl implements Repository {
+        @Override
+        public List<UserDTO> findAll() {
+            return List.of(new UserDTO(), new UserDTO(), new UserDTO());
+        }
+
+        @Override
+        public Slice<UserDTO> findPage() {
+            return new PageImpl<>(List.of(new UserDTO(), new UserDTO()));
+        }
+
+        @Override
+        public Optional<UserDTO> findById(long id) {
+            return id == 1 ? Optional.of(new UserDTO()) : Optional.empty();
+        }
+
+        @Override
+        public long count() {
+            return 3;
+        }
+
+        @Override
+        public Stream<UserDTO> stream() {
+            return Stream.of(new UserDTO());
+        }
+    }
+}
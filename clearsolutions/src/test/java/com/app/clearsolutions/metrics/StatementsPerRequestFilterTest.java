@@ -0,0 +1,87 @@
+package com.app.clearsolutions.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatementsPerRequestFilterTest {
+    private SimpleMeterRegistry registry;
+    private StatementCountingInspector inspector;
+    private StatementsPerRequestFilter filter;
+
+    @BeforeEach
+    public void init() {
+        registry = new SimpleMeterRegistry();
+        inspector = new StatementCountingInspector();
+        filter = new StatementsPerRequestFilter(inspector, () -> registry);
+    }
+
+    @Test
+    public void testStatementsOfRequestRecordedWithUriTemplate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+            inspector.inspect("select 1");
+            inspector.inspect("select 2");
+        });
+
+        DistributionSummary summary = registry.get(StatementsPerRequestFilter.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/users/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    public void testRepeatedRequests_thenSummaryIsRegisteredOnce() throws Exception {
+        AtomicInteger registrations = new AtomicInteger();
+        filter = new StatementsPerRequestFilter(inspector, () -> {
+            registrations.incrementAndGet(); // The registry is only needed to register a summary
+            return registry;
+        });
+
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/users/" + i), new MockHttpServletResponse(),
+                    (req, res) -> req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}"));
+        }
+
+        assertEquals(1, registrations.get());
+        assertEquals(2, registry.get(StatementsPerRequestFilter.METRIC_NAME)
+                .tag("uri", "/api/users/{id}")
+                .summary()
+                .count());
+    }
+
+    @Test
+    public void testStatementsOutsideRequestNotCounted() throws Exception {
+        inspector.inspect("select 1");
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/unknown"), new MockHttpServletResponse(),
+                (req, res) -> {});
+        inspector.inspect("select 2");
+
+        DistributionSummary summary = registry.get(StatementsPerRequestFilter.METRIC_NAME)
+                .tag("uri", "UNKNOWN")
+                .summary();
+        assertEquals(0, summary.totalAmount());
+        assertEquals(0, inspector.stop());
+    }
+
+    @Test
+    public void testInspectorReturnsStatementUnchanged() {
+        inspector.start();
+
+        assertEquals("select * from users", inspector.inspect("select * from users"));
+        assertEquals(1, inspector.stop());
+    }
+}
@@ -0,0 +1,282 @@
+package com.app.clearsolutions.repository;
+
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.repository.impl.InMemoryUserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryUserRepositoryTest {
+    private UserRepository userRepository;
+
+    @BeforeEach
+    public void setUp() {
+        userRepository = new InMemoryUserRepository("", Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testSave_thenIdsAreAllocatedAndUserIsFound() {
+        User saved = userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+        User other = userRepository.save(user("pavlo@gmail.com", "Pavlo", LocalDate.of(1990, 1, 1)));
+
+        assertEquals(1, saved.getId());
+        assertEquals(2, other.getId());
+        assertEquals(saved, userRepository.findUserById(1L));
+        assertNotSame(saved, userRepository.findUserById(1L));
+        assertNull(userRepository.findUserById(3L));
+        assertEquals(0L, userRepository.findActiveUserVersion(1));
+        assertEquals(2, userRepository.findAll().size());
+    }
+
+    @Test
+    public void testSaveDuplicateEmail_thenThrowsDataIntegrityViolationException() {
+        userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.save(user("ARTEM@gmail.com", "Other", LocalDate.of(2000, 1, 1))));
+        assertTrue(userRepository.existsByEmail("Artem@Gmail.com"));
+        assertEquals(List.of("artem@gmail.com"),
+                userRepository.findExistingEmails(List.of("artem@GMAIL.com", "pavlo@gmail.com")));
+    }
+
+    @Test
+    public void testSaveAllWithDuplicateEmail_thenNothingIsSaved() {
+        userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.saveAllAndFlush(List.of(
+                user("pavlo@gmail.com", "Pavlo", LocalDate.of(1990, 1, 1)),
+                user("pavlo@gmail.com", "Pavlo", LocalDate.of(1991, 1, 1)))));
+        assertEquals(1, userRepository.findAll().size());
+
+        List<User> saved = userRepository.saveAllAndFlush(List.of(
+                user("pavlo@gmail.com", "Pavlo", LocalDate.of(1990, 1, 1)),
+                user("taras@gmail.com", "Taras", LocalDate.of(1991, 1, 1))));
+        assertEquals(List.of(2L, 3L), saved.stream().map(User::getId).toList());
+    }
+
+    @Test
+    public void testSaveChangedUser_thenVersionIsIncrementedAndStaleSaveFails() {
+        userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+        User user = userRepository.findUserById(1L);
+        User stale = userRepository.findUserById(1L);
+
+        userRepository.save(user); // unchanged
+        assertEquals(0, user.getVersion());
+        user.setFirstName("Artur");
+        userRepository.save(user);
+
+        assertEquals(1, user.getVersion());
+        assertEquals("Artur", userRepository.findUserById(1L).getFirstName());
+        stale.setLastName("Other");
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userRepository.save(stale));
+    }
+
+    @Test
+    public void testChangeUserInTransaction_thenItIsWrittenBackOnCommitOnly() {
+        userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new InMemoryRepositoryConfig().transactionManager());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findUserById(1L);
+            assertSame(user, userRepository.findUserById(1L)); // One managed instance per user
+            user.setFirstName("Artur");
+        });
+        assertEquals("Artur", userRepository.findUserById(1L).getFirstName());
+        assertEquals(1L, userRepository.findActiveUserVersion(1));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.findUserById(1L).setFirstName("Rolled back");
+            status.setRollbackOnly();
+        });
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> userRepository.findUserById(1L).setFirstName("Read"));
+        userRepository.findUserById(1L).setFirstName("Copy");
+        assertEquals("Artur", userRepository.findUserById(1L).getFirstName());
+    }
+
+    @Test
+    public void testChangeUserUpdatedByAnotherCall_thenCommitFails() {
+        userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new InMemoryRepositoryConfig().transactionManager());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> transactionTemplate.executeWithoutResult(
+                status -> {
+                    userRepository.findUserById(1L).setFirstName("Artur");
+                    userRepository.updateActiveUser(1, "artem@gmail.com", "Other", "Sobko",
+                            LocalDate.of(2000, 1, 1), null, null);
+                }));
+        assertEquals("Other", userRepository.findUserById(1L).getFirstName());
+
+        transactionTemplate.executeWithoutResult(status -> { // An unchanged managed user is not written back
+            userRepository.findUserById(1L);
+            userRepository.deactivateUserById(1);
+        });
+        assertFalse(userRepository.findUserById(1L).getIsActive());
+    }
+
+    @Test
+    public void testUpdateAndDeactivate_thenOnlyMatchingVersionsAreChanged() {
+        userRepository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+        userRepository.save(user("pavlo@gmail.com", "Pavlo", LocalDate.of(1990, 1, 1)));
+
+        assertEquals(0, userRepository.updateActiveUserWithVersion(1, "artem@gmail.com", "Artur", "Sobko",
+                LocalDate.of(2000, 1, 1), null, null, 5));
+        assertEquals(1, userRepository.updateActiveUser(1, "artem@gmail.com", "Artur", "Sobko",
+                LocalDate.of(2000, 1, 1), null, null));
+        assertThrows(DataIntegrityViolationException.class, () -> userRepository.updateActiveUser(1,
+                "pavlo@gmail.com", "Artur", "Sobko", LocalDate.of(2000, 1, 1), null, null));
+        assertEquals(0, userRepository.deactivateUserByIdWithVersion(1, 0));
+        assertEquals(1, userRepository.deactivateUserByIdWithVersion(1, 1));
+        assertEquals(0, userRepository.deactivateUserById(1));
+
+        assertNull(userRepository.findActiveUserVersion(1));
+        assertFalse(userRepository.findUserById(1L).getIsActive());
+        assertEquals(false, userRepository.findIsActiveById(1));
+        assertNull(userRepository.findIsActiveById(3));
+        assertEquals(1, userRepository.countByIsActiveIsTrue());
+        assertTrue(userRepository.existsByEmail("artem@gmail.com")); // deactivated users keep their email
+    }
+
+    @Test
+    public void testBirthDateQueries_thenBoundsMatchTheDerivedQueries() {
+        userRepository.save(user("a@gmail.com", "A", LocalDate.of(1990, 1, 1)));
+        userRepository.save(user("b@gmail.com", "B", LocalDate.of(1995, 6, 1)));
+        userRepository.save(user("c@gmail.com", "C", LocalDate.of(1990, 1, 1)));
+        userRepository.save(user("d@gmail.com", "D", LocalDate.of(2000, 12, 31)));
+        LocalDate from = LocalDate.of(1990, 1, 1);
+        LocalDate to = LocalDate.of(2000, 12, 31);
+
+        assertEquals(List.of(1L, 3L, 2L, 4L), ids(userRepository.findUsersByBirthDateBetweenAndIsActiveIsTrue(
+                from, to, PageRequest.of(0, 10))));
+        assertEquals(List.of(1L, 3L, 2L), ids(userRepository.findUsersByBirthDateBeforeAndIsActiveIsTrue(
+                to, PageRequest.of(0, 10))));
+        assertEquals(List.of(2L, 4L), ids(userRepository.findUsersByBirthDateAfterAndIsActiveIsTrue(
+                from, PageRequest.of(0, 10))));
+        assertEquals(3, userRepository.countByBirthDateBeforeAndIsActiveIsTrue(to));
+
+        assertEquals(2, userRepository.deactivateUsersByBirthDateBetween(from, from));
+        assertEquals(List.of(2L, 4L), ids(userRepository.findUsersByBirthDateBetweenAndIsActiveIsTrue(
+                from, to, PageRequest.of(0, 10))));
+        assertEquals(List.of(4L), userRepository.findActiveUsersByBirthDateAfterKey(from, to,
+                LocalDate.of(1995, 6, 1), 2, PageRequest.of(0, 10)).stream().map(UserDTO::getId).toList());
+    }
+
+    @Test
+    public void testPagesAndSlices_thenPagesAreTakenInOrder() {
+        for (int i = 1; i <= 5; i++) {
+            userRepository.save(user("user" + i + "@gmail.com", "User" + (6 - i), LocalDate.of(1990, 1, i)));
+        }
+        userRepository.deactivateUserById(2);
+
+        Page<UserDTO> page = userRepository.findUsersByIsActiveIsTrue(PageRequest.of(1, 2));
+        assertEquals(List.of(4L, 5L), ids(page));
+        assertEquals(4, page.getTotalElements());
+        assertEquals(List.of(5L, 4L), ids(userRepository.findUsersByIsActiveIsTrue(
+                PageRequest.of(0, 2, Sort.by("firstName")))));
+        assertEquals(List.of(3L, 1L), ids(userRepository.findUsersByIsActiveIsTrue(
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "birthDate")))));
+
+        Slice<UserDTO> slice = userRepository.findSliceByIsActiveIsTrue(PageRequest.of(1, 2));
+        assertEquals(List.of(4L, 5L), ids(slice));
+        assertFalse(slice.hasNext());
+        assertTrue(userRepository.findSliceByIsActiveIsTrue(PageRequest.of(0, 3)).hasNext());
+        assertEquals(List.of(4L, 5L), userRepository.findActiveUsersAfterId(3, PageRequest.of(0, 10)).stream()
+                .map(UserDTO::getId).toList());
+        assertThrows(IllegalArgumentException.class,
+                () -> userRepository.findUsersByIsActiveIsTrue(PageRequest.of(0, 2, Sort.by("unknown"))));
+    }
+
+    @Test
+    public void testManyUsers_thenIndexesStayOrdered() {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 5000; i++) {
+            users.add(user("user" + i + "@gmail.com", "User", LocalDate.of(1950, 1, 1).plusDays((i * 7919L) % 20000)));
+        }
+        userRepository.saveAllAndFlush(users);
+        for (long id = 2; id <= 5000; id += 3) {
+            userRepository.deactivateUserById(id);
+        }
+
+        List<UserBirthDateDTO> expected = userRepository.streamActiveUserBirthDates()
+                .sorted(Comparator.comparing(UserBirthDateDTO::getBirthDate).thenComparing(UserBirthDateDTO::getId))
+                .toList();
+        List<Long> ids = ids(userRepository.findUsersByBirthDateBetweenAndIsActiveIsTrue(LocalDate.MIN,
+                LocalDate.MAX, PageRequest.of(0, 10000)));
+        assertEquals(expected.stream().map(UserBirthDateDTO::getId).toList(), ids);
+        assertEquals(3333, userRepository.countByIsActiveIsTrue()); // ids 2, 5, ..., 5000 are deactivated
+        assertEquals(List.of(4999L), ids(userRepository.findUsersByIsActiveIsTrue(PageRequest.of(3332, 1))));
+    }
+
+    @Test
+    public void testStreamsAcrossBatches_thenUsersInIdOrderWithWritesBetweenBatches() {
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 2500; i++) {
+            users.add(user("user" + i + "@gmail.com", "User", LocalDate.of(1990, 1, 1).plusDays(i % 2)));
+        }
+        userRepository.saveAllAndFlush(users);
+
+        Iterator<UserDTO> streamed = userRepository.streamActiveUsers().iterator();
+        assertEquals(1, streamed.next().getId());
+        userRepository.deactivateUserById(2000); // After the first batch: not streamed
+        userRepository.save(user("late@gmail.com", "Late", LocalDate.of(1990, 1, 1)));
+        List<Long> ids = new ArrayList<>();
+        streamed.forEachRemaining(user -> ids.add(user.getId()));
+
+        assertEquals(2499, ids.size());
+        assertFalse(ids.contains(2000L));
+        assertEquals(2501L, ids.get(ids.size() - 1));
+        assertEquals(1250, userRepository.streamActiveUsersByBirthDateBetween(LocalDate.of(1990, 1, 1),
+                LocalDate.of(1990, 1, 1)).count());
+        assertEquals(2501, userRepository.streamEmails().count());
+    }
+
+    @Test
+    public void testSnapshot_thenUsersAreLoadedAtStartup(@TempDir Path directory) {
+        Path snapshotFile = directory.resolve("users.snapshot");
+        InMemoryUserRepository repository = new InMemoryUserRepository(snapshotFile.toString(),
+                Duration.ofMinutes(1));
+        repository.save(user("artem@gmail.com", "Artem", LocalDate.of(2000, 1, 1)));
+        repository.save(user("pavlo@gmail.com", "Pavlo", LocalDate.of(1990, 1, 1)));
+        repository.deactivateUserById(1);
+        repository.close();
+
+        InMemoryUserRepository loaded = new InMemoryUserRepository(snapshotFile.toString(), Duration.ofMinutes(1));
+        assertEquals(repository.findAll(), loaded.findAll());
+        assertEquals(List.of(2L), ids(loaded.findUsersByIsActiveIsTrue(PageRequest.of(0, 10))));
+        assertTrue(loaded.existsByEmail("artem@gmail.com"));
+        assertEquals(3, loaded.save(user("taras@gmail.com", "Taras", LocalDate.of(1995, 1, 1))).getId());
+        assertEquals(Set.of("artem@gmail.com", "pavlo@gmail.com", "taras@gmail.com"),
+                Set.copyOf(loaded.streamEmails().toList()));
+        loaded.close();
+    }
+
+    private static User user(String email, String firstName, LocalDate birthDate) {
+        return new User(email, firstName, "Sobko", birthDate);
+    }
+
+    private static List<Long> ids(Slice<UserDTO> users) {
+        return users.getContent().stream().map(UserDTO::getId).toList();
+    }
+}
@@ -1,12 +1,20 @@
 package com.app.clearsolutions.repository;
 
 import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -85,4 +93,253 @@ public class UserRepositoryTest {
         assertEquals(3, userRepository.findUsersByBirthDateAfterAndIsActiveIsTrue(
                 from, Pageable.unpaged()).getSize());
     }
+
+    @Test
+    public void testFindActiveUsersAfterId() {
+        long firstId = 0;
+        for(int i = 0; i < 5; i++) {
+            User user = userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2000 + i,9,15)));
+            if (i == 0) {
+                firstId = user.getId();
+            }
+        }
+
+        List<UserDTO> users = userRepository.findActiveUsersAfterId(firstId, PageRequest.ofSize(3));
+
+        assertEquals(3, users.size());
+        assertEquals(firstId + 1, users.get(0).getId());
+        assertEquals(firstId + 3, users.get(2).getId());
+    }
+
+    @Test
+    public void testFindActiveUsersByBirthDateAfterKey() {
+        for(int i = 0; i < 4; i++) {
+            userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2003 - i,9,15)));
+        }
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk",
+                LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+
+        LocalDate from = LocalDate.of(2000, 1,1);
+        LocalDate to = LocalDate.of(2003, 1,1);
+
+        List<UserDTO> firstPage = userRepository.findActiveUsersByBirthDateAfterKey(from, to,
+                from.minusDays(1), 0, PageRequest.ofSize(2));
+        UserDTO last = firstPage.get(1);
+        List<UserDTO> secondPage = userRepository.findActiveUsersByBirthDateAfterKey(from, to,
+                last.getBirthDate(), last.getId(), PageRequest.ofSize(2));
+
+        assertEquals(LocalDate.of(2000,9,15), firstPage.get(0).getBirthDate());
+        assertEquals(LocalDate.of(2001,9,15), last.getBirthDate());
+        assertEquals(1, secondPage.size());
+        assertEquals(LocalDate.of(2002,9,15), secondPage.get(0).getBirthDate());
+    }
+
+    @Test
+    public void testFindSliceByIsActiveIsTrue() {
+        for(int i = 0; i < 3; i++) {
+            userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2003,9,15)));
+        }
+
+        assertTrue(userRepository.findSliceByIsActiveIsTrue(PageRequest.of(0, 2)).hasNext());
+        assertFalse(userRepository.findSliceByIsActiveIsTrue(PageRequest.of(1, 2)).hasNext());
+    }
+
+    @Test
+    public void testCountByBirthDateBetweenAndIsActiveIsTrue() {
+        for(int i = 0; i < 4; i++) {
+            userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2000 + i,9,15)));
+        }
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk",
+                LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+
+        assertEquals(4, userRepository.countByIsActiveIsTrue());
+        assertEquals(2, userRepository.countByBirthDateBetweenAndIsActiveIsTrue(
+                LocalDate.of(2001, 1,1), LocalDate.of(2003, 1,1)));
+    }
+
+    @Test
+    public void testFindUsersByIsActiveIsTrue_thenProjectionHasAllFields() {
+        User user = new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,15));
+        user.setAddress("Kharkiv");
+        user.setPhoneNumber("+380667778899");
+        userRepository.save(user);
+
+        UserDTO userDTO = userRepository.findUsersByIsActiveIsTrue(PageRequest.of(0, 10, Sort.by("firstName")))
+                .getContent().get(0);
+
+        assertEquals(UserDTO.getDTOFromUser(user), userDTO);
+    }
+
+    @Test
+    public void testFindExistingEmails() {
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk",
+                LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+        userRepository.save(new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,15)));
+
+        List<String> emails = userRepository.findExistingEmails(
+                List.of("artem@gmail.com", "pavlo@gmail.com", "oksana@gmail.com"));
+
+        assertEquals(2, emails.size());
+        assertTrue(emails.containsAll(List.of("artem@gmail.com", "pavlo@gmail.com")));
+    }
+
+    @Test
+    public void testSaveAllAndFlush_thenIdsAreAllocatedFromSequence() {
+        List<User> users = userRepository.saveAllAndFlush(List.of(
+                new User("artem@gmail.com", "Artem", "Sobko", LocalDate.of(2003,9,15)),
+                new User("pavlo@gmail.com", "Pavlo", "Biruk", LocalDate.of(2001,9,15))));
+
+        assertTrue(users.get(0).getId() != 0);
+        assertEquals(users.get(0).getId() + 1, users.get(1).getId());
+    }
+
+    @Test
+    public void testStreamActiveUsersByBirthDateBetween() {
+        for(int i = 0; i < 4; i++) {
+            userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2000 + i,9,15)));
+        }
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk",
+                LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+
+        try (Stream<UserDTO> users = userRepository.streamActiveUsersByBirthDateBetween(
+                LocalDate.of(2001, 1,1), LocalDate.of(2003, 1,1))) {
+            assertEquals(List.of("artem1@gmail.com", "artem2@gmail.com"),
+                    users.map(UserDTO::getEmail).toList());
+        }
+        try (Stream<UserDTO> users = userRepository.streamActiveUsers()) {
+            assertEquals(4, users.count());
+        }
+    }
+
+    @Test
+    public void testStreamActiveUserBirthDates() {
+        List<Long> ids = new ArrayList<>();
+        for(int i = 0; i < 3; i++) {
+            ids.add(userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2000 + i,9,15))).getId());
+        }
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk", LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+
+        try (Stream<UserBirthDateDTO> users = userRepository.streamActiveUserBirthDates()) {
+            assertEquals(List.of(new UserBirthDateDTO(ids.get(0), LocalDate.of(2000,9,15)),
+                    new UserBirthDateDTO(ids.get(1), LocalDate.of(2001,9,15)),
+                    new UserBirthDateDTO(ids.get(2), LocalDate.of(2002,9,15))), users.toList());
+        }
+    }
+
+    @Test
+    public void testStreamActiveUserSearchFieldsAndFindActiveUsersByIdIn_thenDeletedUsersAreExcluded() {
+        User user = userRepository.save(new User("artem@gmail.com", "Artem", "Sobko", LocalDate.of(2003,9,15)));
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk", LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+
+        try (Stream<UserSearchDTO> users = userRepository.streamActiveUserSearchFields()) {
+            assertEquals(List.of(new UserSearchDTO(user.getId(), "artem@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2003,9,15))), users.toList());
+        }
+        assertEquals(List.of(UserDTO.getDTOFromUser(user)),
+                userRepository.findActiveUsersByIdIn(List.of(user.getId(), inactiveUser.getId())));
+    }
+
+    @Test
+    public void testExistsByEmailAndStreamEmails_thenDeletedUsersAreIncluded() {
+        userRepository.save(new User("artem@gmail.com", "Artem", "Sobko", LocalDate.of(2003,9,15)));
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk", LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        userRepository.save(inactiveUser);
+
+        assertTrue(userRepository.existsByEmail("pavlo@gmail.com"));
+        assertFalse(userRepository.existsByEmail("oksana@gmail.com"));
+        try (Stream<String> emails = userRepository.streamEmails()) {
+            assertEquals(List.of("artem@gmail.com", "pavlo@gmail.com"), emails.sorted().toList());
+        }
+    }
+
+    @Test
+    public void testDeactivateUserById_thenAffectedRowsTellIfUserWasActive() {
+        User user = userRepository.save(new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,15)));
+
+        assertEquals(1, userRepository.deactivateUserById(user.getId()));
+        assertEquals(0, userRepository.deactivateUserById(user.getId()));
+        assertEquals(0, userRepository.deactivateUserById(user.getId() + 100));
+        assertEquals(0, userRepository.countByIsActiveIsTrue());
+    }
+
+    @Test
+    public void testDeactivateUsersByIdInAndByBirthDateBetween() {
+        List<Long> ids = new ArrayList<>();
+        for(int i = 0; i < 4; i++) {
+            ids.add(userRepository.save(new User("artem" + i + "@gmail.com", "Artem", "Sobko",
+                    LocalDate.of(2000 + i,9,15))).getId());
+        }
+
+        assertEquals(2, userRepository.deactivateUsersByIdIn(List.of(ids.get(0), ids.get(1), -1L)));
+        assertEquals(1, userRepository.deactivateUsersByBirthDateBetween(LocalDate.of(2001, 1,1),
+                LocalDate.of(2002, 12,31)));
+        assertEquals(1, userRepository.countByIsActiveIsTrue());
+    }
+
+    @Test
+    public void testUpdateActiveUser_thenOnlyActiveUserIsUpdated() {
+        User user = userRepository.save(new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,15)));
+        User inactiveUser = new User("pavlo@gmail.com", "Pavlo", "Biruk", LocalDate.of(2001,9,15));
+        inactiveUser.setActive(false);
+        inactiveUser = userRepository.save(inactiveUser);
+
+        assertEquals(1, userRepository.updateActiveUser(user.getId(), "artem.sobko@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,16), "Kyiv", "+380998887766"));
+        assertEquals(0, userRepository.updateActiveUser(inactiveUser.getId(), "pavlo.biruk@gmail.com", "Pavlo",
+                "Biruk", LocalDate.of(2001,9,15), "Kyiv", "+380998887766"));
+        assertEquals(List.of("artem.sobko@gmail.com"), userRepository.findExistingEmails(
+                List.of("artem.sobko@gmail.com", "pavlo.biruk@gmail.com")));
+    }
+
+    @Test
+    public void testWrites_thenVersionIsIncrementedAndCheckedByConditionalWrites() {
+        User user = userRepository.save(new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,15)));
+        long version = userRepository.findActiveUserVersion(user.getId());
+
+        assertEquals(1, userRepository.updateActiveUser(user.getId(), "artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,16), null, null));
+        assertEquals(version + 1, userRepository.findActiveUserVersion(user.getId()));
+        assertEquals(0, userRepository.updateActiveUserWithVersion(user.getId(), "artem@gmail.com", "Artem",
+                "Sobko", LocalDate.of(2003,9,17), null, null, version));
+        assertEquals(1, userRepository.updateActiveUserWithVersion(user.getId(), "artem@gmail.com", "Artem",
+                "Sobko", LocalDate.of(2003,9,17), null, null, version + 1));
+        assertEquals(0, userRepository.deactivateUserByIdWithVersion(user.getId(), version + 1));
+        assertEquals(1, userRepository.deactivateUserByIdWithVersion(user.getId(), version + 2));
+        assertNull(userRepository.findActiveUserVersion(user.getId()));
+    }
+
+    @Test
+    public void testFindIsActiveById_thenActiveDeletedAndMissingUsersAreTold() {
+        User user = userRepository.save(new User("artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2003,9,15)));
+
+        assertEquals(true, userRepository.findIsActiveById(user.getId()));
+        userRepository.deactivateUserById(user.getId());
+        assertEquals(false, userRepository.findIsActiveById(user.getId()));
+        assertNull(userRepository.findIsActiveById(user.getId() + 1000));
+    }
 }
@@ -0,0 +1,141 @@
+package com.app.clearsolutions.search;
+
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.exception.SnapshotLoadingException;
+import com.app.clearsolutions.model.dto.BirthDateRangeDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+import com.app.clearsolutions.search.impl.UserSearchIndexImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserSearchIndexTest {
+    private UserSearchIndex userSearchIndex;
+
+    @BeforeEach
+    public void setUp() {
+        userSearchIndex = new UserSearchIndexImpl();
+    }
+
+    @Test
+    public void testSearchBeforeLoad_thenThrowsSnapshotLoadingException() {
+        assertFalse(userSearchIndex.isLoaded());
+        assertThrows(SnapshotLoadingException.class, () -> userSearchIndex.search("art", 10));
+    }
+
+    @Test
+    public void testLoad_thenPrefixesOfNamesAndEmailsAreFound() {
+        load();
+
+        assertEquals(9, userSearchIndex.size());
+        assertEquals(List.of(1L, 3L), userSearchIndex.search("art", 10));
+        assertEquals(List.of(1L, 3L), userSearchIndex.search(" ARTEM ", 10));
+        assertEquals(List.of(2L), userSearchIndex.search("pavlo@", 10));
+        assertEquals(List.of(3L, 1L, 2L), userSearchIndex.search("s", 10)); // shevchenko (3), sobko (1, 2)
+        assertEquals(List.of(3L, 1L), userSearchIndex.search("s", 2));
+        assertEquals(List.of(), userSearchIndex.search("zz", 10));
+    }
+
+    @Test
+    public void testUserEvents_thenIndexIsUpdated() {
+        load();
+
+        userSearchIndex.onUserChanged(new UserChangedEvent(4, null, user(4, "Oksana", "Artemenko")));
+        userSearchIndex.onUserChanged(new UserChangedEvent(1, user(1, "Artem", "Sobko"), user(1, "Artur", "Sobko")));
+        userSearchIndex.onUserChanged(new UserChangedEvent(2, user(2, "Pavlo", "Sobko"), null));
+        userSearchIndex.onUserChanged(UserChangedEvent.updatedWithoutPrevious(3, user(3, "Taras", "Shevchenko")));
+
+        assertEquals(List.of(1L, 4L), userSearchIndex.search("art", 10)); // artem.sobko@gmail.com, artemenko
+        assertEquals(List.of(1L), userSearchIndex.search("artur", 10));
+        assertEquals(List.of(1L), userSearchIndex.search("sobko", 10));
+        assertEquals(List.of(3L), userSearchIndex.search("taras", 10));
+        assertEquals(List.of(), userSearchIndex.search("pavlo", 10));
+    }
+
+    @Test
+    public void testDeactivationEvents_thenUsersAreRemoved() {
+        load();
+
+        userSearchIndex.onUsersDeactivated(new UsersDeactivatedEvent(List.of(1L, 9L), null, 1));
+        assertEquals(List.of(3L), userSearchIndex.search("art", 10));
+
+        userSearchIndex.onUsersDeactivated(new UsersDeactivatedEvent(null,
+                new BirthDateRangeDTO(LocalDate.of(1995, 1, 1), LocalDate.of(1995, 12, 31)), 1));
+        assertEquals(List.of(3L), userSearchIndex.search("s", 10));
+    }
+
+    @Test
+    public void testUpdateWithStalePreviousKeys_thenIndexedKeysAreReplaced() {
+        load();
+
+        userSearchIndex.onUserChanged(new UserChangedEvent(2, user(2, "Ivan", "Franko"), user(2, "Petro", "Sobko")));
+
+        assertEquals(9, userSearchIndex.size()); // "pavlo" replaced by "petro", the email and last name kept
+        assertEquals(List.of(2L), userSearchIndex.search("petro", 10));
+        assertEquals(List.of(2L), userSearchIndex.search("pavlo", 10)); // pavlo@gmail.com
+        assertEquals(List.of(), userSearchIndex.search("ivan", 10));
+    }
+
+    @Test
+    public void testDeletesAcrossBlocks_thenRemainingUsersAreFound() {
+        userSearchIndex.load(LongStream.rangeClosed(1, 3000).mapToObj(id -> new UserSearchDTO(id,
+                "user" + id + "@gmail.com", "Name" + id, "Last", LocalDate.of(2000, 1, 1))));
+
+        userSearchIndex.onUsersDeactivated(new UsersDeactivatedEvent(
+                LongStream.rangeClosed(1, 2990).boxed().toList(), null, 2990));
+        userSearchIndex.onUserChanged(new UserChangedEvent(5, null, user(5, "Name5", "Last")));
+
+        assertEquals(33, userSearchIndex.size());
+        assertEquals(List.of(2991L, 2992L), userSearchIndex.search("name", 2));
+        assertEquals(List.of(5L), userSearchIndex.search("name5", 10));
+        assertEquals(11, userSearchIndex.search("last", 100).size());
+    }
+
+    @Test
+    public void testEventsBeforeLoad_thenReplayedOnSnapshot() {
+        // Created before the snapshot query (already in it) and after it (not in it)
+        userSearchIndex.onUserChanged(new UserChangedEvent(3, null, user(3, "Artem", "Shevchenko")));
+        userSearchIndex.onUserChanged(new UserChangedEvent(4, null, user(4, "Oksana", "Artemenko")));
+        userSearchIndex.onUserChanged(new UserChangedEvent(2, user(2, "Pavlo", "Sobko"), null));
+
+        load();
+
+        assertEquals(List.of(1L, 3L, 4L), userSearchIndex.search("art", 10));
+        assertEquals(List.of(), userSearchIndex.search("pavlo", 10));
+    }
+
+    @Test
+    public void testManyInserts_thenArraysGrow() {
+        userSearchIndex.load(Stream.empty());
+
+        for (int i = 1; i <= 2000; i++) {
+            userSearchIndex.onUserChanged(new UserChangedEvent(i, null, new UserDTO(i, "user" + i + "@gmail.com",
+                    "Name" + i, "Last", LocalDate.of(2000, 1, 1), null, null)));
+        }
+
+        assertEquals(6000, userSearchIndex.size());
+        assertEquals(2000, userSearchIndex.search("user", 5000).size());
+        assertEquals(List.of(1L, 10L, 100L, 1000L), userSearchIndex.search("name1", 4));
+    }
+
+    private void load() {
+        userSearchIndex.load(Stream.of(
+                new UserSearchDTO(1, "artem.sobko@gmail.com", "Artem", "Sobko", LocalDate.of(1990, 1, 1)),
+                new UserSearchDTO(2, "pavlo@gmail.com", "Pavlo", "Sobko", LocalDate.of(1995, 6, 1)),
+                new UserSearchDTO(3, "taras@gmail.com", "Artem", "Shevchenko", LocalDate.of(2000, 1, 1))));
+    }
+
+    private static UserDTO user(long id, String firstName, String lastName) {
+        String email = id == 1 ? "artem.sobko@gmail.com" : id == 2 ? "pavlo@gmail.com"
+                : id == 3 ? "taras@gmail.com" : "user" + id + "@gmail.com";
+        return new UserDTO(id, email, firstName, lastName, LocalDate.of(2000, 1, 1), null, null);
+    }
+}
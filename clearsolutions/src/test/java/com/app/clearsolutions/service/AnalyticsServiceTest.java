@@ -0,0 +1,112 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.analytics.BirthDateIndex;
+import com.app.clearsolutions.model.dto.AgeBucketDTO;
+import com.app.clearsolutions.model.dto.BirthYearCountDTO;
+import com.app.clearsolutions.model.dto.CountDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.UserBirthDateDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.service.impl.AnalyticsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AnalyticsServiceTest {
+    private AnalyticsServiceImpl analyticsService;
+    @Mock
+    private BirthDateIndex birthDateIndex;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        analyticsService = new AnalyticsServiceImpl(birthDateIndex, userRepository,
+                new TransactionTemplate(transactionManager), new int[]{18, 30});
+    }
+
+    @Test
+    public void testInvalidAgeBuckets_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new AnalyticsServiceImpl(birthDateIndex, userRepository,
+                new TransactionTemplate(transactionManager), new int[]{30, 18}));
+    }
+
+    @Test
+    public void testLoadSnapshot_thenIndexIsLoadedFromStreamAndStreamIsClosed() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<UserBirthDateDTO> users = Stream.of(new UserBirthDateDTO(1, LocalDate.of(2000, 1, 1)))
+                .onClose(() -> closed.set(true));
+
+        when(userRepository.streamActiveUserBirthDates()).thenReturn(users);
+
+        analyticsService.loadSnapshot();
+
+        verify(birthDateIndex).load(users);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testCountUsers_thenIndexIsQueriedWithRangeBounds() {
+        when(birthDateIndex.countBetween(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31))).thenReturn(7L);
+
+        ResponseEntity<DataDTO<CountDTO>> resp = analyticsService.countUsers("1990-01-01", "1999-12-31");
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(List.of(new CountDTO(7)), resp.getBody().getData());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void testCountUsersWithInvalidRange_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> analyticsService.countUsers("2000-01-01", "1990-01-01"));
+        verifyNoInteractions(birthDateIndex);
+    }
+
+    @Test
+    public void testCountUsersByBirthYear_thenOneItemPerYear() {
+        Map<Integer, Long> years = new LinkedHashMap<>();
+        years.put(1999, 2L);
+        years.put(2000, 0L);
+        years.put(2001, 5L);
+
+        when(birthDateIndex.countByBirthYear()).thenReturn(years);
+
+        ResponseEntity<DataDTO<BirthYearCountDTO>> resp = analyticsService.countUsersByBirthYear();
+
+        assertEquals(List.of(new BirthYearCountDTO(1999, 2), new BirthYearCountDTO(2000, 0),
+                new BirthYearCountDTO(2001, 5)), resp.getBody().getData());
+    }
+
+    @Test
+    public void testCountUsersByAge_thenBucketsCoverAgesWithoutOverlap() {
+        LocalDate today = LocalDate.now();
+
+        when(birthDateIndex.countBetween(today.minusYears(30).plusDays(1), today.minusYears(18))).thenReturn(3L);
+        when(birthDateIndex.countBetween(any(), eq(today.minusYears(30)))).thenReturn(4L);
+
+        ResponseEntity<DataDTO<AgeBucketDTO>> resp = analyticsService.countUsersByAge();
+
+        assertEquals(List.of(new AgeBucketDTO(18, 29, 3), new AgeBucketDTO(30, null, 4)),
+                resp.getBody().getData());
+    }
+}
@@ -0,0 +1,153 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.cache.impl.EmailFilterImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.service.impl.BatchServiceImpl;
+import com.app.clearsolutions.validator.impl.UserValidatorImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BatchServiceTest {
+    private BatchServiceImpl batchService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private Environment environment;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private EmailFilterImpl emailFilter;
+    private long nextId;
+
+    @BeforeEach
+    public void setUp() {
+        nextId = 1;
+        emailFilter = new EmailFilterImpl(userRepository, new TransactionTemplate(transactionManager), 1000, 0.01); // not loaded
+        batchService = new BatchServiceImpl(userRepository, new UserValidatorImpl(environment), emailFilter,
+                transactionManager, eventPublisher, 2, 5);
+    }
+
+    @Test
+    public void testCreateUsers_thenUsersAreInsertedInChunks() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of());
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        ResponseEntity<DataDTO<BatchItemResultDTO>> resp = batchService.createUsers(
+                List.of(userDTO("artem@gmail.com"), userDTO("pavlo@gmail.com"), userDTO("oksana@gmail.com")));
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(List.of(BatchItemResultDTO.created(0, 1), BatchItemResultDTO.created(1, 2),
+                BatchItemResultDTO.created(2, 3)), resp.getBody().getData());
+        verify(userRepository, times(2)).saveAllAndFlush(anyList());
+        verify(eventPublisher, times(3)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    public void testSaveUsersWithInvalidAndDuplicateItems_thenOnlyValidUsersAreInserted() {
+        UserDTO withoutLastName = userDTO("oksana@gmail.com");
+        withoutLastName.setLastName(null);
+        UserDTO withInvalidEmail = userDTO("yuriy.gmail.com");
+
+        when(environment.getProperty(anyString())).thenReturn("18");
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of("Pavlo@gmail.com"));
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        List<BatchItemResultDTO> results = batchService.saveUsers(List.of(userDTO("artem@gmail.com"),
+                userDTO("ARTEM@gmail.com"), withoutLastName, withInvalidEmail, userDTO("pavlo@gmail.com")));
+
+        assertEquals(BatchItemResultDTO.created(0, 1), results.get(0));
+        assertEquals("Email is used by another user of the batch.", results.get(1).getMessage());
+        assertEquals(400, results.get(2).getStatus());
+        assertEquals("Invalid format of input data: email.", results.get(3).getMessage());
+        assertEquals("User with such an email already exists!", results.get(4).getMessage());
+        verify(userRepository, times(1)).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    public void testSaveUsersWithLoadedEmailFilter_thenOnlyProbablyTakenEmailsAreLookedUp() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+        when(userRepository.streamEmails()).thenReturn(Stream.of("pavlo@gmail.com"));
+        when(userRepository.findExistingEmails(List.of("PAVLO@gmail.com"))).thenReturn(List.of("pavlo@gmail.com"));
+        when(userRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+        emailFilter.load();
+
+        List<BatchItemResultDTO> results = batchService.saveUsers(List.of(userDTO("artem@gmail.com"),
+                userDTO("PAVLO@gmail.com"), userDTO("oksana@gmail.com")));
+
+        assertEquals(BatchItemResultDTO.created(0, 1), results.get(0));
+        assertEquals(BatchItemResultDTO.failed(1, "User with such an email already exists!"), results.get(1));
+        assertEquals(BatchItemResultDTO.created(2, 2), results.get(2));
+        verify(userRepository, times(1)).findExistingEmails(anyList());
+    }
+
+    @Test
+    public void testSaveUsersWhenChunkViolatesConstraint_thenItemsAreRetriedOneByOne() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+        when(userRepository.findExistingEmails(anyList())).thenReturn(List.of());
+        when(userRepository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("email"));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getEmail().equals("pavlo@gmail.com")) {
+                throw new DataIntegrityViolationException("email");
+            }
+            user.setId(nextId++);
+            return user;
+        });
+
+        List<BatchItemResultDTO> results = batchService.saveUsers(List.of(userDTO("artem@gmail.com"),
+                userDTO("pavlo@gmail.com")));
+
+        assertEquals(BatchItemResultDTO.created(0, 1), results.get(0));
+        assertEquals(BatchItemResultDTO.failed(1, "User with such an email already exists!"), results.get(1));
+        verify(eventPublisher, times(1)).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    public void testCreateUsersWithTooManyItems_thenThrowsIllegalArgumentException() {
+        List<UserDTO> userDTOs = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            userDTOs.add(userDTO("artem" + i + "@gmail.com"));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> batchService.createUsers(userDTOs));
+        assertThrows(IllegalArgumentException.class, () -> batchService.createUsers(List.of()));
+        verifyNoInteractions(userRepository);
+    }
+
+    private UserDTO userDTO(String email) {
+        return new UserDTO(0, email, "Artem", "Sobko", LocalDate.of(2003, 9, 15), null, null);
+    }
+
+    private List<User> assignIds(List<User> users) {
+        for (User user : users) {
+            user.setId(nextId++);
+        }
+        return users;
+    }
+}
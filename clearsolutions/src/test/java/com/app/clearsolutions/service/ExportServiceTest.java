@@ -0,0 +1,89 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.service.impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExportServiceTest {
+    private ExportServiceImpl exportService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final UserDTO artem = new UserDTO(1, "artem@gmail.com", "Artem", "Sobko",
+            LocalDate.of(2003, 9, 15), null, null);
+    private final UserDTO pavlo = new UserDTO(2, "pavlo@gmail.com", "Pavlo", "Biruk",
+            LocalDate.of(2000, 5, 10), "Kharkiv", "+380667778899");
+
+    @BeforeEach
+    public void setUp() {
+        exportService = new ExportServiceImpl(userRepository, transactionManager,
+                Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+    }
+
+    @Test
+    public void testExportUsers_thenEveryUserIsWrittenOnItsOwnLineAndStreamIsClosed() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(userRepository.streamActiveUsers())
+                .thenReturn(Stream.of(artem, pavlo).onClose(() -> closed.set(true)));
+
+        ResponseEntity<StreamingResponseBody> resp = exportService.exportUsers("", "");
+        String body = write(resp.getBody());
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, resp.getHeaders().getContentType());
+        assertEquals("{\"id\":1,\"email\":\"artem@gmail.com\",\"firstName\":\"Artem\",\"lastName\":\"Sobko\"," +
+                "\"birthDate\":\"2003-09-15\",\"address\":null,\"phoneNumber\":null}\n" +
+                "{\"id\":2,\"email\":\"pavlo@gmail.com\",\"firstName\":\"Pavlo\",\"lastName\":\"Biruk\"," +
+                "\"birthDate\":\"2000-05-10\",\"address\":\"Kharkiv\",\"phoneNumber\":\"+380667778899\"}\n", body);
+        assertTrue(closed.get());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    public void testExportUsersWithOnlyFrom_thenRangeIsExclusive() throws IOException {
+        when(userRepository.streamActiveUsersByBirthDateBetween(LocalDate.of(2000, 1, 2),
+                LocalDate.of(9999, 12, 31))).thenReturn(Stream.of(artem));
+
+        String body = write(exportService.exportUsers("2000-01-01", "").getBody());
+
+        assertEquals(1, body.lines().count());
+    }
+
+    @Test
+    public void testExportUsersWithWrongChronology_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> exportService.exportUsers("2005-01-01", "2000-01-01"));
+        verifyNoInteractions(userRepository);
+    }
+
+    private String write(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
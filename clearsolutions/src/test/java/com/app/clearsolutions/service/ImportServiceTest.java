@@ -0,0 +1,147 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.BatchItemResultDTO;
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.ImportErrorDTO;
+import com.app.clearsolutions.model.dto.ImportReportDTO;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.service.impl.ImportServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ImportServiceTest {
+    private ImportServiceImpl importService;
+    @Mock
+    private BatchService batchService;
+    private final List<List<UserDTO>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        importService = new ImportServiceImpl(batchService, Jackson2ObjectMapperBuilder.json().build(), 2, 10);
+    }
+
+    @Test
+    public void testImportCsv_thenLinesAreParsedAndCommittedInChunks() {
+        when(batchService.saveUsers(anyList())).thenAnswer(invocation -> createAll(invocation.getArgument(0)));
+
+        ImportReportDTO report = report(importService.importUsers(body("""
+                lastName,firstName,email,birthDate,address
+                Sobko,Artem,artem@gmail.com,2003-09-15,"Kharkiv, ""Center""\"
+                Biruk,Pavlo,pavlo@gmail.com,2000-05-10,
+
+                Gerero,Yuriy,yuriy@gmail.com,1990-01-01,Kyiv
+                """), "text/csv", 0), HttpStatus.OK);
+
+        assertEquals(3, report.getCreated());
+        assertEquals(5, report.getLastCommittedLine());
+        assertTrue(report.isCompleted());
+        assertEquals(2, chunks.size());
+        assertEquals(new UserDTO(0, "artem@gmail.com", "Artem", "Sobko", LocalDate.of(2003, 9, 15),
+                "Kharkiv, \"Center\"", null), chunks.get(0).get(0));
+        assertNull(chunks.get(0).get(1).getAddress());
+    }
+
+    @Test
+    public void testImportCsvWithInvalidLines_thenTheyAreReportedWithLineNumbers() {
+        when(batchService.saveUsers(anyList())).thenAnswer(invocation -> {
+            List<UserDTO> userDTOs = invocation.getArgument(0);
+            chunks.add(new ArrayList<>(userDTOs));
+            return List.of(BatchItemResultDTO.created(0, 1),
+                    BatchItemResultDTO.failed(1, "User with such an email already exists!"));
+        });
+
+        ImportReportDTO report = report(importService.importUsers(body("""
+                email,firstName,lastName,birthDate
+                artem@gmail.com,Artem,Sobko,15.09.2003
+                artem@gmail.com,Artem,Sobko
+                artem@gmail.com,Artem,Sobko,2003-09-15
+                pavlo@gmail.com,Pavlo,Biruk,2000-05-10
+                """), "text/csv", 0), HttpStatus.OK);
+
+        assertEquals(1, report.getCreated());
+        assertEquals(3, report.getRejected());
+        assertEquals(List.of(new ImportErrorDTO(2, "Wrong date format. Example of correct format: '2000-01-01'"),
+                new ImportErrorDTO(3, "Expected 4 values, found 3."),
+                new ImportErrorDTO(5, "User with such an email already exists!")), report.getErrors());
+    }
+
+    @Test
+    public void testImportNdjsonWithResumeAfterLine_thenCommittedLinesAreSkipped() {
+        when(batchService.saveUsers(anyList())).thenAnswer(invocation -> createAll(invocation.getArgument(0)));
+
+        ImportReportDTO report = report(importService.importUsers(body("""
+                {"email":"artem@gmail.com","firstName":"Artem","lastName":"Sobko","birthDate":"2003-09-15"}
+                {"email":"pavlo@gmail.com","firstName":"Pavlo","lastName":"Biruk","birthDate":"2000-05-10"}
+                {"email":"oksana@gmail.com",
+                {"email":"yuriy@gmail.com","firstName":"Yuriy","lastName":"Gerero","birthDate":"1990-01-01"}
+                """), "application/x-ndjson;charset=UTF-8", 1), HttpStatus.OK);
+
+        assertEquals(2, report.getCreated());
+        assertEquals(List.of(new ImportErrorDTO(3, "Malformed JSON line.")), report.getErrors());
+        assertEquals("pavlo@gmail.com", chunks.get(0).get(0).getEmail());
+    }
+
+    @Test
+    public void testImportWhenDatabaseFails_thenLastCommittedLineIsReported() {
+        when(batchService.saveUsers(any()))
+                .thenAnswer(invocation -> createAll(invocation.getArgument(0)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+        ImportReportDTO report = report(importService.importUsers(body("""
+                email,firstName,lastName,birthDate
+                artem@gmail.com,Artem,Sobko,2003-09-15
+                pavlo@gmail.com,Pavlo,Biruk,2000-05-10
+                yuriy@gmail.com,Yuriy,Gerero,1990-01-01
+                """), "text/csv", 0), HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertEquals(2, report.getCreated());
+        assertEquals(3, report.getLastCommittedLine());
+        assertFalse(report.isCompleted());
+        assertEquals("Connection refused", report.getFailure());
+    }
+
+    @Test
+    public void testImportWithUnknownCsvColumnOrFormat_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> importService.importUsers(
+                body("email,nickname\n"), "text/csv", 0));
+        assertThrows(IllegalArgumentException.class, () -> importService.importUsers(
+                body("email\n"), "application/xml", 0));
+        verifyNoInteractions(batchService);
+    }
+
+    private InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImportReportDTO report(ResponseEntity<DataDTO<ImportReportDTO>> resp, HttpStatus status) {
+        assertEquals(status, resp.getStatusCode());
+        return resp.getBody().getData().get(0);
+    }
+
+    private List<BatchItemResultDTO> createAll(List<UserDTO> userDTOs) {
+        chunks.add(new ArrayList<>(userDTOs));
+        List<BatchItemResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < userDTOs.size(); i++) {
+            results.add(BatchItemResultDTO.created(i, i + 1));
+        }
+        return results;
+    }
+}
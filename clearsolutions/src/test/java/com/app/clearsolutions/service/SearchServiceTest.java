@@ -0,0 +1,122 @@
+package com.app.clearsolutions.service;
+
+import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.Pagination;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.model.dto.UserSearchDTO;
+import com.app.clearsolutions.repository.UserRepository;
+import com.app.clearsolutions.search.UserSearchIndex;
+import com.app.clearsolutions.service.impl.SearchServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SearchServiceTest {
+    private SearchServiceImpl searchService;
+    @Mock
+    private UserSearchIndex userSearchIndex;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setUp() {
+        searchService = new SearchServiceImpl(userSearchIndex, userRepository, transactionManager,
+                new TransactionTemplate(transactionManager), 100);
+    }
+
+    @Test
+    public void testLoadIndex_thenIndexIsLoadedFromStreamAndStreamIsClosed() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<UserSearchDTO> users = Stream.of(new UserSearchDTO(1, "artem@gmail.com", "Artem", "Sobko",
+                LocalDate.of(2000, 1, 1))).onClose(() -> closed.set(true));
+
+        when(userRepository.streamActiveUserSearchFields()).thenReturn(users);
+
+        searchService.loadIndex();
+
+        verify(userSearchIndex).load(users);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    public void testLoadIndexAndSearch_thenOnlyTheSearchIsReadOnly() {
+        when(userRepository.streamActiveUserSearchFields()).thenReturn(Stream.empty());
+        when(userSearchIndex.search("art", 100)).thenReturn(List.of(1L));
+        when(userRepository.findActiveUsersByIdIn(List.of(1L))).thenReturn(List.of(user(1)));
+
+        searchService.loadIndex();
+        searchService.searchUsers("art", PageRequest.of(0, 10));
+
+        // A read-only transaction may be routed to a replica, which must not serve the snapshot
+        ArgumentCaptor<TransactionDefinition> definitions = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager, times(2)).getTransaction(definitions.capture());
+        assertFalse(definitions.getAllValues().get(0).isReadOnly());
+        assertTrue(definitions.getAllValues().get(1).isReadOnly());
+    }
+
+    @Test
+    public void testSearchBlankQuery_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> searchService.searchUsers(" ", Pageable.unpaged()));
+        verifyNoInteractions(userSearchIndex);
+    }
+
+    @Test
+    public void testSearchUsers_thenPageIsLoadedByIdsInIndexOrder() {
+        when(userSearchIndex.search("art", 100)).thenReturn(List.of(5L, 2L, 9L, 4L, 7L));
+        when(userRepository.findActiveUsersByIdIn(List.of(9L, 4L))).thenReturn(List.of(user(4), user(9)));
+
+        ResponseEntity<DataDTO<UserDTO>> resp = searchService.searchUsers("art", PageRequest.of(1, 2));
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(List.of(user(9), user(4)), resp.getBody().getData());
+        assertEquals(new Pagination(5, 3), resp.getBody().getPagination());
+    }
+
+    @Test
+    public void testSearchUsersPageAfterLastMatch_thenDatabaseIsNotQueried() {
+        when(userSearchIndex.search("art", 100)).thenReturn(List.of(5L, 2L));
+
+        ResponseEntity<DataDTO<UserDTO>> resp = searchService.searchUsers("art", PageRequest.of(3, 2));
+
+        assertEquals(List.of(), resp.getBody().getData());
+        assertEquals(new Pagination(2, 1), resp.getBody().getPagination());
+        verify(userRepository, never()).findActiveUsersByIdIn(any());
+    }
+
+    @Test
+    public void testSearchUsersUnpaged_thenAllMatchesAreReturned() {
+        when(userSearchIndex.search("art", 100)).thenReturn(List.of(2L, 1L));
+        when(userRepository.findActiveUsersByIdIn(List.of(2L, 1L))).thenReturn(List.of(user(1), user(2)));
+
+        ResponseEntity<DataDTO<UserDTO>> resp = searchService.searchUsers("art", Pageable.unpaged());
+
+        assertEquals(List.of(user(2), user(1)), resp.getBody().getData());
+        assertEquals(new Pagination(2, 1), resp.getBody().getPagination());
+    }
+
+    private static UserDTO user(long id) {
+        return new UserDTO(id, "user" + id + "@gmail.com", "Artem", "Sobko", LocalDate.of(2000, 1, 1), null, null);
+    }
+}
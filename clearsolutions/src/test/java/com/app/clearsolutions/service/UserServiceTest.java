@@ -1,36 +1,58 @@
 package com.app.clearsolutions.service;
 
+import com.app.clearsolutions.cache.UserCountCache;
+import com.app.clearsolutions.cache.impl.EmailFilterImpl;
+import com.app.clearsolutions.cache.impl.UserCacheImpl;
+import com.app.clearsolutions.cache.impl.UserCountCacheImpl;
+import com.app.clearsolutions.cache.impl.UserListVersionImpl;
+import com.app.clearsolutions.event.UserChangedEvent;
+import com.app.clearsolutions.event.UsersDeactivatedEvent;
+import com.app.clearsolutions.exception.DuplicateEmailException;
 import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.exception.PreconditionFailedException;
+import com.app.clearsolutions.exception.UserDeletedException;
+import com.app.clearsolutions.exception.UserNotFoundException;
 import com.app.clearsolutions.helper.UpdateHelper;
 import com.app.clearsolutions.model.User;
+import com.app.clearsolutions.model.dto.CursorDTO;
 import com.app.clearsolutions.model.dto.DataDTO;
+import com.app.clearsolutions.model.dto.DeactivationDTO;
+import com.app.clearsolutions.model.dto.DeactivationResultDTO;
 import com.app.clearsolutions.model.dto.UserDTO;
 import com.app.clearsolutions.repository.UserRepository;
 import com.app.clearsolutions.service.impl.UserServiceImpl;
+import com.app.clearsolutions.validator.impl.UserValidatorImpl;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 @ExtendWith(MockitoExtension.class)
 public class UserServiceTest {
-    @InjectMocks
     private UserServiceImpl userService;
     @Mock
     private UserRepository userRepository;
@@ -38,6 +60,13 @@ public class UserServiceTest {
     private Environment environment;
     @Mock
     private UpdateHelper updateHelper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private UserCountCache userCountCache;
+    private EmailFilterImpl emailFilter;
+    private UserListVersionImpl userListVersion;
 
     private final List<User> users;
 
@@ -53,6 +82,16 @@ public class UserServiceTest {
                 LocalDate.of(1990, 1, 1)));
     }
 
+    @BeforeEach
+    public void setUp() {
+        emailFilter = new EmailFilterImpl(userRepository, new TransactionTemplate(transactionManager), 1000, 0.01); // not loaded
+        userListVersion = new UserListVersionImpl(Duration.ofHours(1));
+        userCountCache = new UserCountCacheImpl(100, Duration.ofMinutes(5));
+        userService = new UserServiceImpl(userRepository, new UserValidatorImpl(environment), updateHelper,
+                userCountCache, new UserCacheImpl(100, Duration.ofMinutes(10)), emailFilter,
+                userListVersion, transactionManager, eventPublisher);
+    }
+
     @Test
     public void testCreateUserWithProperDataAndAge_thenHttpStatusIsCreated() throws InvalidInputFormatException {
         User initUser = users.get(0);
@@ -66,6 +105,48 @@ public class UserServiceTest {
         assertEquals(HttpStatus.CREATED, resp.getStatusCode());
     }
 
+    @Test
+    public void testCreateUser_thenUserChangedEventIsPublished() throws InvalidInputFormatException {
+        User initUser = users.get(0);
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
+
+        when(userRepository.save(any(User.class))).thenReturn(initUser);
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        userService.createUser(UserDTO.getDTOFromUser(initUser), UriComponentsBuilder.newInstance());
+
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertNull(eventCaptor.getValue().getPrevious());
+        assertEquals(initUser.getEmail(), eventCaptor.getValue().getCurrent().getEmail());
+    }
+
+    @Test
+    public void testCreateUserWithTakenEmail_thenThrowsStacklessDuplicateEmailExceptionWithoutInsert() {
+        User initUser = users.get(0);
+
+        when(environment.getProperty(anyString())).thenReturn("18");
+        when(userRepository.existsByEmail(initUser.getEmail())).thenReturn(true);
+
+        DuplicateEmailException exception = assertThrows(DuplicateEmailException.class, () -> userService.createUser(
+                UserDTO.getDTOFromUser(initUser), UriComponentsBuilder.newInstance()));
+        assertEquals(0, exception.getStackTrace().length);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    public void testCreateUserWithEmailNotInLoadedFilter_thenNoExistenceQuery() throws InvalidInputFormatException {
+        User initUser = users.get(0);
+
+        when(userRepository.streamEmails()).thenReturn(Stream.of("artem@gmail.com"));
+        when(userRepository.save(any(User.class))).thenReturn(initUser);
+        when(environment.getProperty(anyString())).thenReturn("18");
+        emailFilter.load();
+
+        userService.createUser(UserDTO.getDTOFromUser(initUser), UriComponentsBuilder.newInstance());
+
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
     @Test
     public void testCreateUserWithAgeLessThan18_thenThrowsIllegalArgumentException() {
         User initUser = users.get(0);
@@ -88,11 +169,11 @@ public class UserServiceTest {
 
     @Test
     public void testGetAllUsersWithoutFiltering_thenHttpStatusIsOkAndRespHasSameNumberOfElements() {
-        Page<User> initUsersPage = new PageImpl<>(users);
+        Page<UserDTO> initUsersPage = new PageImpl<>(userDTOs());
 
         when(userRepository.findUsersByIsActiveIsTrue(any(Pageable.class))).thenReturn(initUsersPage);
 
-        ResponseEntity<DataDTO> resp = userService.getUsers("", "", Pageable.unpaged());
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("", "", Pageable.unpaged());
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
         assertEquals(initUsersPage.getTotalElements(), Objects.requireNonNull(resp.getBody()).getData().size());
@@ -100,12 +181,12 @@ public class UserServiceTest {
 
     @Test
     public void testGetAllUsersWithFromAndToFiltering_thenHttpStatusIsOkAndRespHasSameNumberOfElements() {
-        Page<User> initUsersPage = new PageImpl<>(users);
+        Page<UserDTO> initUsersPage = new PageImpl<>(userDTOs());
 
         when(userRepository.findUsersByBirthDateBetweenAndIsActiveIsTrue(any(LocalDate.class),
                 any(LocalDate.class), any(Pageable.class))).thenReturn(initUsersPage);
 
-        ResponseEntity<DataDTO> resp = userService.getUsers("1980-01-01", "2020-01-01", Pageable.unpaged());
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("1980-01-01", "2020-01-01", Pageable.unpaged());
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
         assertEquals(initUsersPage.getTotalElements(), Objects.requireNonNull(resp.getBody()).getData().size());
@@ -113,12 +194,12 @@ public class UserServiceTest {
 
     @Test
     public void testGetAllUsersWithOnlyFromFiltering_thenHttpStatusIsOkAndRespHasSameNumberOfElements() {
-        Page<User> initUsersPage = new PageImpl<>(users);
+        Page<UserDTO> initUsersPage = new PageImpl<>(userDTOs());
 
         when(userRepository.findUsersByBirthDateAfterAndIsActiveIsTrue(any(LocalDate.class),
                 any(Pageable.class))).thenReturn(initUsersPage);
 
-        ResponseEntity<DataDTO> resp = userService.getUsers("1980-01-01", "", Pageable.unpaged());
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("1980-01-01", "", Pageable.unpaged());
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
         assertEquals(initUsersPage.getTotalElements(), Objects.requireNonNull(resp.getBody()).getData().size());
@@ -126,12 +207,12 @@ public class UserServiceTest {
 
     @Test
     public void testGetAllUsersWithOnlyToFiltering_thenHttpStatusIsOkAndRespHasSameNumberOfElements() {
-        Page<User> initUsersPage = new PageImpl<>(users);
+        Page<UserDTO> initUsersPage = new PageImpl<>(userDTOs());
 
         when(userRepository.findUsersByBirthDateBeforeAndIsActiveIsTrue(any(LocalDate.class),
                 any(Pageable.class))).thenReturn(initUsersPage);
 
-        ResponseEntity<DataDTO> resp = userService.getUsers("", "1980-01-01", Pageable.unpaged());
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("", "1980-01-01", Pageable.unpaged());
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
         assertEquals(initUsersPage.getTotalElements(), Objects.requireNonNull(resp.getBody()).getData().size());
@@ -149,47 +230,321 @@ public class UserServiceTest {
                 () -> userService.getUsers("2010-01-01", "1987-01-01", Pageable.unpaged()));
     }
 
+    @Test
+    public void testGetUsersWithSlicePaging_thenRespHasNextFlagAndNoCountQuery() {
+        when(userRepository.findSliceByIsActiveIsTrue(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(userDTOs(), PageRequest.of(0, 4), true));
+
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("", "", PageRequest.of(0, 4), "slice", null);
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(4, Objects.requireNonNull(resp.getBody()).getData().size());
+        assertTrue(resp.getBody().getPagination().getHasNext());
+        assertNull(resp.getBody().getPagination().getNumberOFItems());
+        verify(userRepository, never()).countByIsActiveIsTrue();
+    }
+
+    @Test
+    public void testGetUsersWithCachedPaging_thenCountQueryRunsOnce() {
+        when(userRepository.findSliceByBirthDateBetweenAndIsActiveIsTrue(any(LocalDate.class),
+                any(LocalDate.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(userDTOs(), PageRequest.of(0, 4), true));
+        when(userRepository.countByBirthDateBetweenAndIsActiveIsTrue(any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(9L);
+
+        userService.getUsers("1980-01-01", "2020-01-01", PageRequest.of(0, 4), "cached", null);
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("1980-01-01", "2020-01-01",
+                PageRequest.of(0, 4), "cached", null);
+
+        assertEquals(9L, Objects.requireNonNull(resp.getBody()).getPagination().getNumberOFItems());
+        assertEquals(3, resp.getBody().getPagination().getNumberOfPages());
+        verify(userRepository, times(1)).countByBirthDateBetweenAndIsActiveIsTrue(any(LocalDate.class),
+                any(LocalDate.class));
+    }
+
+    @Test
+    public void testGetUsersWithUnknownPaging_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsers("", "", Pageable.unpaged(), "offset", null));
+    }
+
+    @Test
+    public void testGetUsersAfterWithMoreUsersThanSize_thenRespHasSizeElementsAndNextCursor() {
+        when(userRepository.findActiveUsersAfterId(anyLong(), any(Pageable.class))).thenReturn(userDTOs());
+
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsersAfter("", "", "", 3, null);
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(3, Objects.requireNonNull(resp.getBody()).getData().size());
+        assertEquals(users.get(2).getId(), CursorDTO.decode(resp.getBody().getPagination().getNextCursor()).getId());
+    }
+
+    @Test
+    public void testGetUsersAfterOnLastPage_thenRespHasNoNextCursor() {
+        when(userRepository.findActiveUsersAfterId(eq(7L), any(Pageable.class))).thenReturn(userDTOs());
+
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsersAfter("", "",
+                new CursorDTO(null, 7).encode(), 4, null);
+
+        assertEquals(4, Objects.requireNonNull(resp.getBody()).getData().size());
+        assertNull(resp.getBody().getPagination().getNextCursor());
+    }
+
+    @Test
+    public void testGetUsersAfterWithBirthDateRange_thenSeekStartsAfterCursor() {
+        LocalDate cursorBirthDate = LocalDate.of(1995, 1, 1);
+
+        when(userRepository.findActiveUsersByBirthDateAfterKey(eq(LocalDate.of(1980, 1, 1)),
+                eq(LocalDate.of(2020, 1, 1)), eq(cursorBirthDate), eq(5L), any(Pageable.class)))
+                .thenReturn(userDTOs().subList(0, 2));
+
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsersAfter("1980-01-01", "2020-01-01",
+                new CursorDTO(cursorBirthDate, 5).encode(), 2, null);
+
+        assertEquals(2, Objects.requireNonNull(resp.getBody()).getData().size());
+        assertNull(resp.getBody().getPagination().getNextCursor());
+    }
+
+    @Test
+    public void testGetUsersAfterWithInvalidCursor_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersAfter("", "", "not a cursor", 20, null));
+    }
+
+    @Test
+    public void testGetUsersAfterWithCursorOfAnotherFilter_thenThrowsIllegalArgumentException() {
+        String cursor = new CursorDTO(LocalDate.of(1995, 1, 1), 5).encode();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsersAfter("", "", cursor, 20, null));
+    }
+
     @Test
     public void testGetUserById_thenHttpStatusIsOkAndRespContainsOneElement() {
         User initUser = users.get(0);
 
         when(userRepository.findUserById(anyLong())).thenReturn(initUser);
 
-        ResponseEntity<DataDTO> resp = userService.getUserById(1);
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUserById(1, null);
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
         assertEquals(1, Objects.requireNonNull(resp.getBody()).getData().size());
     }
 
     @Test
-    public void testGetDeletedUserById_thenThrowsNullPointerException() {
+    public void testGetUserByIdTwice_thenUserIsLoadedOnce() {
+        User initUser = users.get(0);
+
+        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
+
+        userService.getUserById(1, null);
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUserById(1, null);
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(userRepository, times(1)).findUserById(anyLong());
+    }
+
+    @Test
+    public void testGetNonExistentUserByIdTwice_thenThrowsUserNotFoundExceptionAndUserIsLoadedOnce() {
+        when(userRepository.findUserById(anyLong())).thenReturn(null);
+
+        UserNotFoundException missing = assertThrows(UserNotFoundException.class,
+                () -> userService.getUserById(1, null));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(1, null));
+        verify(userRepository, times(1)).findUserById(anyLong());
+        assertEquals(0, missing.getStackTrace().length); // Stackless: probed ids are an expected outcome
+    }
+
+    @Test
+    public void testGetDeletedUserById_thenThrowsUserDeletedException() {
         User initUser = users.get(0);
         initUser.setActive(false);
 
         when(userRepository.findUserById(anyLong())).thenReturn(initUser);
 
-        assertThrows(NullPointerException.class, () -> userService.getUserById(1));
+        assertThrows(UserDeletedException.class, () -> userService.getUserById(1, null));
     }
 
     @Test
-    public void testDeleteUser_thenHttpStatusIsOk() {
+    public void testGetUserById_thenVersionIsEntityTag() {
         User initUser = users.get(0);
-        initUser.setActive(true);
+        initUser.setVersion(3);
 
         when(userRepository.findUserById(anyLong())).thenReturn(initUser);
-        when(userRepository.save(any(User.class))).thenReturn(initUser);
 
-        ResponseEntity<Void> resp = userService.deleteUser(1);
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUserById(1, null);
+
+        assertEquals("\"3\"", resp.getHeaders().getETag());
+    }
+
+    @Test
+    public void testGetUserByIdWithCurrentETag_thenNotModifiedWithoutLoadingUser() {
+        when(userRepository.findActiveUserVersion(1)).thenReturn(3L);
+
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUserById(1, "\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, resp.getStatusCode());
+        assertEquals("\"3\"", resp.getHeaders().getETag());
+        assertNull(resp.getBody());
+        verify(userRepository, never()).findUserById(anyLong());
+    }
+
+    @Test
+    public void testGetCachedUserByIdWithCurrentETag_thenNotModifiedWithoutQuery() {
+        User initUser = users.get(0);
+        initUser.setVersion(3);
+
+        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
+
+        userService.getUserById(1, null);
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUserById(1, "W/\"3\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, resp.getStatusCode());
+        verify(userRepository, never()).findActiveUserVersion(anyLong());
+    }
+
+    @Test
+    public void testGetUserByIdWithOldETag_thenUserIsReturned() {
+        User initUser = users.get(0);
+        initUser.setVersion(4);
+
+        when(userRepository.findActiveUserVersion(1)).thenReturn(4L);
+        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
+
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUserById(1, "\"3\"");
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
-        assertFalse(initUser.getIsActive());
+        assertEquals("\"4\"", resp.getHeaders().getETag());
     }
 
     @Test
-    public void testDeleteNonExistentUser_thenThrowsNullPointerException() {
-        when(userRepository.findUserById(anyLong())).thenReturn(null);
+    public void testGetUsersWithCurrentETag_thenNotModifiedWithoutQuery() {
+        when(userRepository.findSliceByIsActiveIsTrue(any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(userDTOs()));
+
+        String etag = userService.getUsers("", "", PageRequest.of(0, 4), "slice", null).getHeaders().getETag();
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsers("", "", PageRequest.of(0, 4), "slice", etag);
+
+        assertNotNull(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, resp.getStatusCode());
+        verify(userRepository, times(1)).findSliceByIsActiveIsTrue(any(Pageable.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.getUsers("2000-01-01", "1990-01-01", PageRequest.of(0, 4), "slice", etag));
+    }
+
+    @Test
+    public void testGetUsersAfterUserChange_thenETagChanges() {
+        when(userRepository.findActiveUsersAfterId(eq(0L), any(Pageable.class))).thenReturn(userDTOs());
 
-        assertThrows(NullPointerException.class, () -> userService.deleteUser(1));
+        String etag = userService.getUsersAfter("", "", "", 4, null).getHeaders().getETag();
+        userListVersionChanged();
+        ResponseEntity<DataDTO<UserDTO>> resp = userService.getUsersAfter("", "", "", 4, etag);
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertNotEquals(etag, resp.getHeaders().getETag());
+    }
+
+    @Test
+    public void testDeleteUserWithOldETag_thenThrowsPreconditionFailedException() {
+        when(userRepository.deactivateUserByIdWithVersion(1, 3)).thenReturn(0);
+        when(userRepository.findIsActiveById(1)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> userService.deleteUser(1, "\"3\""));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testDeleteUserWithCurrentETag_thenUserIsDeleted() {
+        when(userRepository.deactivateUserByIdWithVersion(1, 3)).thenReturn(1);
+
+        ResponseEntity<Void> resp = userService.deleteUser(1, "\"3\"");
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(userRepository, never()).deactivateUserById(anyLong());
+    }
+
+    @Test
+    public void testDeleteUser_thenHttpStatusIsOk() {
+        when(userRepository.deactivateUserById(1)).thenReturn(1);
+
+        ResponseEntity<Void> resp = userService.deleteUser(1, null);
+
+        ArgumentCaptor<UsersDeactivatedEvent> eventCaptor = ArgumentCaptor.forClass(UsersDeactivatedEvent.class);
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(userRepository, never()).findUserById(anyLong());
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(List.of(1L), eventCaptor.getValue().getIds());
+        assertEquals(1, eventCaptor.getValue().getCount());
+    }
+
+    @Test
+    public void testDeleteCachedUser_thenEventHasPreviousState() {
+        User initUser = users.get(0);
+        when(userRepository.findUserById(1L)).thenReturn(initUser);
+        when(userRepository.deactivateUserById(1)).thenReturn(1);
+
+        userService.getUserById(1, null);
+        userService.deleteUser(1, null);
+
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertEquals(initUser.getBirthDate(), eventCaptor.getValue().getPrevious().getBirthDate());
+        assertNull(eventCaptor.getValue().getCurrent());
+    }
+
+    @Test
+    public void testDeleteDeletedUser_thenHttpStatusIsOkWithoutEvent() {
+        when(userRepository.deactivateUserById(1)).thenReturn(0);
+        when(userRepository.findIsActiveById(1)).thenReturn(false);
+
+        ResponseEntity<Void> resp = userService.deleteUser(1, null);
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testDeleteNonExistentUser_thenThrowsUserNotFoundException() {
+        when(userRepository.deactivateUserById(1)).thenReturn(0);
+        when(userRepository.findIsActiveById(1)).thenReturn(null);
+
+        assertThrows(UserNotFoundException.class, () -> userService.deleteUser(1, null));
+        verify(userRepository, never()).findUserById(anyLong());
+    }
+
+    @Test
+    public void testDeactivateUsersByIds_thenCountIsReturned() {
+        when(userRepository.deactivateUsersByIdIn(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        ResponseEntity<DataDTO<DeactivationResultDTO>> resp = userService.deactivateUsers(
+                new DeactivationDTO(List.of(1L, 2L, 3L), null, null));
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        assertEquals(2, Objects.requireNonNull(resp.getBody()).getData().get(0).getDeactivated());
+        verify(eventPublisher).publishEvent(any(UsersDeactivatedEvent.class));
+    }
+
+    @Test
+    public void testDeactivateUsersByBirthDateRange_thenInclusiveBoundsAreUsed() {
+        when(userRepository.deactivateUsersByBirthDateBetween(any(LocalDate.class), any(LocalDate.class)))
+                .thenReturn(0);
+
+        userService.deactivateUsers(new DeactivationDTO(null, "", "2000-01-01"));
+
+        verify(userRepository).deactivateUsersByBirthDateBetween(LocalDate.of(1000, 1, 1),
+                LocalDate.of(1999, 12, 31));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testDeactivateUsersWithoutOrWithBothSelections_thenThrowsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deactivateUsers(new DeactivationDTO(null, "", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deactivateUsers(new DeactivationDTO(List.of(1L), "2000-01-01", null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.deactivateUsers(new DeactivationDTO(List.of(), null, null)));
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -198,14 +553,86 @@ public class UserServiceTest {
         initUser.setAddress("Kharkiv city, Naberezhna St. 1");
         initUser.setPhoneNumber("+380998887766");
 
-        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
         when(updateHelper.checkIfFieldsAreNonNull(any(UserDTO.class))).thenReturn(true);
-        when(userRepository.save(any(User.class))).thenReturn(initUser);
+        when(userRepository.updateActiveUser(eq(1L), anyString(), anyString(), anyString(), any(LocalDate.class),
+                anyString(), anyString())).thenReturn(1);
         when(environment.getProperty(anyString())).thenReturn("18");
 
-        ResponseEntity<Void> resp = userService.updateAllUserFields(UserDTO.getDTOFromUser(initUser), 1);
+        ResponseEntity<Void> resp = userService.updateAllUserFields(UserDTO.getDTOFromUser(initUser), 1, null);
 
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
         assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(userRepository, never()).findUserById(anyLong());
+        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertFalse(eventCaptor.getValue().isPreviousKnown());
+    }
+
+    @Test
+    public void testUpdateAllFieldsOfCachedUser_thenEventHasPreviousState() throws IllegalAccessException,
+            InvalidInputFormatException {
+        User initUser = users.get(0);
+        initUser.setAddress("Kharkiv city, Naberezhna St. 1");
+        initUser.setPhoneNumber("+380998887766");
+        UserDTO previous = UserDTO.getDTOFromUser(initUser);
+
+        when(userRepository.findUserById(1L)).thenReturn(initUser);
+        when(updateHelper.checkIfFieldsAreNonNull(any(UserDTO.class))).thenReturn(true);
+        when(userRepository.updateActiveUser(eq(1L), anyString(), anyString(), anyString(), any(LocalDate.class),
+                anyString(), anyString())).thenReturn(1);
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        userService.getUserById(1, null);
+        userService.updateAllUserFields(UserDTO.getDTOFromUser(initUser), 1, null);
+
+        ArgumentCaptor<UserChangedEvent> eventCaptor = ArgumentCaptor.forClass(UserChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertTrue(eventCaptor.getValue().isPreviousKnown());
+        assertEquals(previous.getEmail(), eventCaptor.getValue().getPrevious().getEmail());
+    }
+
+    @Test
+    public void testUpdateAllFieldsOfDeletedOrNonExistentUser_thenThrowsUserDeletedOrNotFoundException()
+            throws IllegalAccessException {
+        User initUser = users.get(0);
+        initUser.setAddress("Kharkiv city, Naberezhna St. 1");
+        initUser.setPhoneNumber("+380998887766");
+
+        when(updateHelper.checkIfFieldsAreNonNull(any(UserDTO.class))).thenReturn(true);
+        when(userRepository.updateActiveUser(anyLong(), anyString(), anyString(), anyString(), any(LocalDate.class),
+                anyString(), anyString())).thenReturn(0);
+        when(userRepository.findIsActiveById(1)).thenReturn(false);
+        when(userRepository.findIsActiveById(2)).thenReturn(null);
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        UserDeletedException deleted = assertThrows(UserDeletedException.class,
+                () -> userService.updateAllUserFields(UserDTO.getDTOFromUser(initUser), 1, null));
+        UserNotFoundException missing = assertThrows(UserNotFoundException.class,
+                () -> userService.updateAllUserFields(UserDTO.getDTOFromUser(initUser), 2, null));
+
+        assertEquals("User with such an id has been deleted.", deleted.getMessage());
+        assertEquals("There is no user with such an id.", missing.getMessage());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    public void testUpdateAllUserFieldsWithOldETag_thenThrowsPreconditionFailedException()
+            throws IllegalAccessException {
+        User initUser = users.get(0);
+        initUser.setAddress("Kharkiv city, Naberezhna St. 1");
+        initUser.setPhoneNumber("+380998887766");
+
+        when(updateHelper.checkIfFieldsAreNonNull(any(UserDTO.class))).thenReturn(true);
+        when(userRepository.updateActiveUserWithVersion(eq(1L), anyString(), anyString(), anyString(),
+                any(LocalDate.class), anyString(), anyString(), eq(3L))).thenReturn(0);
+        when(userRepository.findIsActiveById(1)).thenReturn(true);
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.updateAllUserFields(UserDTO.getDTOFromUser(initUser), 1, "\"3\""));
+        verify(userRepository, never()).updateActiveUser(anyLong(), anyString(), anyString(), anyString(),
+                any(LocalDate.class), anyString(), anyString());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -218,7 +645,7 @@ public class UserServiceTest {
         when(environment.getProperty(anyString())).thenReturn("18");
 
         assertThrows(IllegalArgumentException.class, () -> userService.updateAllUserFields(
-                UserDTO.getDTOFromUser(initUser), 1));
+                UserDTO.getDTOFromUser(initUser), 1, null));
     }
 
     @Test
@@ -229,34 +656,63 @@ public class UserServiceTest {
         initUser.setPhoneNumber("+380998887766");
 
         assertThrows(InvalidInputFormatException.class, () -> userService.updateAllUserFields(
-                UserDTO.getDTOFromUser(initUser), 1));
+                UserDTO.getDTOFromUser(initUser), 1, null));
     }
 
     @Test
     public void testUpdateAllUserFieldsWithNullFields_thenThrowsIllegalArgumentException() throws IllegalAccessException {
         User initUser = users.get(0);
 
-        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
         when(updateHelper.checkIfFieldsAreNonNull(any(UserDTO.class))).thenReturn(false);
         when(environment.getProperty(anyString())).thenReturn("18");
 
         assertThrows(IllegalArgumentException.class, () -> userService.updateAllUserFields(
-                UserDTO.getDTOFromUser(initUser), 1));
+                UserDTO.getDTOFromUser(initUser), 1, null));
     }
 
     @Test
-    public void testPartialUpdateUser_thenHttpStatusIsOk()
-            throws NoSuchFieldException, IllegalAccessException, InvalidInputFormatException {
+    public void testPartialUpdateUser_thenHttpStatusIsOk() throws InvalidInputFormatException {
         User initUser = users.get(0);
 
         when(userRepository.findUserById(anyLong())).thenReturn(initUser);
-        doNothing().when(updateHelper).userPatcher(any(User.class), any(UserDTO.class));
-        when(userRepository.save(any(User.class))).thenReturn(initUser);
+        when(updateHelper.patchUser(any(User.class), any(UserDTO.class))).thenReturn(1);
         when(environment.getProperty(anyString())).thenReturn("18");
 
-        ResponseEntity<Void> resp = userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2);
+        ResponseEntity<Void> resp = userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, null);
 
         assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(transactionManager).commit(any());
+        verify(userRepository, never()).save(any(User.class)); // The managed user is flushed on commit
+        verify(eventPublisher).publishEvent(any(UserChangedEvent.class));
+    }
+
+    @Test
+    public void testPartialUpdateUserWithOldETag_thenThrowsPreconditionFailedException() {
+        User initUser = users.get(0);
+        initUser.setVersion(4);
+
+        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        assertThrows(PreconditionFailedException.class,
+                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, "\"3\""));
+        verify(updateHelper, never()).patchUser(any(User.class), any(UserDTO.class));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    public void testPartialUpdateUserWithoutChanges_thenUserIsNotSaved() throws InvalidInputFormatException {
+        User initUser = users.get(0);
+
+        when(userRepository.findUserById(anyLong())).thenReturn(initUser);
+        when(updateHelper.patchUser(any(User.class), any(UserDTO.class))).thenReturn(0);
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        ResponseEntity<Void> resp = userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, null);
+
+        assertEquals(HttpStatus.OK, resp.getStatusCode());
+        verify(userRepository, never()).save(any(User.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     @Test
@@ -267,7 +723,7 @@ public class UserServiceTest {
         when(environment.getProperty(anyString())).thenReturn("18");
 
         assertThrows(IllegalArgumentException.class,
-                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2));
+                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, null));
     }
 
     @Test
@@ -278,19 +734,40 @@ public class UserServiceTest {
         when(environment.getProperty(anyString())).thenReturn("18");
 
         assertThrows(InvalidInputFormatException.class,
-                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2));
+                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, null));
+    }
+
+    @Test
+    public void testPartialUpdateNonExistentUser_thenThrowsUserNotFoundException() {
+        User initUser = users.get(0);
+
+        when(environment.getProperty(anyString())).thenReturn("18");
+        when(userRepository.findUserById(anyLong())).thenReturn(null);
+
+        assertThrows(UserNotFoundException.class,
+                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, null));
+        verify(updateHelper, never()).patchUser(any(User.class), any(UserDTO.class));
     }
 
     @Test
-    public void testPartialUpdateDeletedUser_thenThrowsNullPointerException() {
+    public void testPartialUpdateDeletedUser_thenThrowsUserDeletedException() {
         User initUser = users.get(0);
         initUser.setActive(false);
 
         when(environment.getProperty(anyString())).thenReturn("18");
         when(userRepository.findUserById(anyLong())).thenReturn(initUser);
 
-        assertThrows(NullPointerException.class,
-                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2));
+        assertThrows(UserDeletedException.class,
+                () -> userService.partialUpdateUser(UserDTO.getDTOFromUser(initUser), 2, null));
     }
 
+    private void userListVersionChanged() {
+        userListVersion.onUserChanged(new UserChangedEvent(1, null, UserDTO.getDTOFromUser(users.get(0))));
+    }
+
+    private List<UserDTO> userDTOs() {
+        return users.stream()
+                .map(UserDTO::getDTOFromUser)
+                .toList();
+    }
 }
@@ -0,0 +1,137 @@
+package com.app.clearsolutions.validator;
+
+import com.app.clearsolutions.exception.InvalidInputFormatException;
+import com.app.clearsolutions.model.dto.UserDTO;
+import com.app.clearsolutions.validator.impl.UserValidatorImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.Environment;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserValidatorTest {
+    @Mock
+    private Environment environment;
+    private UserValidator userValidator;
+
+    @BeforeEach
+    public void setUp() {
+        userValidator = new UserValidatorImpl(environment);
+    }
+
+    @Test
+    public void testValidateWithProperData_thenNoExceptionIsThrown() {
+        UserDTO userDTO = new UserDTO(2, "pavlo@gmail.com", "Pavlo", "Biruk",
+                LocalDate.of(2000, 5, 10), "Kharkiv", "+380667778899");
+
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        assertDoesNotThrow(() -> userValidator.validate(userDTO));
+    }
+
+    @Test
+    public void testCheckUserDTOWithSeveralWrongFields_thenAllFieldsAreReported() {
+        UserDTO userDTO = new UserDTO(2, "pavel_gaga", "Pavlo1", "Biruk",
+                LocalDate.of(2000, 5, 10), "Kharkiv", "380667778899");
+
+        InvalidInputFormatException exception = assertThrows(InvalidInputFormatException.class,
+                () -> userValidator.checkUserDTO(userDTO));
+
+        assertEquals("Invalid format of input data: email, firstName, phoneNumber.", exception.getMessage());
+    }
+
+    @Test
+    public void testCheckUserDTOWithOnlyNullFields_thenNoExceptionIsThrown() {
+        assertDoesNotThrow(() -> userValidator.checkUserDTO(new UserDTO()));
+    }
+
+    @Test
+    public void testScannersMatchDocumentedRegexes() {
+        Pattern name = Pattern.compile("^[\\p{L}\\s]+$");
+        Pattern email = Pattern.compile("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
+        Pattern phone = Pattern.compile("^\\+\\d{5,13}$");
+
+        List<String> names = List.of("Artem", "Олена", "Anne Marie", "Jean\tLuc", "", " ", "O'Neil",
+                "Artem1", "Zoë", "𐐀bc", "Artem\n", "李");
+        List<String> emails = List.of("artem@gmail.com", "a.b-c_d%e+f@sub.domain.ua", "a@b.co", "a@b.c",
+                "@gmail.com", "artem@.com", "artem@gmail.", "artem@gmail", "artem@@gmail.com",
+                "artem@gm@ail.com", "artem@gmail.c0m", "artem@-.com", "art em@gmail.com", "artem@gmail.com.",
+                "a@b..cd", "artem@gmail.co1m", "артем@gmail.com");
+        List<String> phones = List.of("+12345", "+1234567890123", "+1234", "+12345678901234", "12345",
+                "+12a45", "+", "+380667778899", "+٣٨٠٦٦٧٧٧٨٨");
+
+        for (String value : names) {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setFirstName(value);
+            assertEquals(name.matcher(value).matches(), isValid(userDTO), value);
+        }
+        for (String value : emails) {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setEmail(value);
+            assertEquals(email.matcher(value).matches(), isValid(userDTO), value);
+        }
+        for (String value : phones) {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setPhoneNumber(value);
+            assertEquals(phone.matcher(value).matches(), isValid(userDTO), value);
+        }
+    }
+
+    @Test
+    public void testCheckUserAgeWithAgeLessThan18_thenThrowsIllegalArgumentException() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userValidator.checkUserAge(LocalDate.now().minusYears(18).plusDays(1)));
+
+        assertEquals("Users must be over 18 years old!", exception.getMessage());
+    }
+
+    @Test
+    public void testCheckUserAgeOnBirthday_thenNoExceptionIsThrown() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        assertDoesNotThrow(() -> userValidator.checkUserAge(LocalDate.now().minusYears(18)));
+    }
+
+    @Test
+    public void testCheckUserAgeSeveralTimes_thenThresholdIsReadOnce() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+
+        for (int i = 0; i < 5; i++) {
+            userValidator.checkUserAge(LocalDate.of(2000, 1, 1));
+        }
+
+        verify(environment, times(1)).getProperty(anyString());
+    }
+
+    @Test
+    public void testRefreshAgePolicy_thenNewThresholdIsUsed() {
+        when(environment.getProperty(anyString())).thenReturn("18");
+        userValidator.checkUserAge(LocalDate.now().minusYears(20));
+
+        when(environment.getProperty(anyString())).thenReturn("21");
+        userValidator.refreshAgePolicy();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userValidator.checkUserAge(LocalDate.now().minusYears(20)));
+    }
+
+    private boolean isValid(UserDTO userDTO) {
+        try {
+            userValidator.checkUserDTO(userDTO);
+            return true;
+        } catch (InvalidInputFormatException e) {
+            return false;
+        }
+    }
+}
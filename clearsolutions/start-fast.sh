@@ -0,0 +1,21 @@
+#!/usr/bin/env bash
+# Starts the fast-startup build of the application (mvn -Pfast-startup package): the plain jar with its Spring AOT
+# bean definitions and target/lib, on the CDS archive of the training run, with the 'fast-startup' Spring profile.
+# The archive is only used if the JDK, the jar and its class path are the ones of the build, and the jar is run
+# from target/ with the same relative path as in the training run; otherwise the JVM prints a warning and
+# starts without it.
+#
+# JAVA_OPTS are passed to the JVM, the arguments to the application, e.g.
+#
+#   JAVA_OPTS=-Xmx2g ./start-fast.sh --datasource.url=jdbc:mysql://db:3306/clearsolutions
+set -euo pipefail
+
+HERE=$(cd "$(dirname "$0")" && pwd)
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAVA_OPTS=${JAVA_OPTS:-}
+JAR=clearsolutions-0.0.1-SNAPSHOT.jar
+
+cd "$HERE/target"
+# shellcheck disable=SC2086
+exec "$JAVA" $JAVA_OPTS -XX:SharedArchiveFile="${JAR%.jar}.jsa" -Dspring.aot.enabled=true -jar "$JAR" \
+    --spring.profiles.active=fast-startup "$@"